@@ -0,0 +1,93 @@
+package com.example.alertamx.geo;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+// Medición en el dispositivo con 100k reportes sintéticos repartidos por el área
+// metropolitana (objetivo: menos de 1 ms por consulta). Registra los tiempos en
+// logcat con la etiqueta SpatialIndexBenchmark; dependen del equipo y no se comprueban
+@RunWith(AndroidJUnit4.class)
+public class SpatialIndexBenchmark {
+
+    private static final String TAG = "SpatialIndexBenchmark";
+
+    private static final int POINTS = 100_000;
+    private static final int QUERIES = 2_000;
+    private static final double LAT = 19.4326;
+    private static final double LNG = -99.1332;
+    // ~50 km por lado
+    private static final double SPAN = 0.45;
+
+    @Test
+    public void hundredThousandPoints_viewportNearestAndUpdates() {
+        Random random = new Random(2024);
+        SpatialIndex<Integer> index = new SpatialIndex<>();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < POINTS; i++) {
+            index.put("r" + i, randomLat(random), randomLng(random), i);
+        }
+        long buildNanos = System.nanoTime() - start;
+        assertEquals(POINTS, index.size());
+
+        // Calentamiento para que el JIT compile antes de medir
+        runViewportQueries(index, new Random(1), QUERIES);
+        runNearestQueries(index, new Random(1), QUERIES);
+
+        start = System.nanoTime();
+        long found = runViewportQueries(index, new Random(2), QUERIES);
+        double viewportMicros = (System.nanoTime() - start) / 1000.0 / QUERIES;
+
+        start = System.nanoTime();
+        runNearestQueries(index, new Random(3), QUERIES);
+        double nearestMicros = (System.nanoTime() - start) / 1000.0 / QUERIES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            index.put("r" + i, randomLat(random), randomLng(random), i);
+        }
+        double updateMicros = (System.nanoTime() - start) / 1000.0 / QUERIES;
+
+        assertEquals(POINTS, index.size());
+
+        Log.i(TAG, String.format(Locale.ROOT, "%d puntos: construcción %d ms, viewport %.1f µs"
+                        + " (%d resultados/consulta), 10-vecinos %.1f µs, actualización %.1f µs",
+                POINTS, buildNanos / 1_000_000, viewportMicros, found / QUERIES, nearestMicros, updateMicros));
+    }
+
+    // Ventana de ~1.5 km, lo que se ve en un mapa a nivel de colonia
+    private static long runViewportQueries(SpatialIndex<Integer> index, Random random, int count) {
+        long found = 0;
+        for (int i = 0; i < count; i++) {
+            double lat = randomLat(random);
+            double lng = randomLng(random);
+            List<Integer> result = index.queryBox(lat, lng, lat + 0.014, lng + 0.014);
+            found += result.size();
+        }
+        return found;
+    }
+
+    private static void runNearestQueries(SpatialIndex<Integer> index, Random random, int count) {
+        for (int i = 0; i < count; i++) {
+            assertEquals(10, index.nearest(randomLat(random), randomLng(random), 10).size());
+        }
+    }
+
+    private static double randomLat(Random random) {
+        return LAT + (random.nextDouble() - 0.5) * SPAN;
+    }
+
+    private static double randomLng(Random random) {
+        return LNG + (random.nextDouble() - 0.5) * SPAN;
+    }
+}
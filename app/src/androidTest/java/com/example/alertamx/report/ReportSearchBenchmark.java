@@ -0,0 +1,102 @@
+package com.example.alertamx.report;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+import androidx.test.platform.app.InstrumentationRegistry;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+// Medición en el dispositivo de la búsqueda local con 50k reportes (objetivo:
+// menos de 50 ms por página). Registra los tiempos en logcat con la etiqueta
+// ReportSearchBenchmark; dependen del equipo y no se comprueban
+@RunWith(AndroidJUnit4.class)
+public class ReportSearchBenchmark {
+
+    private static final String TAG = "ReportSearchBenchmark";
+    private static final int REPORTS = 50_000;
+    private static final int PAGE_SIZE = 20;
+    private static final int RUNS = 30;
+    private static final String[] TIPOS = {"Robo o asalto", "Bache", "Fuga de agua", "Falla de energía",
+            "Inundación", "Basura", "Alumbrado", "Otro"};
+    private static final String[] WORDS = {"calle", "esquina", "avenida", "coladera", "poste",
+            "banqueta", "semáforo", "transformador", "tubería", "drenaje", "parque", "mercado",
+            "escuela", "puente", "glorieta", "camellón", "luminaria", "cable", "árbol", "noche"};
+    private static final String[] COLONIAS = {"Centro", "Roma Norte", "Narvarte", "Doctores",
+            "Del Valle", "Coyoacán", "Tlalpan", "Iztapalapa", "Azcapotzalco", "Polanco"};
+
+    private ReportStore store;
+
+    @Before
+    public void setUp() {
+        store = new ReportStore(InstrumentationRegistry.getInstrumentation().getTargetContext(), null);
+        Random random = new Random(2024);
+        List<CachedReport> batch = new ArrayList<>();
+        for (int i = 0; i < REPORTS; i++) {
+            StringBuilder descripcion = new StringBuilder();
+            int words = 8 + random.nextInt(25);
+            for (int w = 0; w < words; w++) {
+                descripcion.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+            }
+            long fecha = 1_700_000_000_000L + i * 60_000L;
+            batch.add(new CachedReport("r" + i, TIPOS[random.nextInt(TIPOS.length)],
+                    descripcion.toString(), COLONIAS[random.nextInt(COLONIAS.length)], "Pendiente",
+                    "u" + random.nextInt(500), "Vecino", fecha, fecha, 0, 0, null, null));
+            if (batch.size() == 1_000) {
+                store.upsertAll(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    @Test
+    public void fiftyThousandReports_firstAndNextPages() {
+        // Una palabra poco común, una que está en casi todas las filas y un prefijo corto
+        for (String text : Arrays.asList("glorieta", "calle", "ca")) {
+            long[] first = new long[RUNS];
+            long[] next = new long[RUNS];
+            for (int run = 0; run < RUNS; run++) {
+                // Cualquier escritura descarta el ranking: cada vuelta mide la primera página sin caché
+                store.delete(Collections.singletonList("no-existe"));
+
+                long start = System.nanoTime();
+                List<CachedReport> page = store.search(text, 0, PAGE_SIZE);
+                first[run] = System.nanoTime() - start;
+                assertEquals(PAGE_SIZE, page.size());
+
+                start = System.nanoTime();
+                page = store.search(text, PAGE_SIZE, PAGE_SIZE);
+                next[run] = System.nanoTime() - start;
+                assertEquals(PAGE_SIZE, page.size());
+            }
+            Log.i(TAG, String.format(Locale.ROOT, "\"%s\" con %d reportes: primera página p50 %.1f ms"
+                            + " p90 %.1f ms, siguiente página p50 %.1f ms p90 %.1f ms (objetivo 50 ms)",
+                    text, REPORTS, percentileMillis(first, 50), percentileMillis(first, 90),
+                    percentileMillis(next, 50), percentileMillis(next, 90)));
+        }
+    }
+
+    private static double percentileMillis(long[] nanos, int percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        int index = Math.min(sorted.length - 1, sorted.length * percentile / 100);
+        return sorted[index] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.alertamx.stats;
+
+import android.util.Log;
+
+import androidx.test.ext.junit.runners.AndroidJUnit4;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+// Medición en el dispositivo: reproduce 1M eventos sintéticos (altas, cambios de
+// estado y bajas) sobre dos años de reportes y comprueba los totales contra un
+// conteo directo. Registra los tiempos en logcat con la etiqueta
+// ReportStatsBenchmark; dependen del equipo y no se comprueban
+@RunWith(AndroidJUnit4.class)
+public class ReportStatsBenchmark {
+
+    private static final String TAG = "ReportStatsBenchmark";
+
+    private static final int EVENTS = 1_000_000;
+    private static final int QUERIES = 1_000;
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long START = 19_358 * ReportStats.DAY_MILLIS;
+    private static final int DAYS = 730;
+    private static final String[] TIPOS = {"Robo o asalto", "Bache", "Fuga de agua", "Falla de energía",
+            "Inundación", "Basura", "Alumbrado", "Otro"};
+    private static final String[] ESTADOS = {"Pendiente", "En proceso", ReportStats.ESTADO_RESUELTO};
+
+    @Test
+    public void millionEvents_updatesAndRangeQueries() {
+        Random random = new Random(2024);
+        ReportStats stats = new ReportStats(-6 * HOUR);
+        // Estado esperado por reporte: {día, tipo, estado}
+        Map<String, int[]> expected = new HashMap<>();
+        String[] ids = new String[EVENTS];
+        long[] fechas = new long[EVENTS];
+        int created = 0;
+
+        long start = System.nanoTime();
+        for (int i = 0; i < EVENTS; i++) {
+            int kind = random.nextInt(100);
+            if (created == 0 || kind < 40) {
+                // Alta
+                String id = "r" + created;
+                long fecha = START + (long) (random.nextDouble() * DAYS * ReportStats.DAY_MILLIS);
+                int tipo = random.nextInt(TIPOS.length);
+                stats.upsert(id, TIPOS[tipo], ESTADOS[0], fecha, 0);
+                ids[created] = id;
+                fechas[created] = fecha;
+                expected.put(id, new int[]{stats.dayOf(fecha), tipo, 0});
+                created++;
+            } else if (kind < 95) {
+                // Cambio de estado de un reporte existente
+                int index = random.nextInt(created);
+                int[] state = expected.get(ids[index]);
+                if (state == null) {
+                    continue;
+                }
+                state[2] = random.nextInt(ESTADOS.length);
+                long resueltoEn = state[2] == 2 ? fechas[index] + (long) (random.nextDouble() * 72 * HOUR) : 0;
+                stats.upsert(ids[index], TIPOS[state[1]], ESTADOS[state[2]], fechas[index], resueltoEn);
+            } else {
+                int index = random.nextInt(created);
+                stats.remove(ids[index]);
+                expected.remove(ids[index]);
+            }
+        }
+        double eventMicros = (System.nanoTime() - start) / 1000.0 / EVENTS;
+        assertEquals(expected.size(), stats.size());
+
+        // Calentamiento para que el JIT compile antes de medir
+        runQueries(stats, new Random(1), QUERIES);
+        start = System.nanoTime();
+        long checksum = runQueries(stats, new Random(2), QUERIES);
+        double queryMicros = (System.nanoTime() - start) / 1000.0 / QUERIES;
+
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            stats.medianResolutionMillis(START, START + DAYS * ReportStats.DAY_MILLIS);
+        }
+        double medianMicros = (System.nanoTime() - start) / 1000.0 / QUERIES;
+
+        Log.i(TAG, String.format(Locale.ROOT, "%d eventos (%d reportes): %.2f µs/evento,"
+                        + " rango de 90 días por tipo %.1f µs, mediana de 2 años %.1f µs (checksum %d)",
+                EVENTS, expected.size(), eventMicros, queryMicros, medianMicros, checksum));
+
+        // Totales contra conteo directo
+        Map<Long, Integer> direct = new HashMap<>();
+        for (int[] state : expected.values()) {
+            direct.merge(((long) state[0] << 8) | (state[1] << 2) | state[2], 1, Integer::sum);
+        }
+        for (Map.Entry<Long, Integer> entry : direct.entrySet()) {
+            int day = (int) (entry.getKey() >> 8);
+            int tipo = (int) ((entry.getKey() >> 2) & 0x3f);
+            int estado = (int) (entry.getKey() & 3);
+            assertEquals((int) entry.getValue(), stats.count(day, TIPOS[tipo], ESTADOS[estado]));
+        }
+    }
+
+    // Gráfica de 90 días para un tipo, como la pediría el Dashboard
+    private static long runQueries(ReportStats stats, Random random, int count) {
+        long checksum = 0;
+        for (int i = 0; i < count; i++) {
+            long from = START + (long) random.nextInt(DAYS - 90) * ReportStats.DAY_MILLIS;
+            int[] counts = stats.countsPerDay(from, from + 89 * ReportStats.DAY_MILLIS,
+                    TIPOS[random.nextInt(TIPOS.length)], null);
+            checksum += counts[random.nextInt(counts.length)];
+        }
+        return checksum;
+    }
+}
@@ -1,73 +1,90 @@
 package com.example.alertamx;
 
 import androidx.lifecycle.MutableLiveData;
+import com.example.alertamx.resilience.Backoff;
+import com.example.alertamx.resilience.CallPolicy;
+import com.example.alertamx.validation.InputValidator;
+import com.example.alertamx.validation.ValidationResult;
+import com.google.firebase.FirebaseApp;
 import com.google.firebase.auth.FirebaseAuth;
 import com.google.firebase.auth.FirebaseUser;
-import com.google.firebase.auth.UserProfileChangeRequest;
-import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.firestore.DocumentSnapshot;
 import com.google.android.gms.tasks.Task;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 
 public class AuthRepository {
-    private FirebaseAuth firebaseAuth;
-    private FirebaseFirestore firestore;
+    // Iniciar sesión es idempotente: se reintenta ante fallos de red
+    private static final CallPolicy LOGIN_POLICY =
+            new CallPolicy(15_000, 30_000, 3, new Backoff(500, 4_000));
+    // Crear la cuenta no: un intento que vence pudo haberla creado
+    private static final CallPolicy REGISTER_POLICY = CallPolicy.once(20_000);
+
+    private final FirebaseCalls calls = FirebaseCalls.getInstance();
+    private final AuthSession session;
     private MutableLiveData<FirebaseUser> userLiveData;
     private MutableLiveData<String> errorLiveData;
     private MutableLiveData<Boolean> loadingLiveData;
 
     public AuthRepository() {
-        this.firebaseAuth = FirebaseAuth.getInstance();
-        this.firestore = FirebaseFirestore.getInstance();
+        this(AuthSession.getInstance());
+    }
+
+    // El usuario actual lo mantiene AuthSession; aquí solo queda el estado de cada operación
+    public AuthRepository(AuthSession session) {
+        this.session = session;
         this.userLiveData = new MutableLiveData<>();
         this.errorLiveData = new MutableLiveData<>();
         this.loadingLiveData = new MutableLiveData<>();
-
-        // Verificar usuario actual al inicializar
-        checkCurrentUser();
     }
 
     // Método de registro (ya existente)
     public void register(String name, String email, String password) {
         loadingLiveData.setValue(true);
 
-        if (!isValidEmail(email)) {
+        // Un email sospechoso tampoco se registra: luego no podría iniciar sesión
+        if (!InputValidator.email(email).isValid()) {
             errorLiveData.setValue("El formato del email no es válido");
             loadingLiveData.setValue(false);
             return;
         }
 
-        if (!isValidPassword(password)) {
+        if (!InputValidator.password(password).isValid()) {
             errorLiveData.setValue("La contraseña debe tener al menos 6 caracteres");
             loadingLiveData.setValue(false);
             return;
         }
 
-        firebaseAuth.createUserWithEmailAndPassword(email, password)
+        // Se guarda antes de crear la cuenta: si la app se cierra a mitad, el worker lo termina
+        PendingRegistrations pending = PendingRegistrations.getInstance();
+        pending.add(name, email);
+
+        // Solo se espera a la creación de la cuenta; nombre y documento "users" los
+        // completa RegistrationCompletionWorker en paralelo y con reintentos
+        calls.call(calls.auth(), "createUser", REGISTER_POLICY,
+                        () -> session.getFirebaseAuth().createUserWithEmailAndPassword(email, password))
                 .addOnCompleteListener(task -> {
+                    Exception e = task.getException();
+                    if (e instanceof RejectedExecutionException) {
+                        // Doble toque: el registro anterior sigue en curso y es el que termina
+                        return;
+                    }
                     loadingLiveData.setValue(false);
                     if (task.isSuccessful()) {
-                        FirebaseUser firebaseUser = firebaseAuth.getCurrentUser();
-                        if (firebaseUser != null) {
-                            UserProfileChangeRequest profileUpdates = new UserProfileChangeRequest.Builder()
-                                    .setDisplayName(name)
-                                    .build();
-
-                            firebaseUser.updateProfile(profileUpdates)
-                                    .addOnCompleteListener(profileTask -> {
-                                        if (profileTask.isSuccessful()) {
-                                            saveUserToFirestore(firebaseUser.getUid(), name, email);
-                                            userLiveData.setValue(firebaseUser);
-                                        } else {
-                                            errorLiveData.setValue("Error al actualizar perfil: " +
-                                                    profileTask.getException().getMessage());
-                                        }
-                                    });
-                        }
+                        FirebaseUser firebaseUser = task.getResult().getUser();
+                        pending.attachUid(email, firebaseUser.getUid());
+                        session.setPendingName(firebaseUser.getUid(), name);
+                        RegistrationCompletionWorker.schedule(
+                                FirebaseApp.getInstance().getApplicationContext());
+                        userLiveData.setValue(firebaseUser);
+                    } else if (e instanceof TimeoutException) {
+                        // La cuenta pudo crearse igualmente: el registro pendiente se conserva
+                        // y el worker lo completa si aparece la sesión con este email
+                        errorLiveData.setValue("El servidor no respondió. Intente iniciar sesión en unos minutos");
                     } else {
-                        errorLiveData.setValue("Error en registro: " +
-                                task.getException().getMessage());
+                        pending.discardUnconfirmed(email);
+                        errorLiveData.setValue(FirebaseCalls.isUnavailable(e)
+                                ? "Error de conexión. Intente nuevamente"
+                                : "Error en registro: " + e.getMessage());
                     }
                 });
     }
@@ -77,140 +94,91 @@ public class AuthRepository {
         loadingLiveData.setValue(true);
 
         // Validaciones de seguridad
-        if (!isValidEmail(email)) {
+        ValidationResult emailCheck = InputValidator.email(email);
+        if (!emailCheck.isValid() && emailCheck != ValidationResult.SUSPICIOUS) {
             errorLiveData.setValue("El formato del email no es válido");
             loadingLiveData.setValue(false);
             return;
         }
 
-        if (!isValidPassword(password)) {
+        if (!InputValidator.password(password).isValid()) {
             errorLiveData.setValue("La contraseña debe tener al menos 6 caracteres");
             loadingLiveData.setValue(false);
             return;
         }
 
-        if (isSuspiciousEmail(email)) {
+        if (emailCheck == ValidationResult.SUSPICIOUS) {
             errorLiveData.setValue("Credenciales incorrectas");
             loadingLiveData.setValue(false);
             return;
         }
 
-        firebaseAuth.signInWithEmailAndPassword(email, password)
+        calls.call(calls.auth(), "signIn", LOGIN_POLICY,
+                        () -> session.getFirebaseAuth().signInWithEmailAndPassword(email, password))
                 .addOnCompleteListener(task -> {
+                    Exception e = task.getException();
+                    if (e instanceof RejectedExecutionException) {
+                        // Doble toque: el inicio de sesión anterior sigue en curso
+                        return;
+                    }
                     loadingLiveData.setValue(false);
                     if (task.isSuccessful()) {
-                        FirebaseUser firebaseUser = firebaseAuth.getCurrentUser();
+                        FirebaseUser firebaseUser = session.getFirebaseAuth().getCurrentUser();
                         if (firebaseUser != null) {
+                            // Un registro anterior de esta cuenta pudo quedar a medias sin sesión
+                            RegistrationCompletionWorker.schedule(
+                                    FirebaseApp.getInstance().getApplicationContext());
                             userLiveData.setValue(firebaseUser);
                         }
+                    } else if (FirebaseCalls.isUnavailable(e)) {
+                        errorLiveData.setValue("Error de conexión. Intente nuevamente");
                     } else {
                         // Mensaje genérico por seguridad
                         errorLiveData.setValue("Credenciales incorrectas. Verifique su email y contraseña");
                     }
-                })
-                .addOnFailureListener(e -> {
-                    loadingLiveData.setValue(false);
-                    errorLiveData.setValue("Error de conexión. Intente nuevamente");
                 });
     }
 
     // Método para verificar si el usuario ya está autenticado
     public void checkCurrentUser() {
-        FirebaseUser currentUser = firebaseAuth.getCurrentUser();
-        if (currentUser != null) {
-            userLiveData.setValue(currentUser);
+        if (session.current().isSignedIn()) {
+            userLiveData.setValue(session.getFirebaseAuth().getCurrentUser());
         }
     }
 
     // Método para cerrar sesión
     public void logout() {
-        firebaseAuth.signOut();
+        // AuthSession recibe el cambio por su AuthStateListener
+        session.getFirebaseAuth().signOut();
         userLiveData.setValue(null);
     }
 
-    private void saveUserToFirestore(String uid, String name, String email) {
-        Map<String, Object> userData = new HashMap<>();
-        userData.put("uid", uid);
-        userData.put("name", name);
-        userData.put("email", email);
-
-        firestore.collection("users")
-                .document(uid)
-                .set(userData)
-                .addOnFailureListener(e -> {
-                    errorLiveData.setValue("Error al guardar usuario: " + e.getMessage());
-                });
-    }
-
     // ===== NUEVOS MÉTODOS PARA LA FUNCIONALIDAD DE REPORTES =====
 
-    // Obtener datos del usuario desde Firestore
-    public Task<DocumentSnapshot> getUserData(String uid) {
-        return firestore.collection("users").document(uid).get();
+    // Obtener datos del usuario: al instante desde la caché, revalidando en segundo plano
+    // si ya venció. Para recibir la versión revalidada usar UserProfileCache.observe(uid)
+    public Task<User> getUserData(String uid) {
+        return UserProfileCache.getInstance().get(uid);
     }
 
-    // Guardar datos del usuario en Firestore
+    // Guardar datos del usuario en Firestore; no escribe si nada cambió
     public Task<Void> saveUserData(User user) {
-        Map<String, Object> userData = new HashMap<>();
-        userData.put("uid", user.getUid());
-        userData.put("name", user.getName());
-        userData.put("email", user.getEmail());
-
-        return firestore.collection("users").document(user.getUid()).set(userData);
+        return UserProfileCache.getInstance().save(user);
     }
 
     // Obtener usuario actual con datos completos en formato User
     public User getCurrentUserData() {
-        FirebaseUser firebaseUser = firebaseAuth.getCurrentUser();
-        if (firebaseUser != null) {
-            return new User(
-                    firebaseUser.getUid(),
-                    firebaseUser.getDisplayName() != null ? firebaseUser.getDisplayName() : "Usuario",
-                    firebaseUser.getEmail()
-            );
-        }
-        return null;
+        return session.current().toUser();
     }
 
     // Verificar si hay un usuario logueado
     public boolean isUserLoggedIn() {
-        return firebaseAuth.getCurrentUser() != null;
+        return session.current().isSignedIn();
     }
 
     // Obtener el usuario actual de Firebase
     public FirebaseUser getCurrentFirebaseUser() {
-        return firebaseAuth.getCurrentUser();
-    }
-
-    // Validaciones de seguridad mejoradas
-    private boolean isValidEmail(String email) {
-        return email != null &&
-                android.util.Patterns.EMAIL_ADDRESS.matcher(email).matches() &&
-                email.length() <= 254; // Longitud máxima estándar para emails
-    }
-
-    private boolean isValidPassword(String password) {
-        return password != null &&
-                password.length() >= 6 &&
-                password.length() <= 128; // Longitud máxima razonable
-    }
-
-    // Detección de emails sospechosos (protección básica)
-    private boolean isSuspiciousEmail(String email) {
-        String[] suspiciousPatterns = {
-                "..",
-                ".@",
-                "@.",
-                "''",
-                "\\\"\\\""
-        };
-
-        for (String pattern : suspiciousPatterns) {
-            if (email.contains(pattern)) {
-                return true;
-            }
-        }
-        return false;
+        return session.getFirebaseAuth().getCurrentUser();
     }
 
     public MutableLiveData<FirebaseUser> getUserLiveData() {
@@ -0,0 +1,154 @@
+package com.example.alertamx;
+
+import android.os.Handler;
+import android.os.Looper;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Sesión de la app: un solo AuthStateListener para todo el proceso y una
+// instantánea inmutable del usuario que comparten todas las pantallas. Los
+// ViewModel la leen en lugar de crear su propio repositorio y observador.
+public class AuthSession {
+
+    private static AuthSession instance;
+
+    // Origen del usuario actual; en la app, FirebaseAuth
+    interface Source {
+        // El usuario tal cual lo da el proveedor; name null si aún no tiene
+        Snapshot read();
+        // onChange se llama en el hilo principal
+        void addListener(Runnable onChange);
+    }
+
+    private final Source source;
+    private final MutableLiveData<Snapshot> session;
+    private volatile Snapshot current;
+    // Nombre elegido al registrarse mientras updateProfile sigue pendiente
+    private final Map<String, String> pendingNames = new ConcurrentHashMap<>();
+    private Handler mainHandler;
+
+    // Datos del usuario en un momento dado; para otro usuario o nombre se crea otra
+    public static final class Snapshot {
+        public static final Snapshot SIGNED_OUT = new Snapshot(null, null, null);
+
+        private final String uid;
+        private final String name;
+        private final String email;
+
+        public Snapshot(String uid, String name, String email) {
+            this.uid = uid;
+            this.name = name;
+            this.email = email;
+        }
+
+        public boolean isSignedIn() { return uid != null; }
+        public String getUid() { return uid; }
+        public String getName() { return name; }
+        public String getEmail() { return email; }
+
+        public User toUser() {
+            return isSignedIn() ? new User(uid, name, email) : null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Snapshot)) return false;
+            Snapshot other = (Snapshot) o;
+            return Objects.equals(uid, other.uid)
+                    && Objects.equals(name, other.name)
+                    && Objects.equals(email, other.email);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(uid, name, email);
+        }
+    }
+
+    public static synchronized AuthSession getInstance() {
+        if (instance == null) {
+            instance = new AuthSession(firebase(FirebaseAuth.getInstance()));
+        }
+        return instance;
+    }
+
+    AuthSession(Source source) {
+        this.source = source;
+        // Valor inmediato sin setValue: la primera llamada puede venir de otro hilo.
+        // El listener confirma después, siempre en el hilo principal
+        current = snapshotOf(source.read());
+        session = new MutableLiveData<>(current);
+        source.addListener(() -> publish(snapshotOf(source.read())));
+    }
+
+    private static Source firebase(FirebaseAuth auth) {
+        return new Source() {
+            @Override
+            public Snapshot read() {
+                FirebaseUser user = auth.getCurrentUser();
+                return user != null
+                        ? new Snapshot(user.getUid(), user.getDisplayName(), user.getEmail())
+                        : Snapshot.SIGNED_OUT;
+            }
+
+            @Override
+            public void addListener(Runnable onChange) {
+                auth.addAuthStateListener(changed -> onChange.run());
+            }
+        };
+    }
+
+    public FirebaseAuth getFirebaseAuth() {
+        return FirebaseAuth.getInstance();
+    }
+
+    public LiveData<Snapshot> getSession() {
+        return session;
+    }
+
+    // Lectura sin observar, válida desde cualquier hilo
+    public Snapshot current() {
+        return current;
+    }
+
+    // El cambio de nombre (updateProfile) no dispara el AuthStateListener.
+    // Se puede llamar desde cualquier hilo; se publica en el principal
+    public synchronized void refresh() {
+        if (mainHandler == null) {
+            mainHandler = new Handler(Looper.getMainLooper());
+        }
+        mainHandler.post(() -> publish(snapshotOf(source.read())));
+    }
+
+    // Registro en curso: la sesión muestra ya el nombre aunque el perfil aún no lo tenga
+    public void setPendingName(String uid, String name) {
+        pendingNames.put(uid, name);
+        refresh();
+    }
+
+    private Snapshot snapshotOf(Snapshot user) {
+        if (!user.isSignedIn()) {
+            return Snapshot.SIGNED_OUT;
+        }
+        String name = user.getName();
+        if (name == null || name.isEmpty()) {
+            name = pendingNames.get(user.getUid());
+        }
+        return new Snapshot(user.getUid(), name != null ? name : "Usuario", user.getEmail());
+    }
+
+    // Solo publica si algo cambió: los observadores no reciben la misma sesión dos veces
+    private void publish(Snapshot snapshot) {
+        if (snapshot.equals(current)) {
+            return;
+        }
+        current = snapshot;
+        session.setValue(snapshot);
+    }
+}
@@ -1,36 +1,32 @@
 package com.example.alertamx;
 
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.ViewModel;
 import androidx.lifecycle.MutableLiveData;
 import com.google.firebase.auth.FirebaseUser;
 
 public class AuthViewModel extends ViewModel {
-    private AuthRepository authRepository;
-    private MutableLiveData<FirebaseUser> userLiveData;
-    private MutableLiveData<String> errorLiveData;
-    private MutableLiveData<Boolean> loadingLiveData;
-    private MutableLiveData<User> currentUserData;
+    private final AuthSession session;
+    private final AuthRepository authRepository;
+    private final MutableLiveData<FirebaseUser> userLiveData;
+    private final MutableLiveData<String> errorLiveData;
+    private final MutableLiveData<Boolean> loadingLiveData;
+    // Derivado de la sesión compartida; solo la observa mientras una pantalla lo
+    // observa a él, así el ViewModel no queda retenido por AuthSession
+    private final MediatorLiveData<User> currentUserData = new MediatorLiveData<>();
 
     public AuthViewModel() {
-        authRepository = new AuthRepository();
+        this(AuthSession.getInstance());
+    }
+
+    AuthViewModel(AuthSession session) {
+        this.session = session;
+        authRepository = new AuthRepository(session);
         userLiveData = authRepository.getUserLiveData();
         errorLiveData = authRepository.getErrorLiveData();
         loadingLiveData = authRepository.getLoadingLiveData();
-        currentUserData = new MutableLiveData<>();
-
-        // Observar cambios en el usuario de Firebase y convertirlo a nuestro modelo User
-        userLiveData.observeForever(firebaseUser -> {
-            if (firebaseUser != null) {
-                User user = new User(
-                        firebaseUser.getUid(),
-                        firebaseUser.getDisplayName() != null ? firebaseUser.getDisplayName() : "Usuario",
-                        firebaseUser.getEmail()
-                );
-                currentUserData.setValue(user);
-            } else {
-                currentUserData.setValue(null);
-            }
-        });
+        currentUserData.addSource(session.getSession(), snapshot -> currentUserData.setValue(snapshot.toUser()));
     }
 
     public void register(String name, String email, String password) {
@@ -66,30 +62,28 @@ public class AuthViewModel extends ViewModel {
     }
 
     // Nuevos métodos para la funcionalidad de reportes
-    public MutableLiveData<User> getCurrentUser() {
+    public LiveData<User> getCurrentUser() {
         return currentUserData;
     }
 
+    // Las lecturas directas usan la instantánea actual, sin depender de observadores
     public boolean isUserLoggedIn() {
-        return userLiveData.getValue() != null;
+        return session.current().isSignedIn();
     }
 
     public String getCurrentUserId() {
-        User user = currentUserData.getValue();
-        return user != null ? user.getUid() : null;
+        return session.current().getUid();
     }
 
     public User getCurrentUserData() {
-        return currentUserData.getValue();
+        return session.current().toUser();
     }
 
     public String getCurrentUserName() {
-        User user = currentUserData.getValue();
-        return user != null ? user.getName() : null;
+        return session.current().getName();
     }
 
     public String getCurrentUserEmail() {
-        User user = currentUserData.getValue();
-        return user != null ? user.getEmail() : null;
+        return session.current().getEmail();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,170 @@
+package com.example.alertamx;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.util.Log;
+import com.example.alertamx.resilience.Backend;
+import com.example.alertamx.resilience.Bulkhead;
+import com.example.alertamx.resilience.CallMetrics;
+import com.example.alertamx.resilience.CallPolicy;
+import com.example.alertamx.resilience.CircuitBreaker;
+import com.example.alertamx.resilience.CircuitOpenException;
+import com.example.alertamx.resilience.Clock;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.firebase.FirebaseNetworkException;
+import com.google.firebase.FirebaseTooManyRequestsException;
+import com.google.firebase.firestore.FirebaseFirestoreException;
+import com.google.firebase.storage.StorageException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Punto único para las Task de Firebase: cada backend tiene su circuito y su
+// límite de concurrencia, y cada intento queda en Logcat con su resultado y
+// latencia. La lógica vive en resilience/; aquí solo se adapta Task.
+public class FirebaseCalls {
+
+    private static final String TAG = "FirebaseCalls";
+
+    // Los listeners de la Task solo reenvían el resultado: no hace falta saltar de hilo
+    private static final Executor DIRECT = Runnable::run;
+
+    private static FirebaseCalls instance;
+
+    private final Backend auth;
+    private final Backend firestore;
+    private final Backend storage;
+
+    public static synchronized FirebaseCalls getInstance() {
+        if (instance == null) {
+            instance = new FirebaseCalls();
+        }
+        return instance;
+    }
+
+    private FirebaseCalls() {
+        Clock clock = systemClock();
+        CallMetrics metrics = (backend, operation, attempt, outcome, latencyMillis) ->
+                Log.d(TAG, backend + "." + operation + " intento " + attempt + ": " + outcome
+                        + " (" + latencyMillis + " ms)");
+        // Auth: una operación a la vez, un segundo toque mientras tanto se descarta
+        auth = new Backend("auth", clock, new CircuitBreaker(clock, 5, 30_000),
+                new Bulkhead(1, 0), FirebaseCalls::isTransient, FirebaseCalls::isRetryable, metrics);
+        firestore = new Backend("firestore", clock, new CircuitBreaker(clock, 5, 30_000),
+                new Bulkhead(8, 32), FirebaseCalls::isTransient, FirebaseCalls::isRetryable, metrics);
+        // UploadScheduler ya limita las subidas; esto solo acota el total
+        storage = new Backend("storage", clock, new CircuitBreaker(clock, 3, 60_000),
+                new Bulkhead(4, 16), FirebaseCalls::isTransient, FirebaseCalls::isRetryable, metrics);
+    }
+
+    public Backend auth() {
+        return auth;
+    }
+
+    public Backend firestore() {
+        return firestore;
+    }
+
+    public Backend storage() {
+        return storage;
+    }
+
+    // La Task devuelta completa con el resultado del último intento. Cada
+    // reintento vuelve a llamar a request: debe crear una Task nueva
+    public <T> Task<T> call(Backend backend, String operation, CallPolicy policy,
+                            Supplier<Task<T>> request) {
+        TaskCompletionSource<T> source = new TaskCompletionSource<>();
+        backend.execute(operation, policy,
+                callback -> request.get().addOnCompleteListener(DIRECT, task -> {
+                    if (task.isSuccessful()) {
+                        callback.onSuccess(task.getResult());
+                    } else {
+                        callback.onFailure(task.getException() != null
+                                ? task.getException()
+                                : new CancellationException(operation + " cancelada"));
+                    }
+                }),
+                new Backend.Callback<T>() {
+                    @Override
+                    public void onSuccess(T result) {
+                        source.trySetResult(result);
+                    }
+
+                    @Override
+                    public void onFailure(Exception e) {
+                        source.trySetException(e);
+                    }
+                });
+        return source.getTask();
+    }
+
+    // Fallos de red o del servicio: se reintentan y cuentan para el circuito
+    static boolean isTransient(Exception e) {
+        if (e instanceof FirebaseNetworkException || e instanceof FirebaseTooManyRequestsException
+                || e instanceof TimeoutException) {
+            return true;
+        }
+        if (e instanceof FirebaseFirestoreException) {
+            switch (((FirebaseFirestoreException) e).getCode()) {
+                case UNAVAILABLE:
+                case DEADLINE_EXCEEDED:
+                case RESOURCE_EXHAUSTED:
+                case ABORTED:
+                case INTERNAL:
+                    return true;
+                default:
+                    return false;
+            }
+        }
+        if (e instanceof StorageException) {
+            return ((StorageException) e).getIsRecoverableException();
+        }
+        return false;
+    }
+
+    // Un límite de peticiones o de cuota no se levanta en segundos: repetir al
+    // momento solo lo alarga (y en Auth puede bloquear la cuenta más tiempo)
+    static boolean isRetryable(Exception e) {
+        if (e instanceof FirebaseTooManyRequestsException) {
+            return false;
+        }
+        if (e instanceof FirebaseFirestoreException
+                && ((FirebaseFirestoreException) e).getCode()
+                == FirebaseFirestoreException.Code.RESOURCE_EXHAUSTED) {
+            return false;
+        }
+        return isTransient(e);
+    }
+
+    // La petición no llegó al servidor o no hubo respuesta: error de conexión, no de datos
+    public static boolean isUnavailable(Exception e) {
+        return e instanceof CircuitOpenException || e instanceof RejectedExecutionException
+                || isTransient(e);
+    }
+
+    private static Clock systemClock() {
+        return new Clock() {
+            // Se crea en el primer temporizador: construir la capa no toca el Looper
+            private Handler handler;
+
+            @Override
+            public long nowMillis() {
+                return SystemClock.elapsedRealtime();
+            }
+
+            @Override
+            public synchronized Runnable schedule(Runnable task, long delayMillis) {
+                if (handler == null) {
+                    handler = new Handler(Looper.getMainLooper());
+                }
+                Handler target = handler;
+                target.postDelayed(task, delayMillis);
+                return () -> target.removeCallbacks(task);
+            }
+        };
+    }
+}
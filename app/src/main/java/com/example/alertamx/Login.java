@@ -9,6 +9,7 @@ import android.widget.Button;
 import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
+import com.example.alertamx.validation.InputValidator;
 import com.google.firebase.auth.FirebaseUser;
 
 public class Login extends AppCompatActivity {
@@ -106,27 +107,36 @@ public class Login extends AppCompatActivity {
     private boolean validateInputs(String email, String password) {
         boolean isValid = true;
 
-        if (TextUtils.isEmpty(email)) {
-            editTextEmail.setError("El correo es requerido");
-            isValid = false;
-        } else if (!android.util.Patterns.EMAIL_ADDRESS.matcher(email).matches()) {
-            editTextEmail.setError("Formato de email inválido");
-            isValid = false;
-        } else {
-            editTextEmail.setError(null);
+        // Un email sospechoso pasa aquí: AuthRepository responde con el mensaje genérico
+        switch (InputValidator.email(email)) {
+            case EMPTY:
+                editTextEmail.setError("El correo es requerido");
+                isValid = false;
+                break;
+            case TOO_LONG:
+            case INVALID_FORMAT:
+                editTextEmail.setError("Formato de email inválido");
+                isValid = false;
+                break;
+            default:
+                editTextEmail.setError(null);
         }
 
-        if (TextUtils.isEmpty(password)) {
-            editTextPassword.setError("La contraseña es requerida");
-            isValid = false;
-        } else if (password.length() < 6) {
-            editTextPassword.setError("La contraseña debe tener al menos 6 caracteres");
-            isValid = false;
-        } else if (password.length() > 128) {
-            editTextPassword.setError("La contraseña es demasiado larga");
-            isValid = false;
-        } else {
-            editTextPassword.setError(null);
+        switch (InputValidator.password(password)) {
+            case EMPTY:
+                editTextPassword.setError("La contraseña es requerida");
+                isValid = false;
+                break;
+            case TOO_SHORT:
+                editTextPassword.setError("La contraseña debe tener al menos 6 caracteres");
+                isValid = false;
+                break;
+            case TOO_LONG:
+                editTextPassword.setError("La contraseña es demasiado larga");
+                isValid = false;
+                break;
+            default:
+                editTextPassword.setError(null);
         }
 
         return isValid;
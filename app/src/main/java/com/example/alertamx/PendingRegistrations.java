@@ -0,0 +1,160 @@
+package com.example.alertamx;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import com.google.firebase.FirebaseApp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+// Registros cuya cuenta ya existe (o está por crearse) pero a los que les falta
+// el nombre en el perfil o el documento en "users". Se guarda antes de crear la
+// cuenta para que un cierre de la app en cualquier punto deje rastro y
+// RegistrationCompletionWorker pueda terminarlo.
+public class PendingRegistrations {
+
+    private static final String TAG = "PendingRegistrations";
+    private static final String PREFS_NAME = "pending_registrations";
+
+    private static PendingRegistrations instance;
+
+    private final SharedPreferences prefs;
+
+    public static synchronized PendingRegistrations getInstance() {
+        if (instance == null) {
+            Context context = FirebaseApp.getInstance().getApplicationContext();
+            instance = new PendingRegistrations(context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE));
+        }
+        return instance;
+    }
+
+    PendingRegistrations(SharedPreferences prefs) {
+        this.prefs = prefs;
+    }
+
+    public static final class Entry {
+        private final String email;
+        private final String name;
+        private final String uid;
+        private final boolean profileDone;
+        private final boolean documentDone;
+        private final long createdAt;
+
+        Entry(String email, String name, String uid, boolean profileDone, boolean documentDone,
+              long createdAt) {
+            this.email = email;
+            this.name = name;
+            this.uid = uid;
+            this.profileDone = profileDone;
+            this.documentDone = documentDone;
+            this.createdAt = createdAt;
+        }
+
+        public String getEmail() { return email; }
+        public String getName() { return name; }
+        // null mientras no se confirme la creación de la cuenta
+        public String getUid() { return uid; }
+        public boolean isProfileDone() { return profileDone; }
+        public boolean isDocumentDone() { return documentDone; }
+        public long getCreatedAt() { return createdAt; }
+    }
+
+    // Antes de createUserWithEmailAndPassword
+    public synchronized void add(String name, String email) {
+        Entry existing = read(key(email));
+        if (existing != null && existing.uid != null) {
+            // Esa cuenta ya existe y su registro sigue a medias: no perder su uid
+            return;
+        }
+        write(new Entry(email, name, null, false, false, System.currentTimeMillis()));
+    }
+
+    public synchronized void attachUid(String email, String uid) {
+        Entry entry = read(key(email));
+        if (entry != null) {
+            write(new Entry(entry.email, entry.name, uid, entry.profileDone, entry.documentDone,
+                    entry.createdAt));
+        }
+    }
+
+    public synchronized void markProfileDone(String email) {
+        Entry entry = read(key(email));
+        if (entry != null) {
+            write(new Entry(entry.email, entry.name, entry.uid, true, entry.documentDone, entry.createdAt));
+        }
+    }
+
+    public synchronized void markDocumentDone(String email) {
+        Entry entry = read(key(email));
+        if (entry != null) {
+            write(new Entry(entry.email, entry.name, entry.uid, entry.profileDone, true, entry.createdAt));
+        }
+    }
+
+    // createUser falló: si la cuenta no llegó a existir no queda nada que completar
+    public synchronized void discardUnconfirmed(String email) {
+        Entry entry = read(key(email));
+        if (entry != null && entry.uid == null) {
+            remove(email);
+        }
+    }
+
+    public synchronized void remove(String email) {
+        prefs.edit().remove(key(email)).commit();
+    }
+
+    public synchronized List<Entry> all() {
+        List<Entry> entries = new ArrayList<>();
+        for (Map.Entry<String, ?> stored : prefs.getAll().entrySet()) {
+            Entry entry = read(stored.getKey());
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    // Locale.ROOT: con el idioma del teléfono en turco "I" pasaría a "ı"
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private Entry read(String key) {
+        String json = prefs.getString(key, null);
+        if (json == null) {
+            return null;
+        }
+        try {
+            JSONObject object = new JSONObject(json);
+            return new Entry(object.getString("email"), object.optString("name", null),
+                    object.optString("uid", null), object.optBoolean("profileDone"),
+                    object.optBoolean("documentDone"), object.getLong("createdAt"));
+        } catch (JSONException e) {
+            Log.w(TAG, "Registro pendiente ilegible: " + key, e);
+            prefs.edit().remove(key).commit();
+            return null;
+        }
+    }
+
+    // commit y no apply: el registro tiene que estar en disco antes de seguir
+    private void write(Entry entry) {
+        try {
+            JSONObject object = new JSONObject();
+            object.put("email", entry.email);
+            object.put("name", entry.name);
+            if (entry.uid != null) {
+                object.put("uid", entry.uid);
+            }
+            object.put("profileDone", entry.profileDone);
+            object.put("documentDone", entry.documentDone);
+            object.put("createdAt", entry.createdAt);
+            prefs.edit().putString(key(entry.email), object.toString()).commit();
+        } catch (JSONException e) {
+            Log.w(TAG, "No se pudo guardar el registro pendiente", e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.alertamx;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.auth.FirebaseAuth;
+import com.google.firebase.auth.FirebaseUser;
+import com.google.firebase.auth.UserProfileChangeRequest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Termina los registros pendientes: nombre en el perfil y documento en "users"
+// van en paralelo y cada parte se marca al confirmarse, así un reintento solo
+// repite lo que falta. WorkManager reintenta con backoff hasta completarlos.
+public class RegistrationCompletionWorker extends Worker {
+
+    private static final String TAG = "RegistrationCompletion";
+    private static final String UNIQUE_WORK_NAME = "registration_completion";
+
+    private static final long TIMEOUT_SECONDS = 60;
+    // Sin uid tras este tiempo la cuenta nunca llegó a crearse
+    private static final long ABANDONED_MILLIS = 24L * 60 * 60 * 1000;
+
+    public RegistrationCompletionWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(RegistrationCompletionWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 10, TimeUnit.SECONDS)
+                .build();
+
+        // APPEND: una ejecución en curso pudo leer la lista antes del registro nuevo
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(UNIQUE_WORK_NAME, ExistingWorkPolicy.APPEND_OR_REPLACE, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        PendingRegistrations pending = PendingRegistrations.getInstance();
+        AuthSession session = AuthSession.getInstance();
+        FirebaseUser user = FirebaseAuth.getInstance().getCurrentUser();
+        boolean retry = false;
+
+        for (PendingRegistrations.Entry entry : pending.all()) {
+            String uid = entry.getUid();
+            if (uid == null) {
+                // La app se cerró antes de conocer el resultado de createUser
+                if (user != null && entry.getEmail().equalsIgnoreCase(user.getEmail())) {
+                    uid = user.getUid();
+                    pending.attachUid(entry.getEmail(), uid);
+                } else {
+                    if (System.currentTimeMillis() - entry.getCreatedAt() > ABANDONED_MILLIS) {
+                        pending.remove(entry.getEmail());
+                    }
+                    continue;
+                }
+            }
+            // Ambas escrituras requieren la sesión de ese usuario; se retoma al volver a iniciarla
+            if (user == null || !uid.equals(user.getUid())) {
+                continue;
+            }
+            if (!complete(pending, session, user, entry)) {
+                retry = true;
+            }
+        }
+        return retry ? Result.retry() : Result.success();
+    }
+
+    private boolean complete(PendingRegistrations pending, AuthSession session, FirebaseUser user,
+                             PendingRegistrations.Entry entry) {
+        session.setPendingName(user.getUid(), entry.getName());
+
+        List<Task<?>> tasks = new ArrayList<>();
+        Task<Void> profile = null;
+        if (!entry.isProfileDone()) {
+            profile = user.updateProfile(new UserProfileChangeRequest.Builder()
+                    .setDisplayName(entry.getName())
+                    .build());
+            tasks.add(profile);
+        }
+        Task<Void> document = null;
+        if (!entry.isDocumentDone()) {
+            document = UserProfileCache.getInstance()
+                    .save(new User(user.getUid(), entry.getName(), entry.getEmail()));
+            tasks.add(document);
+        }
+        try {
+            Tasks.await(Tasks.whenAllComplete(tasks), TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            Log.w(TAG, "Tiempo agotado completando el registro", e);
+            return false;
+        }
+
+        boolean done = true;
+        if (profile != null) {
+            if (profile.isSuccessful()) {
+                pending.markProfileDone(entry.getEmail());
+                // El nombre nuevo no dispara el AuthStateListener
+                session.refresh();
+            } else {
+                Log.w(TAG, "Error al actualizar perfil", profile.getException());
+                done = false;
+            }
+        }
+        if (document != null) {
+            if (document.isSuccessful()) {
+                pending.markDocumentDone(entry.getEmail());
+            } else {
+                Log.w(TAG, "Error al guardar usuario", document.getException());
+                done = false;
+            }
+        }
+        if (done) {
+            pending.remove(entry.getEmail());
+        }
+        return done;
+    }
+}
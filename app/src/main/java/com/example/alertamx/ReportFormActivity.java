@@ -1,11 +1,16 @@
 package com.example.alertamx;
 
 import android.Manifest;
+import android.annotation.SuppressLint;
 import android.content.Intent;
 import android.content.pm.PackageManager;
+import android.location.Location;
+import android.location.LocationListener;
+import android.location.LocationManager;
 import android.net.Uri;
 import android.os.Bundle;
 import android.os.Environment;
+import android.os.Looper;
 import android.provider.MediaStore;
 import android.view.View;
 import android.widget.*;
@@ -16,10 +21,17 @@ import androidx.core.app.ActivityCompat;
 import androidx.core.content.ContextCompat;
 import androidx.core.content.FileProvider;
 import androidx.lifecycle.ViewModelProvider;
+import com.example.alertamx.report.BandwidthMonitor;
+import com.example.alertamx.report.ImagePreviewLoader;
+import com.example.alertamx.report.ImageProcessor;
+import com.example.alertamx.report.OutboxEntry;
+import com.example.alertamx.report.ReportOutbox;
+import com.example.alertamx.report.ReportOutboxWorker;
+import com.example.alertamx.resilience.CircuitBreaker;
+import com.example.alertamx.validation.InputValidator;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
 import com.google.firebase.firestore.FirebaseFirestore;
-import com.google.firebase.storage.FirebaseStorage;
-import com.google.firebase.storage.StorageReference;
-import com.google.firebase.storage.UploadTask;
 import java.io.File;
 import java.io.IOException;
 import java.text.SimpleDateFormat;
@@ -31,18 +43,52 @@ public class ReportFormActivity extends AppCompatActivity {
     private static final int REQUEST_IMAGE_CAPTURE = 2;
     private static final int CAMERA_PERMISSION_REQUEST = 101;
     private static final int STORAGE_PERMISSION_REQUEST = 102;
+    private static final int LOCATION_PERMISSION_REQUEST = 103;
+    // Una posición conocida más vieja que esto se vuelve a pedir
+    private static final long LOCATION_MAX_AGE_MS = 2 * 60 * 1000;
+    private static final int MAX_ATTACHMENTS = 5;
+    private static final String STATE_IMAGE_URIS = "imageUris";
+    private static final String STATE_PENDING_PHOTO = "pendingPhotoUri";
+    private static final String STATE_DRAFT_ID = "draftId";
 
     private EditText descripcionEditText, ubicacionEditText;
     private AutoCompleteTextView tipoReporteAutoComplete;
-    private ImageView imagePreview;
+    private HorizontalScrollView imagePreviewScroll;
+    private LinearLayout imagePreviewContainer;
     private Button btnSelectImage, btnTakePhoto, btnSubmit;
     private ProgressBar progressBar;
 
-    private Uri imageUri;
+    private final List<Uri> imageUris = new ArrayList<>();
+    private Uri pendingPhotoUri;
+    private String draftId;
     private String currentPhotoPath;
-    private FirebaseFirestore db;
-    private StorageReference storageRef;
+    private ReportOutbox outbox;
+    private ImageProcessor imageProcessor;
+    private ImagePreviewLoader previewLoader;
     private AuthViewModel authViewModel;
+    private LocationManager locationManager;
+    private Location currentLocation;
+
+    // Clase anónima y no lambda: antes de API 30 los demás métodos no tienen implementación por defecto
+    private final LocationListener locationListener = new LocationListener() {
+        @Override
+        public void onLocationChanged(@NonNull Location location) {
+            currentLocation = location;
+            locationManager.removeUpdates(this);
+        }
+
+        @Override
+        public void onStatusChanged(String provider, int status, Bundle extras) {
+        }
+
+        @Override
+        public void onProviderEnabled(@NonNull String provider) {
+        }
+
+        @Override
+        public void onProviderDisabled(@NonNull String provider) {
+        }
+    };
 
     private final String[] TIPOS_REPORTE = {
             "Bache en la vía",
@@ -72,26 +118,110 @@ public class ReportFormActivity extends AppCompatActivity {
         }
 
         initializeViews();
-        setupFirebase();
+        setupOutbox();
         setupDropdown();
         setupClickListeners();
         setupUserObserver();
+        restoreImages(savedInstanceState);
+        restoreDraftId(savedInstanceState);
+        setupLocation();
+    }
+
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+        if (locationManager != null) {
+            locationManager.removeUpdates(locationListener);
+        }
+    }
+
+    // Coordenadas para el geohash del reporte; sin permiso el reporte se envía solo con el texto
+    private void setupLocation() {
+        locationManager = (LocationManager) getSystemService(LOCATION_SERVICE);
+        if (ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_FINE_LOCATION)
+                == PackageManager.PERMISSION_GRANTED
+                || ContextCompat.checkSelfPermission(this, Manifest.permission.ACCESS_COARSE_LOCATION)
+                == PackageManager.PERMISSION_GRANTED) {
+            requestLocation();
+        } else {
+            ActivityCompat.requestPermissions(this,
+                    new String[]{Manifest.permission.ACCESS_FINE_LOCATION,
+                            Manifest.permission.ACCESS_COARSE_LOCATION},
+                    LOCATION_PERMISSION_REQUEST);
+        }
+    }
+
+    @SuppressLint("MissingPermission")
+    private void requestLocation() {
+        for (String provider : locationManager.getProviders(true)) {
+            Location last = locationManager.getLastKnownLocation(provider);
+            if (last != null && (currentLocation == null || last.getTime() > currentLocation.getTime())) {
+                currentLocation = last;
+            }
+        }
+        if (currentLocation != null
+                && System.currentTimeMillis() - currentLocation.getTime() < LOCATION_MAX_AGE_MS) {
+            return;
+        }
+        String provider = locationManager.isProviderEnabled(LocationManager.NETWORK_PROVIDER)
+                ? LocationManager.NETWORK_PROVIDER
+                : LocationManager.GPS_PROVIDER;
+        if (locationManager.isProviderEnabled(provider)) {
+            locationManager.requestLocationUpdates(provider, 0, 0, locationListener, Looper.getMainLooper());
+        }
+    }
+
+    private void restoreDraftId(Bundle savedInstanceState) {
+        draftId = savedInstanceState != null ? savedInstanceState.getString(STATE_DRAFT_ID) : null;
+        if (draftId == null) {
+            draftId = newDraftId();
+        }
+    }
+
+    // Id del documento generado en el cliente para el borrador actual
+    private String newDraftId() {
+        return FirebaseFirestore.getInstance().collection("reportes").document().getId();
+    }
+
+    @Override
+    protected void onSaveInstanceState(@NonNull Bundle outState) {
+        super.onSaveInstanceState(outState);
+        outState.putParcelableArrayList(STATE_IMAGE_URIS, new ArrayList<>(imageUris));
+        outState.putParcelable(STATE_PENDING_PHOTO, pendingPhotoUri);
+        outState.putString(STATE_DRAFT_ID, draftId);
+    }
+
+    // Tras rotar la pantalla las vistas previas salen de la caché sin volver a decodificar
+    private void restoreImages(Bundle savedInstanceState) {
+        if (savedInstanceState == null) {
+            return;
+        }
+        ArrayList<Uri> saved = savedInstanceState.getParcelableArrayList(STATE_IMAGE_URIS);
+        if (saved != null) {
+            imageUris.addAll(saved);
+        }
+        pendingPhotoUri = savedInstanceState.getParcelable(STATE_PENDING_PHOTO);
+        refreshPreviews();
     }
 
     private void initializeViews() {
         tipoReporteAutoComplete = findViewById(R.id.tipoReporteAutoComplete);
         descripcionEditText = findViewById(R.id.descripcionEditText);
         ubicacionEditText = findViewById(R.id.ubicacionEditText);
-        imagePreview = findViewById(R.id.imagePreview);
+        imagePreviewScroll = findViewById(R.id.imagePreviewScroll);
+        imagePreviewContainer = findViewById(R.id.imagePreviewContainer);
         btnSelectImage = findViewById(R.id.btnSelectImage);
         btnTakePhoto = findViewById(R.id.btnTakePhoto);
         btnSubmit = findViewById(R.id.btnSubmit);
         progressBar = findViewById(R.id.progressBar);
     }
 
-    private void setupFirebase() {
-        db = FirebaseFirestore.getInstance();
-        storageRef = FirebaseStorage.getInstance().getReference();
+    private void setupOutbox() {
+        outbox = ReportOutbox.getInstance(this);
+        imageProcessor = new ImageProcessor(this);
+        previewLoader = ImagePreviewLoader.getInstance(this);
+        // Reintentar lo que haya quedado pendiente de sesiones anteriores
+        ReportOutboxWorker.schedule(getApplicationContext());
     }
 
     private void setupDropdown() {
@@ -105,13 +235,13 @@ public class ReportFormActivity extends AppCompatActivity {
 
     private void setupClickListeners() {
         btnSelectImage.setOnClickListener(v -> {
-            if (checkStoragePermission()) {
+            if (canAddImage() && checkStoragePermission()) {
                 openGallery();
             }
         });
 
         btnTakePhoto.setOnClickListener(v -> {
-            if (checkCameraPermission()) {
+            if (canAddImage() && checkCameraPermission()) {
                 dispatchTakePictureIntent();
             }
         });
@@ -147,52 +277,56 @@ public class ReportFormActivity extends AppCompatActivity {
 
         if (validateForm(tipoReporte, descripcion, ubicacion)) {
             showLoading(true);
-            if (imageUri != null) {
-                uploadImageAndSaveReport(tipoReporte, descripcion, ubicacion);
-            } else {
-                saveReportToFirestore(tipoReporte, descripcion, ubicacion, null);
-            }
+            saveReportToOutbox(tipoReporte, descripcion, ubicacion);
         }
     }
 
     private boolean validateForm(String tipoReporte, String descripcion, String ubicacion) {
-        if (tipoReporte.isEmpty()) {
-            Toast.makeText(this, "Selecciona el tipo de reporte", Toast.LENGTH_SHORT).show();
-            return false;
+        switch (InputValidator.tipoReporte(tipoReporte)) {
+            case VALID:
+                break;
+            case EMPTY:
+                Toast.makeText(this, "Selecciona el tipo de reporte", Toast.LENGTH_SHORT).show();
+                return false;
+            default:
+                Toast.makeText(this, "Tipo de reporte no válido", Toast.LENGTH_SHORT).show();
+                return false;
         }
 
-        if (descripcion.isEmpty()) {
-            Toast.makeText(this, "Ingresa una descripción", Toast.LENGTH_SHORT).show();
-            return false;
+        switch (InputValidator.descripcion(descripcion)) {
+            case VALID:
+                break;
+            case EMPTY:
+                Toast.makeText(this, "Ingresa una descripción", Toast.LENGTH_SHORT).show();
+                return false;
+            case TOO_LONG:
+                Toast.makeText(this, "La descripción admite hasta "
+                        + InputValidator.DESCRIPCION_MAX_LENGTH + " caracteres", Toast.LENGTH_SHORT).show();
+                return false;
+            default:
+                Toast.makeText(this, "La descripción contiene caracteres no válidos", Toast.LENGTH_SHORT).show();
+                return false;
         }
 
-        if (ubicacion.isEmpty()) {
-            Toast.makeText(this, "Ingresa la ubicación", Toast.LENGTH_SHORT).show();
-            return false;
+        switch (InputValidator.ubicacion(ubicacion)) {
+            case VALID:
+                break;
+            case EMPTY:
+                Toast.makeText(this, "Ingresa la ubicación", Toast.LENGTH_SHORT).show();
+                return false;
+            case TOO_LONG:
+                Toast.makeText(this, "La ubicación admite hasta "
+                        + InputValidator.UBICACION_MAX_LENGTH + " caracteres", Toast.LENGTH_SHORT).show();
+                return false;
+            default:
+                Toast.makeText(this, "La ubicación contiene caracteres no válidos", Toast.LENGTH_SHORT).show();
+                return false;
         }
 
         return true;
     }
 
-    private void uploadImageAndSaveReport(String tipoReporte, String descripcion, String ubicacion) {
-        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss", Locale.getDefault()).format(new Date());
-        String imageName = "report_" + timestamp + ".jpg";
-        StorageReference imageRef = storageRef.child("report_images/" + imageName);
-
-        UploadTask uploadTask = imageRef.putFile(imageUri);
-
-        uploadTask.addOnSuccessListener(taskSnapshot -> {
-            imageRef.getDownloadUrl().addOnSuccessListener(uri -> {
-                String imageUrl = uri.toString();
-                saveReportToFirestore(tipoReporte, descripcion, ubicacion, imageUrl);
-            });
-        }).addOnFailureListener(e -> {
-            showLoading(false);
-            Toast.makeText(this, "Error al subir imagen: " + e.getMessage(), Toast.LENGTH_SHORT).show();
-        });
-    }
-
-    private void saveReportToFirestore(String tipoReporte, String descripcion, String ubicacion, String imageUrl) {
+    private void saveReportToOutbox(String tipoReporte, String descripcion, String ubicacion) {
         User currentUser = authViewModel.getCurrentUserData();
 
         if (currentUser == null) {
@@ -201,32 +335,74 @@ public class ReportFormActivity extends AppCompatActivity {
             return;
         }
 
-        Map<String, Object> report = new HashMap<>();
-        report.put("tipoReporte", tipoReporte);
-        report.put("descripcion", descripcion);
-        report.put("ubicacion", ubicacion);
-        report.put("imageUrl", imageUrl);
-        report.put("fecha", new Date());
-        report.put("estado", "Pendiente");
-
-        // Información del usuario que reporta - CORREGIDO para usar tu estructura User
-        report.put("userId", currentUser.getUid());
-        report.put("userEmail", currentUser.getEmail());
-        report.put("userName", currentUser.getName()); // Cambiado de userDisplayName a userName
-
-        db.collection("reportes")
-                .add(report)
-                .addOnSuccessListener(documentReference -> {
+        OutboxEntry entry = new OutboxEntry(
+                tipoReporte,
+                descripcion,
+                ubicacion,
+                currentUser.getUid(),
+                currentUser.getEmail(),
+                currentUser.getName(),
+                System.currentTimeMillis()
+        );
+        // El id del borrador se fijó al abrir el formulario: reintentos y dobles toques
+        // terminan siempre en el mismo documento
+        entry.setReportId(draftId);
+        if (currentLocation != null) {
+            entry.setLocation(currentLocation.getLatitude(), currentLocation.getLongitude());
+        }
+
+        List<Task<File>> processedImages = new ArrayList<>();
+        // Tamaño y calidad según el caudal medido en las últimas subidas de esta red
+        ImageProcessor.Config config = BandwidthMonitor.getInstance(this).chooseConfig();
+        for (Uri uri : imageUris) {
+            try {
+                processedImages.add(imageProcessor.process(uri,
+                        outbox.newImageFile(config.getExtension()), config));
+            } catch (IOException e) {
+                processedImages.add(Tasks.forException(e));
+            }
+        }
+
+        // Reducción de las imágenes e INSERT fuera del hilo principal
+        Tasks.<File>whenAllSuccess(processedImages)
+                .onSuccessTask(files -> {
+                    List<String> imagePaths = new ArrayList<>();
+                    for (File file : files) {
+                        imagePaths.add(file.getAbsolutePath());
+                    }
+                    entry.setImagePaths(imagePaths);
+                    return outbox.enqueueAsync(entry);
+                })
+                .addOnSuccessListener(this, id -> {
+                    ReportOutboxWorker.schedule(getApplicationContext());
                     showLoading(false);
-                    Toast.makeText(this, "Reporte enviado exitosamente", Toast.LENGTH_SHORT).show();
+                    // El envío lo hace el worker; si Firestore viene fallando se avisa de la demora
+                    boolean backendDown = FirebaseCalls.getInstance().firestore().getBreaker().getState()
+                            == CircuitBreaker.State.OPEN;
+                    Toast.makeText(this, backendDown
+                                    ? "Reporte guardado. El servidor no responde, se enviará más tarde"
+                                    : "Reporte guardado, se enviará en cuanto haya conexión",
+                            Toast.LENGTH_SHORT).show();
                     clearForm();
-
-                    // Opcional: Regresar a la actividad anterior o mostrar confirmación
-                    // finish();
                 })
-                .addOnFailureListener(e -> {
+                .addOnFailureListener(this, e -> {
+                    // Si falló otra foto el reporte no llegó a enqueue: se sueltan las reservas
+                    // de las que sí se procesaron (enqueue ya suelta las suyas)
+                    List<String> processed = new ArrayList<>();
+                    boolean allProcessed = true;
+                    for (Task<File> image : processedImages) {
+                        if (image.isSuccessful()) {
+                            processed.add(image.getResult().getAbsolutePath());
+                        } else {
+                            allProcessed = false;
+                        }
+                    }
+                    if (!allProcessed) {
+                        outbox.releaseImages(processed);
+                    }
                     showLoading(false);
-                    Toast.makeText(this, "Error al enviar reporte: " + e.getMessage(), Toast.LENGTH_SHORT).show();
+                    Toast.makeText(this, "Error al guardar reporte: " + e.getMessage(),
+                            Toast.LENGTH_SHORT).show();
                 });
     }
 
@@ -238,12 +414,50 @@ public class ReportFormActivity extends AppCompatActivity {
     }
 
     private void clearForm() {
+        draftId = newDraftId();
         tipoReporteAutoComplete.setText("");
         descripcionEditText.setText("");
         ubicacionEditText.setText("");
-        imagePreview.setVisibility(View.GONE);
-        imageUri = null;
+        imageUris.clear();
+        pendingPhotoUri = null;
         currentPhotoPath = null;
+        refreshPreviews();
+    }
+
+    private boolean canAddImage() {
+        if (imageUris.size() >= MAX_ATTACHMENTS) {
+            Toast.makeText(this, "Máximo " + MAX_ATTACHMENTS + " imágenes por reporte",
+                    Toast.LENGTH_SHORT).show();
+            return false;
+        }
+        return true;
+    }
+
+    private void addImage(Uri uri) {
+        if (uri != null && imageUris.size() < MAX_ATTACHMENTS && !imageUris.contains(uri)) {
+            imageUris.add(uri);
+        }
+    }
+
+    // Miniaturas en el orden en que se subirán; tocar una la quita del reporte
+    private void refreshPreviews() {
+        imagePreviewContainer.removeAllViews();
+        int size = (int) (120 * getResources().getDisplayMetrics().density);
+        int margin = (int) (8 * getResources().getDisplayMetrics().density);
+        for (Uri uri : imageUris) {
+            ImageView preview = new ImageView(this);
+            LinearLayout.LayoutParams params = new LinearLayout.LayoutParams(size, size);
+            params.setMarginEnd(margin);
+            preview.setLayoutParams(params);
+            preview.setScaleType(ImageView.ScaleType.CENTER_CROP);
+            previewLoader.load(preview, uri);
+            preview.setOnClickListener(v -> {
+                imageUris.remove(uri);
+                refreshPreviews();
+            });
+            imagePreviewContainer.addView(preview);
+        }
+        imagePreviewScroll.setVisibility(imageUris.isEmpty() ? View.GONE : View.VISIBLE);
     }
 
     private boolean checkCameraPermission() {
@@ -280,6 +494,17 @@ public class ReportFormActivity extends AppCompatActivity {
                 Toast.makeText(this, "Se necesita permiso de cámara para tomar fotos",
                         Toast.LENGTH_SHORT).show();
             }
+        } else if (requestCode == LOCATION_PERMISSION_REQUEST) {
+            boolean granted = false;
+            for (int result : grantResults) {
+                granted |= result == PackageManager.PERMISSION_GRANTED;
+            }
+            if (granted) {
+                requestLocation();
+            } else {
+                Toast.makeText(this, "Sin permiso de ubicación el reporte no aparecerá en búsquedas por zona",
+                        Toast.LENGTH_SHORT).show();
+            }
         } else if (requestCode == STORAGE_PERMISSION_REQUEST) {
             if (grantResults.length > 0 && grantResults[0] == PackageManager.PERMISSION_GRANTED) {
                 openGallery();
@@ -291,8 +516,9 @@ public class ReportFormActivity extends AppCompatActivity {
     }
 
     private void openGallery() {
-        Intent intent = new Intent(Intent.ACTION_PICK,
-                MediaStore.Images.Media.EXTERNAL_CONTENT_URI);
+        Intent intent = new Intent(Intent.ACTION_GET_CONTENT);
+        intent.setType("image/*");
+        intent.putExtra(Intent.EXTRA_ALLOW_MULTIPLE, true);
         startActivityForResult(intent, PICK_IMAGE_REQUEST);
     }
 
@@ -306,10 +532,10 @@ public class ReportFormActivity extends AppCompatActivity {
                 Toast.makeText(this, "Error al crear el archivo", Toast.LENGTH_SHORT).show();
             }
             if (photoFile != null) {
-                imageUri = FileProvider.getUriForFile(this,
+                pendingPhotoUri = FileProvider.getUriForFile(this,
                         "com.example.alertamx.fileprovider",
                         photoFile);
-                takePictureIntent.putExtra(MediaStore.EXTRA_OUTPUT, imageUri);
+                takePictureIntent.putExtra(MediaStore.EXTRA_OUTPUT, pendingPhotoUri);
                 startActivityForResult(takePictureIntent, REQUEST_IMAGE_CAPTURE);
             }
         }
@@ -334,12 +560,18 @@ public class ReportFormActivity extends AppCompatActivity {
 
         if (resultCode == RESULT_OK) {
             if (requestCode == PICK_IMAGE_REQUEST && data != null) {
-                imageUri = data.getData();
-                imagePreview.setImageURI(imageUri);
-                imagePreview.setVisibility(View.VISIBLE);
+                if (data.getClipData() != null) {
+                    for (int i = 0; i < data.getClipData().getItemCount(); i++) {
+                        addImage(data.getClipData().getItemAt(i).getUri());
+                    }
+                } else {
+                    addImage(data.getData());
+                }
+                refreshPreviews();
             } else if (requestCode == REQUEST_IMAGE_CAPTURE) {
-                imagePreview.setImageURI(imageUri);
-                imagePreview.setVisibility(View.VISIBLE);
+                addImage(pendingPhotoUri);
+                pendingPhotoUri = null;
+                refreshPreviews();
             }
         }
     }
@@ -0,0 +1,238 @@
+package com.example.alertamx;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.util.Log;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.FirebaseApp;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import java.lang.ref.WeakReference;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.LongSupplier;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+// Perfiles de "users" en memoria y en disco. Una lectura devuelve al instante
+// lo guardado; si ya pasó el TTL se revalida en segundo plano y el valor nuevo
+// llega por observe(uid) (stale-while-revalidate). Solo sin nada guardado se
+// espera a la red. Las escrituras iguales a un perfil vigente no salen del dispositivo.
+public class UserProfileCache {
+
+    private static final String TAG = "UserProfileCache";
+    private static final String PREFS_NAME = "user_profiles";
+
+    // Tras este tiempo el perfil se sigue sirviendo pero se pide de nuevo
+    static final long TTL_MILLIS = 24L * 60 * 60 * 1000;
+
+    private static UserProfileCache instance;
+
+    // Lectura y escritura de "users"; las pruebas usan una versión en memoria
+    interface Remote {
+        // null si el documento no existe
+        Task<User> fetch(String uid);
+        Task<Void> write(User user);
+    }
+
+    private final SharedPreferences prefs;
+    private final Remote remote;
+    private final LongSupplier clock;
+    private final Map<String, Entry> memory = new HashMap<>();
+    // Una sola revalidación en curso por usuario
+    private final Map<String, Task<User>> revalidating = new HashMap<>();
+    // Referencias débiles: el LiveData vive mientras alguien lo observe
+    private final Map<String, WeakReference<MutableLiveData<User>>> observed = new HashMap<>();
+
+    public static synchronized UserProfileCache getInstance() {
+        if (instance == null) {
+            Context context = FirebaseApp.getInstance().getApplicationContext();
+            instance = new UserProfileCache(context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE),
+                    firestore(FirebaseFirestore.getInstance().collection("users")),
+                    System::currentTimeMillis);
+        }
+        return instance;
+    }
+
+    UserProfileCache(SharedPreferences prefs, Remote remote, LongSupplier clock) {
+        this.prefs = prefs;
+        this.remote = remote;
+        this.clock = clock;
+    }
+
+    private static Remote firestore(CollectionReference users) {
+        return new Remote() {
+            @Override
+            public Task<User> fetch(String uid) {
+                return users.document(uid).get().continueWith(read -> {
+                    DocumentSnapshot document = read.getResult();
+                    return document.exists() ? document.toObject(User.class) : null;
+                });
+            }
+
+            @Override
+            public Task<Void> write(User user) {
+                return users.document(user.getUid()).set(toDocument(user));
+            }
+        };
+    }
+
+    private static final class Entry {
+        final User user;
+        final long fetchedAt;
+
+        Entry(User user, long fetchedAt) {
+            this.user = user;
+            this.fetchedAt = fetchedAt;
+        }
+    }
+
+    // Perfil guardado (aunque esté vencido) o, si no hay, el de la red. null si no existe
+    public synchronized Task<User> get(String uid) {
+        Entry entry = lookup(uid);
+        if (entry == null) {
+            return revalidate(uid);
+        }
+        if (!isFresh(entry)) {
+            revalidate(uid);
+        }
+        return Tasks.forResult(entry.user);
+    }
+
+    // Recibe el perfil guardado y cada revalidación posterior
+    public synchronized LiveData<User> observe(String uid) {
+        WeakReference<MutableLiveData<User>> reference = observed.get(uid);
+        MutableLiveData<User> live = reference != null ? reference.get() : null;
+        if (live == null) {
+            pruneObserved();
+            Entry entry = lookup(uid);
+            live = entry != null ? new MutableLiveData<>(entry.user) : new MutableLiveData<>();
+            observed.put(uid, new WeakReference<>(live));
+        }
+        return live;
+    }
+
+    // Escribe el perfil salvo que coincida campo a campo con uno guardado y vigente:
+    // de uno vencido no se sabe si sigue así en el servidor
+    public Task<Void> save(User user) {
+        synchronized (this) {
+            Entry entry = lookup(user.getUid());
+            if (entry != null && isFresh(entry) && sameFields(entry.user, user)) {
+                return Tasks.forResult(null);
+            }
+        }
+        return remote.write(user)
+                .addOnSuccessListener(unused -> put(user.getUid(), user));
+    }
+
+    private boolean isFresh(Entry entry) {
+        return clock.getAsLong() - entry.fetchedAt <= TTL_MILLIS;
+    }
+
+    private synchronized Task<User> revalidate(String uid) {
+        Task<User> running = revalidating.get(uid);
+        if (running != null) {
+            return running;
+        }
+        Task<User> task = remote.fetch(uid).continueWith(read -> {
+            User user = read.getResult();
+            put(uid, user);
+            return user;
+        });
+        task.addOnCompleteListener(done -> {
+            synchronized (this) {
+                revalidating.remove(uid);
+            }
+            if (!done.isSuccessful()) {
+                Log.w(TAG, "No se pudo revalidar el perfil " + uid, done.getException());
+            }
+        });
+        revalidating.put(uid, task);
+        return task;
+    }
+
+    private synchronized Entry lookup(String uid) {
+        Entry entry = memory.get(uid);
+        if (entry == null) {
+            entry = readFromDisk(uid);
+            if (entry != null) {
+                memory.put(uid, entry);
+            }
+        }
+        return entry;
+    }
+
+    private synchronized void put(String uid, User user) {
+        if (user == null) {
+            memory.remove(uid);
+            prefs.edit().remove(uid).apply();
+        } else {
+            Entry entry = new Entry(user, clock.getAsLong());
+            memory.put(uid, entry);
+            writeToDisk(uid, entry);
+        }
+        WeakReference<MutableLiveData<User>> reference = observed.get(uid);
+        MutableLiveData<User> live = reference != null ? reference.get() : null;
+        if (live != null) {
+            live.postValue(user);
+        }
+    }
+
+    private void pruneObserved() {
+        Iterator<WeakReference<MutableLiveData<User>>> iterator = observed.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().get() == null) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private Entry readFromDisk(String uid) {
+        String json = prefs.getString(uid, null);
+        if (json == null) {
+            return null;
+        }
+        try {
+            JSONObject object = new JSONObject(json);
+            User user = new User(uid, object.optString("name", null), object.optString("email", null));
+            return new Entry(user, object.getLong("fetchedAt"));
+        } catch (JSONException e) {
+            // Un valor ilegible es solo un fallo de caché
+            prefs.edit().remove(uid).apply();
+            return null;
+        }
+    }
+
+    private void writeToDisk(String uid, Entry entry) {
+        try {
+            JSONObject object = new JSONObject();
+            object.put("name", entry.user.getName());
+            object.put("email", entry.user.getEmail());
+            object.put("fetchedAt", entry.fetchedAt);
+            prefs.edit().putString(uid, object.toString()).apply();
+        } catch (JSONException e) {
+            Log.w(TAG, "No se pudo guardar el perfil " + uid, e);
+        }
+    }
+
+    private static Map<String, Object> toDocument(User user) {
+        Map<String, Object> userData = new HashMap<>();
+        userData.put("uid", user.getUid());
+        userData.put("name", user.getName());
+        userData.put("email", user.getEmail());
+        return userData;
+    }
+
+    // Mismos campos que se escriben en "users"
+    static boolean sameFields(User a, User b) {
+        return Objects.equals(a.getUid(), b.getUid())
+                && Objects.equals(a.getName(), b.getName())
+                && Objects.equals(a.getEmail(), b.getEmail());
+    }
+}
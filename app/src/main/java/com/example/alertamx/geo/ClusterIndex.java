@@ -0,0 +1,274 @@
+package com.example.alertamx.geo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Agrupamiento jerárquico en rejilla para el mapa. Cada nivel de zoom tiene una
+// rejilla en proyección Web Mercator con celdas de ~CELL_PX píxeles de pantalla;
+// la rejilla de un nivel es exactamente la mitad de la del anterior, así que
+// cada punto pertenece a una celda por nivel. Altas, bajas y cambios de estado
+// tocan una celda por nivel (O(niveles)) y una consulta solo recorre las celdas
+// que caen en la ventana visible (O(visible)), nunca todos los reportes.
+public class ClusterIndex {
+
+    public static final int MIN_ZOOM = 3;
+    public static final int MAX_ZOOM = 18;
+    // Celdas por lado en el zoom 0: 4 celdas de 64 px sobre un mundo de 256 px
+    static final int BASE_CELL_BITS = 2;
+    public static final int CELL_PX = 256 >> BASE_CELL_BITS;
+
+    private static final double MAX_MERCATOR_LAT = 85.05112878;
+
+    private final Map<String, Point> points = new HashMap<>();
+    private final List<Map<Long, Cell>> levels = new ArrayList<>();
+
+    public ClusterIndex() {
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+            levels.add(new HashMap<>());
+        }
+    }
+
+    // Grupo visible en un zoom: una copia, el índice puede cambiar mientras se dibuja
+    public static final class Cluster {
+        private final int count;
+        private final double latitude;
+        private final double longitude;
+        private final Map<String, Integer> countByEstado;
+        private final String singleId;
+
+        Cluster(int count, double latitude, double longitude, Map<String, Integer> countByEstado,
+                String singleId) {
+            this.count = count;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.countByEstado = countByEstado;
+            this.singleId = singleId;
+        }
+
+        public int getCount() { return count; }
+        // Centroide de los reportes del grupo
+        public double getLatitude() { return latitude; }
+        public double getLongitude() { return longitude; }
+        public Map<String, Integer> getCountByEstado() { return countByEstado; }
+        // Id del reporte cuando el grupo tiene uno solo
+        public String getSingleId() { return singleId; }
+
+        public String getDominantEstado() {
+            String dominant = null;
+            int max = 0;
+            for (Map.Entry<String, Integer> entry : countByEstado.entrySet()) {
+                if (entry.getValue() > max) {
+                    dominant = entry.getKey();
+                    max = entry.getValue();
+                }
+            }
+            return dominant;
+        }
+    }
+
+    public int size() {
+        return points.size();
+    }
+
+    public boolean contains(String id) {
+        return points.containsKey(id);
+    }
+
+    // Alta, movimiento o cambio de estado de un reporte
+    public void put(String id, double latitude, double longitude, String estado) {
+        Point old = points.get(id);
+        if (old != null) {
+            if (old.latitude == latitude && old.longitude == longitude) {
+                if (!equals(old.estado, estado)) {
+                    // Solo cambió el estado: mismas celdas, distinto desglose
+                    for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+                        Cell cell = level(zoom).get(old.cellKey(zoom));
+                        cell.changeEstado(old.estado, estado);
+                    }
+                    old.estado = estado;
+                }
+                return;
+            }
+            remove(id);
+        }
+        Point point = new Point(id, latitude, longitude, estado);
+        points.put(id, point);
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+            long key = point.cellKey(zoom);
+            Cell cell = level(zoom).get(key);
+            if (cell == null) {
+                cell = new Cell(zoom == MAX_ZOOM);
+                level(zoom).put(key, cell);
+            }
+            cell.add(point);
+        }
+    }
+
+    public boolean remove(String id) {
+        Point point = points.remove(id);
+        if (point == null) {
+            return false;
+        }
+        for (int zoom = MIN_ZOOM; zoom <= MAX_ZOOM; zoom++) {
+            long key = point.cellKey(zoom);
+            Cell cell = level(zoom).get(key);
+            cell.remove(point);
+            if (cell.count == 0) {
+                level(zoom).remove(key);
+            }
+        }
+        return true;
+    }
+
+    public void clear() {
+        points.clear();
+        for (Map<Long, Cell> level : levels) {
+            level.clear();
+        }
+    }
+
+    // Grupos del zoom indicado dentro de la ventana {minLat, minLng, maxLat, maxLng}
+    public List<Cluster> query(int zoom, double minLat, double minLng, double maxLat, double maxLng) {
+        zoom = Math.max(MIN_ZOOM, Math.min(MAX_ZOOM, zoom));
+        Map<Long, Cell> level = level(zoom);
+        int bits = zoom + BASE_CELL_BITS;
+        long minX = cellIndex(mercatorX(minLng), bits);
+        long maxX = cellIndex(mercatorX(maxLng), bits);
+        // En Mercator la y crece hacia el sur
+        long minY = cellIndex(mercatorY(maxLat), bits);
+        long maxY = cellIndex(mercatorY(minLat), bits);
+
+        List<Cluster> result = new ArrayList<>();
+        long visibleCells = (maxX - minX + 1) * (maxY - minY + 1);
+        if (visibleCells > level.size()) {
+            // Ventana más grande que lo ocupado (p. ej. zoom muy alejado): recorrer lo ocupado
+            for (Map.Entry<Long, Cell> entry : level.entrySet()) {
+                long x = entry.getKey() >>> 32;
+                long y = entry.getKey() & 0xffffffffL;
+                if (x >= minX && x <= maxX && y >= minY && y <= maxY) {
+                    result.add(entry.getValue().snapshot());
+                }
+            }
+            return result;
+        }
+        for (long x = minX; x <= maxX; x++) {
+            for (long y = minY; y <= maxY; y++) {
+                Cell cell = level.get(key(x, y));
+                if (cell != null) {
+                    result.add(cell.snapshot());
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, Cell> level(int zoom) {
+        return levels.get(zoom - MIN_ZOOM);
+    }
+
+    // Proyección Web Mercator normalizada a [0, 1]
+    public static double mercatorX(double longitude) {
+        return (longitude + 180) / 360;
+    }
+
+    public static double mercatorY(double latitude) {
+        double lat = Math.max(-MAX_MERCATOR_LAT, Math.min(MAX_MERCATOR_LAT, latitude));
+        double sin = Math.sin(Math.toRadians(lat));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+
+    static long cellIndex(double normalized, int bits) {
+        long cells = 1L << bits;
+        return Math.max(0, Math.min(cells - 1, (long) Math.floor(normalized * cells)));
+    }
+
+    static long key(long x, long y) {
+        return (x << 32) | y;
+    }
+
+    private static boolean equals(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static final class Point {
+        final String id;
+        final double latitude;
+        final double longitude;
+        final double x;
+        final double y;
+        String estado;
+
+        Point(String id, double latitude, double longitude, String estado) {
+            this.id = id;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.x = mercatorX(longitude);
+            this.y = mercatorY(latitude);
+            this.estado = estado;
+        }
+
+        long cellKey(int zoom) {
+            int bits = zoom + BASE_CELL_BITS;
+            return key(cellIndex(x, bits), cellIndex(y, bits));
+        }
+    }
+
+    private static final class Cell {
+        int count;
+        double sumLat;
+        double sumLng;
+        final Map<String, Integer> countByEstado = new HashMap<>();
+        // Solo en el zoom máximo: permite abrir el reporte de un grupo de uno
+        final Set<String> ids;
+
+        Cell(boolean keepIds) {
+            this.ids = keepIds ? new HashSet<>() : null;
+        }
+
+        void add(Point point) {
+            count++;
+            sumLat += point.latitude;
+            sumLng += point.longitude;
+            countByEstado.merge(String.valueOf(point.estado), 1, Integer::sum);
+            if (ids != null) {
+                ids.add(point.id);
+            }
+        }
+
+        void remove(Point point) {
+            count--;
+            sumLat -= point.latitude;
+            sumLng -= point.longitude;
+            decrement(point.estado);
+            if (ids != null) {
+                ids.remove(point.id);
+            }
+        }
+
+        void changeEstado(String from, String to) {
+            decrement(from);
+            countByEstado.merge(String.valueOf(to), 1, Integer::sum);
+        }
+
+        private void decrement(String estado) {
+            String key = String.valueOf(estado);
+            Integer current = countByEstado.get(key);
+            if (current == null || current <= 1) {
+                countByEstado.remove(key);
+            } else {
+                countByEstado.put(key, current - 1);
+            }
+        }
+
+        Cluster snapshot() {
+            String singleId = ids != null && ids.size() == 1 ? ids.iterator().next() : null;
+            return new Cluster(count, sumLat / count, sumLng / count,
+                    Collections.unmodifiableMap(new HashMap<>(countByEstado)), singleId);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.example.alertamx.geo;
+
+// Geohash: intercala los bits de longitud y latitud y los escribe en base 32,
+// de modo que puntos cercanos comparten prefijo y un área es un rango de
+// cadenas consultable con orderBy/startAt/endAt.
+public final class GeoHash {
+
+    static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+    static final int BITS_PER_CHAR = 5;
+
+    // 10 caracteres: celdas de ~1.2 m x 0.6 m, de sobra para un reporte
+    public static final int DEFAULT_PRECISION = 10;
+    public static final int MAX_BITS = DEFAULT_PRECISION * BITS_PER_CHAR;
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private GeoHash() {
+    }
+
+    public static String encode(double latitude, double longitude) {
+        return encode(latitude, longitude, DEFAULT_PRECISION);
+    }
+
+    public static String encode(double latitude, double longitude, int precision) {
+        return toBase32(encodeBits(latitude, longitude, precision * BITS_PER_CHAR),
+                precision * BITS_PER_CHAR);
+    }
+
+    // Primeros `bits` bits del geohash (el primero es de longitud)
+    public static long encodeBits(double latitude, double longitude, int bits) {
+        checkCoordinates(latitude, longitude);
+        int lngBits = (bits + 1) / 2;
+        int latBits = bits / 2;
+        return interleave(cellIndex(longitude, -180, 360, lngBits), cellIndex(latitude, -90, 180, latBits), bits);
+    }
+
+    // Límites {minLat, minLng, maxLat, maxLng} de la celda de un geohash
+    public static double[] decodeBounds(String hash) {
+        double minLat = -90, maxLat = 90, minLng = -180, maxLng = 180;
+        boolean isLng = true;
+        for (int i = 0; i < hash.length(); i++) {
+            int value = BASE32.indexOf(hash.charAt(i));
+            if (value < 0) {
+                throw new IllegalArgumentException("Geohash inválido: " + hash);
+            }
+            for (int bit = BITS_PER_CHAR - 1; bit >= 0; bit--) {
+                boolean set = ((value >> bit) & 1) == 1;
+                if (isLng) {
+                    double mid = (minLng + maxLng) / 2;
+                    if (set) minLng = mid; else maxLng = mid;
+                } else {
+                    double mid = (minLat + maxLat) / 2;
+                    if (set) minLat = mid; else maxLat = mid;
+                }
+                isLng = !isLng;
+            }
+        }
+        return new double[]{minLat, minLng, maxLat, maxLng};
+    }
+
+    // Centro {lat, lng} de la celda
+    public static double[] decode(String hash) {
+        double[] bounds = decodeBounds(hash);
+        return new double[]{(bounds[0] + bounds[2]) / 2, (bounds[1] + bounds[3]) / 2};
+    }
+
+    // Distancia sobre la esfera (haversine), en metros
+    public static double distanceMeters(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    // Los bits se escriben alineados a la izquierda; si no llenan el último carácter se completan con ceros
+    static String toBase32(long value, int bits) {
+        int chars = (bits + BITS_PER_CHAR - 1) / BITS_PER_CHAR;
+        long padded = value << (chars * BITS_PER_CHAR - bits);
+        char[] out = new char[chars];
+        for (int i = chars - 1; i >= 0; i--) {
+            out[i] = BASE32.charAt((int) (padded & 0x1f));
+            padded >>>= BITS_PER_CHAR;
+        }
+        return new String(out);
+    }
+
+    static long cellIndex(double value, double min, double span, int bits) {
+        if (bits == 0) {
+            return 0;
+        }
+        long cells = 1L << bits;
+        long index = (long) Math.floor((value - min) / span * cells);
+        // El borde superior (90 o 180) pertenece a la última celda
+        return Math.max(0, Math.min(cells - 1, index));
+    }
+
+    // Intercala índices de celda de longitud y latitud empezando por longitud
+    static long interleave(long lngIndex, long latIndex, int bits) {
+        int lngBits = (bits + 1) / 2;
+        int latBits = bits / 2;
+        long result = 0;
+        for (int i = 0; i < bits; i++) {
+            boolean isLng = i % 2 == 0;
+            long bit;
+            if (isLng) {
+                bit = (lngIndex >> (lngBits - 1 - i / 2)) & 1;
+            } else {
+                bit = (latIndex >> (latBits - 1 - i / 2)) & 1;
+            }
+            result = (result << 1) | bit;
+        }
+        return result;
+    }
+
+    private static void checkCoordinates(double latitude, double longitude) {
+        if (Double.isNaN(latitude) || latitude < -90 || latitude > 90
+                || Double.isNaN(longitude) || longitude < -180 || longitude > 180) {
+            throw new IllegalArgumentException("Coordenadas fuera de rango: " + latitude + ", " + longitude);
+        }
+    }
+}
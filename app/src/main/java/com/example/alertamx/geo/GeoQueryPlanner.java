@@ -0,0 +1,122 @@
+package com.example.alertamx.geo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+// Convierte un círculo (centro + radio) en el menor conjunto de rangos de
+// geohash que lo cubre. Se elige la celda más fina (por bits, no por
+// caracteres) con la que bastan MAX_CELLS celdas para cubrir el rectángulo
+// del círculo; las celdas contiguas en orden de geohash se unen en un solo rango.
+public final class GeoQueryPlanner {
+
+    // Cota de celdas por consulta: como mucho 9 lecturas de rango en paralelo
+    static final int MAX_CELLS = 9;
+
+    private static final double METERS_PER_DEGREE_LAT = 111_320.0;
+
+    private GeoQueryPlanner() {
+    }
+
+    // Rango de cadenas [start, end] para orderBy("geohash").startAt(start).endAt(end)
+    public static final class Range {
+        private final String start;
+        private final String end;
+
+        Range(String start, String end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public String getStart() { return start; }
+        public String getEnd() { return end; }
+
+        public boolean contains(String hash) {
+            return hash.compareTo(start) >= 0 && hash.compareTo(end) <= 0;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + start + ", " + end + "]";
+        }
+    }
+
+    public static List<Range> plan(double latitude, double longitude, double radiusMeters) {
+        double[] box = boundingBox(latitude, longitude, radiusMeters);
+        int bits = bitsFor(box);
+        int lngBits = (bits + 1) / 2;
+        int latBits = bits / 2;
+
+        long minLngIndex = GeoHash.cellIndex(box[1], -180, 360, lngBits);
+        long maxLngIndex = GeoHash.cellIndex(box[3], -180, 360, lngBits);
+        long minLatIndex = GeoHash.cellIndex(box[0], -90, 180, latBits);
+        long maxLatIndex = GeoHash.cellIndex(box[2], -90, 180, latBits);
+
+        List<Long> cells = new ArrayList<>();
+        for (long lng = minLngIndex; lng <= maxLngIndex; lng++) {
+            for (long lat = minLatIndex; lat <= maxLatIndex; lat++) {
+                cells.add(GeoHash.interleave(lng, lat, bits));
+            }
+        }
+        Collections.sort(cells);
+
+        // Celdas consecutivas en orden z forman un único rango de cadenas
+        List<Range> ranges = new ArrayList<>();
+        long first = cells.get(0);
+        long last = first;
+        for (int i = 1; i < cells.size(); i++) {
+            long cell = cells.get(i);
+            if (cell != last + 1) {
+                ranges.add(toRange(first, last, bits));
+                first = cell;
+            }
+            last = cell;
+        }
+        ranges.add(toRange(first, last, bits));
+        return ranges;
+    }
+
+    // {minLat, minLng, maxLat, maxLng} del círculo, recortado a coordenadas válidas
+    static double[] boundingBox(double latitude, double longitude, double radiusMeters) {
+        double dLat = radiusMeters / METERS_PER_DEGREE_LAT;
+        double cosLat = Math.max(0.01, Math.cos(Math.toRadians(latitude)));
+        double dLng = Math.min(180, dLat / cosLat);
+        return new double[]{
+                Math.max(-90, latitude - dLat),
+                Math.max(-180, longitude - dLng),
+                Math.min(90, latitude + dLat),
+                Math.min(180, longitude + dLng)
+        };
+    }
+
+    // Mayor número de bits cuya rejilla cubre el rectángulo con MAX_CELLS celdas o menos
+    static int bitsFor(double[] box) {
+        for (int bits = GeoHash.MAX_BITS; bits > 1; bits--) {
+            if (cellCount(box, bits) <= MAX_CELLS) {
+                return bits;
+            }
+        }
+        return 1;
+    }
+
+    static long cellCount(double[] box, int bits) {
+        int lngBits = (bits + 1) / 2;
+        int latBits = bits / 2;
+        long lngCells = GeoHash.cellIndex(box[3], -180, 360, lngBits)
+                - GeoHash.cellIndex(box[1], -180, 360, lngBits) + 1;
+        long latCells = GeoHash.cellIndex(box[2], -90, 180, latBits)
+                - GeoHash.cellIndex(box[0], -90, 180, latBits) + 1;
+        return lngCells * latCells;
+    }
+
+    // Las cadenas de los extremos llevan los bits del rango completados: ceros al
+    // inicio y unos al final, más '~' (mayor que cualquier carácter base 32)
+    private static Range toRange(long first, long last, int bits) {
+        int chars = (bits + GeoHash.BITS_PER_CHAR - 1) / GeoHash.BITS_PER_CHAR;
+        int pad = chars * GeoHash.BITS_PER_CHAR - bits;
+        long start = first << pad;
+        long end = (last << pad) | ((1L << pad) - 1);
+        int fullBits = chars * GeoHash.BITS_PER_CHAR;
+        return new Range(GeoHash.toBase32(start, fullBits), GeoHash.toBase32(end, fullBits) + "~");
+    }
+}
@@ -0,0 +1,267 @@
+package com.example.alertamx.geo;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// Índice espacial en memoria: quadtree de región con cubetas. Cada hoja guarda
+// hasta NODE_CAPACITY puntos y se divide en cuatro al llenarse, así que altas,
+// cambios y bajas son incrementales (a diferencia de un KD-tree, que habría que
+// reconstruir) y las consultas solo visitan los nodos que tocan el área.
+public class SpatialIndex<T> {
+
+    static final int NODE_CAPACITY = 16;
+    // Con 24 niveles una hoja mide ~1 m: puntos repetidos no dividen sin fin
+    static final int MAX_DEPTH = 24;
+
+    private final Map<String, Entry<T>> entries = new HashMap<>();
+    private final Node<T> root = new Node<>(-90, -180, 90, 180, 0);
+
+    public int size() {
+        return entries.size();
+    }
+
+    public boolean contains(String id) {
+        return entries.containsKey(id);
+    }
+
+    // Alta o actualización; si el punto no se movió solo se reemplaza el valor
+    public void put(String id, double latitude, double longitude, T value) {
+        Entry<T> existing = entries.get(id);
+        if (existing != null) {
+            if (existing.latitude == latitude && existing.longitude == longitude) {
+                existing.value = value;
+                return;
+            }
+            root.remove(existing);
+        }
+        Entry<T> entry = new Entry<>(latitude, longitude, value);
+        entries.put(id, entry);
+        root.insert(entry);
+    }
+
+    public boolean remove(String id) {
+        Entry<T> entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        root.remove(entry);
+        return true;
+    }
+
+    public void clear() {
+        entries.clear();
+        root.clear();
+    }
+
+    // Valores dentro del rectángulo (bordes incluidos)
+    public List<T> queryBox(double minLat, double minLng, double maxLat, double maxLng) {
+        List<T> result = new ArrayList<>();
+        root.query(minLat, minLng, maxLat, maxLng, result);
+        return result;
+    }
+
+    // Los k valores más cercanos, del más cercano al más lejano. Distancia
+    // equirectangular con el coseno de la latitud de consulta: exacta a escala
+    // de ciudad y permite podar nodos por su distancia mínima
+    public List<T> nearest(double latitude, double longitude, int k) {
+        if (k <= 0 || entries.isEmpty()) {
+            return new ArrayList<>();
+        }
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        PriorityQueue<Candidate<T>> nodes = new PriorityQueue<>();
+        // Montículo de máximos con los k mejores hasta ahora
+        PriorityQueue<Candidate<T>> best = new PriorityQueue<>(k + 1, Collections.reverseOrder());
+        nodes.add(new Candidate<>(root, null, root.minDistance(latitude, longitude, cosLat)));
+
+        while (!nodes.isEmpty()) {
+            Candidate<T> next = nodes.poll();
+            if (best.size() == k && next.distance > best.peek().distance) {
+                break;
+            }
+            Node<T> node = next.node;
+            if (node.children != null) {
+                for (Node<T> child : node.children) {
+                    if (child.count > 0) {
+                        nodes.add(new Candidate<>(child, null, child.minDistance(latitude, longitude, cosLat)));
+                    }
+                }
+                continue;
+            }
+            for (Entry<T> entry : node.entries) {
+                double distance = distance(latitude, longitude, entry.latitude, entry.longitude, cosLat);
+                if (best.size() < k) {
+                    best.add(new Candidate<>(null, entry, distance));
+                } else if (distance < best.peek().distance) {
+                    best.poll();
+                    best.add(new Candidate<>(null, entry, distance));
+                }
+            }
+        }
+
+        List<T> result = new ArrayList<>(best.size());
+        while (!best.isEmpty()) {
+            result.add(best.poll().entry.value);
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    // Distancia al cuadrado en grados de latitud equivalentes; solo sirve para comparar
+    static double distance(double lat1, double lng1, double lat2, double lng2, double cosLat) {
+        double dLat = lat2 - lat1;
+        double dLng = (lng2 - lng1) * cosLat;
+        return dLat * dLat + dLng * dLng;
+    }
+
+    private static final class Entry<T> {
+        final double latitude;
+        final double longitude;
+        T value;
+
+        Entry(double latitude, double longitude, T value) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.value = value;
+        }
+    }
+
+    private static final class Candidate<T> implements Comparable<Candidate<T>> {
+        final Node<T> node;
+        final Entry<T> entry;
+        final double distance;
+
+        Candidate(Node<T> node, Entry<T> entry, double distance) {
+            this.node = node;
+            this.entry = entry;
+            this.distance = distance;
+        }
+
+        @Override
+        public int compareTo(Candidate<T> other) {
+            return Double.compare(distance, other.distance);
+        }
+    }
+
+    private static final class Node<T> {
+        final double minLat, minLng, maxLat, maxLng;
+        final int depth;
+        // Hoja: entries != null; nodo interno: children != null
+        List<Entry<T>> entries = new ArrayList<>();
+        Node<T>[] children;
+        int count;
+
+        Node(double minLat, double minLng, double maxLat, double maxLng, int depth) {
+            this.minLat = minLat;
+            this.minLng = minLng;
+            this.maxLat = maxLat;
+            this.maxLng = maxLng;
+            this.depth = depth;
+        }
+
+        void insert(Entry<T> entry) {
+            count++;
+            if (children != null) {
+                childFor(entry).insert(entry);
+                return;
+            }
+            entries.add(entry);
+            if (entries.size() > NODE_CAPACITY && depth < MAX_DEPTH) {
+                split();
+            }
+        }
+
+        boolean remove(Entry<T> entry) {
+            if (children != null) {
+                boolean removed = childFor(entry).remove(entry);
+                if (removed) {
+                    count--;
+                    // Volver a hoja cuando los hijos caben en una sola cubeta
+                    if (count <= NODE_CAPACITY / 2) {
+                        merge();
+                    }
+                }
+                return removed;
+            }
+            boolean removed = entries.remove(entry);
+            if (removed) {
+                count--;
+            }
+            return removed;
+        }
+
+        void clear() {
+            entries = new ArrayList<>();
+            children = null;
+            count = 0;
+        }
+
+        void query(double qMinLat, double qMinLng, double qMaxLat, double qMaxLng, List<T> result) {
+            if (count == 0 || qMinLat > maxLat || qMaxLat < minLat || qMinLng > maxLng || qMaxLng < minLng) {
+                return;
+            }
+            if (children != null) {
+                for (Node<T> child : children) {
+                    child.query(qMinLat, qMinLng, qMaxLat, qMaxLng, result);
+                }
+                return;
+            }
+            for (Entry<T> entry : entries) {
+                if (entry.latitude >= qMinLat && entry.latitude <= qMaxLat
+                        && entry.longitude >= qMinLng && entry.longitude <= qMaxLng) {
+                    result.add(entry.value);
+                }
+            }
+        }
+
+        double minDistance(double latitude, double longitude, double cosLat) {
+            double lat = Math.max(minLat, Math.min(maxLat, latitude));
+            double lng = Math.max(minLng, Math.min(maxLng, longitude));
+            return distance(latitude, longitude, lat, lng, cosLat);
+        }
+
+        @SuppressWarnings("unchecked")
+        private void split() {
+            double midLat = (minLat + maxLat) / 2;
+            double midLng = (minLng + maxLng) / 2;
+            children = (Node<T>[]) new Node<?>[]{
+                    new Node<>(minLat, minLng, midLat, midLng, depth + 1),
+                    new Node<>(minLat, midLng, midLat, maxLng, depth + 1),
+                    new Node<>(midLat, minLng, maxLat, midLng, depth + 1),
+                    new Node<>(midLat, midLng, maxLat, maxLng, depth + 1)
+            };
+            List<Entry<T>> old = entries;
+            entries = null;
+            for (Entry<T> entry : old) {
+                childFor(entry).insert(entry);
+            }
+        }
+
+        private void merge() {
+            List<Entry<T>> collected = new ArrayList<>(count);
+            collect(collected);
+            children = null;
+            entries = collected;
+        }
+
+        private void collect(List<Entry<T>> out) {
+            if (children != null) {
+                for (Node<T> child : children) {
+                    child.collect(out);
+                }
+            } else {
+                out.addAll(entries);
+            }
+        }
+
+        private Node<T> childFor(Entry<T> entry) {
+            double midLat = (minLat + maxLat) / 2;
+            double midLng = (minLng + maxLng) / 2;
+            int index = (entry.latitude >= midLat ? 2 : 0) + (entry.longitude >= midLng ? 1 : 0);
+            return children[index];
+        }
+    }
+}
@@ -9,6 +9,7 @@ import android.widget.Button;
 import android.widget.EditText;
 import android.widget.TextView;
 import android.widget.Toast;
+import com.example.alertamx.validation.InputValidator;
 import com.google.firebase.auth.FirebaseUser;
 
 public class registrer extends AppCompatActivity {
@@ -84,19 +85,29 @@ public class registrer extends AppCompatActivity {
             return;
         }
 
-        if (TextUtils.isEmpty(email)) {
-            editTextEmail.setError("El correo es requerido");
-            return;
+        switch (InputValidator.email(email)) {
+            case VALID:
+                break;
+            case EMPTY:
+                editTextEmail.setError("El correo es requerido");
+                return;
+            default:
+                editTextEmail.setError("Formato de email inválido");
+                return;
         }
 
-        if (TextUtils.isEmpty(password)) {
-            editTextPassword.setError("La contraseña es requerida");
-            return;
-        }
-
-        if (password.length() < 6) {
-            editTextPassword.setError("La contraseña debe tener al menos 6 caracteres");
-            return;
+        switch (InputValidator.password(password)) {
+            case VALID:
+                break;
+            case EMPTY:
+                editTextPassword.setError("La contraseña es requerida");
+                return;
+            case TOO_LONG:
+                editTextPassword.setError("La contraseña es demasiado larga");
+                return;
+            default:
+                editTextPassword.setError("La contraseña debe tener al menos 6 caracteres");
+                return;
         }
 
         // Mostrar progreso (puedes agregar un ProgressBar)
@@ -0,0 +1,169 @@
+package com.example.alertamx.report;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.net.ConnectivityManager;
+import android.net.Network;
+import android.net.NetworkCapabilities;
+import android.os.Bundle;
+import android.os.SystemClock;
+import com.google.firebase.analytics.FirebaseAnalytics;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Mide el caudal real de las subidas por tipo de red y elige el perfil de
+// calidad que permite subir una foto dentro del tiempo objetivo. Las
+// mediciones se guardan entre sesiones y se registran en Analytics para
+// poder ajustar los umbrales. chooseConfig() se llama desde el hilo principal:
+// solo usa lo que ya está en memoria y las preferencias se cargan aparte.
+public class BandwidthMonitor {
+
+    // Tiempo objetivo para subir una foto con sus versiones reducidas
+    public static final double TARGET_UPLOAD_SECONDS = 5.0;
+
+    private static final String PREFS_NAME = "bandwidth_monitor";
+
+    private static BandwidthMonitor instance;
+
+    private final ConnectivityManager connectivityManager;
+    private final SharedPreferences prefs;
+    private final FirebaseAnalytics analytics;
+    private final Map<String, ThroughputEstimator> estimators = new HashMap<>();
+    private final TransferWindow uploads = new TransferWindow(this::recordSample);
+    private final ExecutorService diskExecutor = Executors.newSingleThreadExecutor();
+
+    public static synchronized BandwidthMonitor getInstance(Context context) {
+        if (instance == null) {
+            instance = new BandwidthMonitor(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private BandwidthMonitor(Context context) {
+        this.connectivityManager = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        this.analytics = FirebaseAnalytics.getInstance(context);
+        // La primera lectura de SharedPreferences espera a que el archivo esté en memoria
+        diskExecutor.execute(this::restoreSaved);
+    }
+
+    public void uploadStarted() {
+        uploads.started(SystemClock.elapsedRealtime());
+    }
+
+    // Bytes enviados desde el último aviso de esa subida
+    public void uploadProgress(long bytes) {
+        uploads.transferred(bytes, SystemClock.elapsedRealtime());
+    }
+
+    public void uploadFinished() {
+        uploads.finished(SystemClock.elapsedRealtime());
+    }
+
+    // Caudal agregado de las subidas en curso (ver TransferWindow)
+    private void recordSample(long bytes, long durationMillis) {
+        String networkType = currentNetworkType();
+        ThroughputEstimator estimator = estimatorFor(networkType);
+        estimator.recordTransfer(bytes, durationMillis);
+        persist(networkType, estimator);
+
+        Bundle params = new Bundle();
+        params.putString("network_type", networkType);
+        params.putLong("bytes", bytes);
+        params.putLong("duration_ms", durationMillis);
+        params.putLong("estimated_kbps", (long) (estimator.getBytesPerSecond() * 8 / 1000));
+        analytics.logEvent("upload_throughput", params);
+    }
+
+    // Ida y vuelta de una petición pequeña (p. ej. consulta de metadatos)
+    public void recordRtt(long millis) {
+        String networkType = currentNetworkType();
+        ThroughputEstimator estimator = estimatorFor(networkType);
+        estimator.recordRtt(millis);
+        persist(networkType, estimator);
+    }
+
+    public UploadProfile chooseProfile() {
+        String networkType = currentNetworkType();
+        ThroughputEstimator estimator = estimatorFor(networkType);
+
+        double bytesPerSecond = estimator.getBytesPerSecond();
+        if (!estimator.hasSamples()) {
+            // Sin historial en esta red usamos la estimación del sistema, a la mitad por prudencia
+            bytesPerSecond = linkUpstreamBytesPerSecond() / 2;
+        }
+        UploadProfile profile = UploadProfile.choose(bytesPerSecond, estimator.getRttMillis(),
+                TARGET_UPLOAD_SECONDS);
+
+        Bundle params = new Bundle();
+        params.putString("network_type", networkType);
+        params.putString("profile", profile.name());
+        params.putLong("estimated_kbps", (long) (bytesPerSecond * 8 / 1000));
+        params.putLong("rtt_ms", (long) estimator.getRttMillis());
+        params.putBoolean("measured", estimator.hasSamples());
+        analytics.logEvent("upload_profile", params);
+        return profile;
+    }
+
+    public ImageProcessor.Config chooseConfig() {
+        UploadProfile profile = chooseProfile();
+        return new ImageProcessor.Config(profile.getMaxEdge(), profile.getQuality(),
+                ImageProcessor.Config.Format.JPEG);
+    }
+
+    // Nunca lee de disco: si las preferencias aún no cargaron, la red cuenta como sin medir
+    private synchronized ThroughputEstimator estimatorFor(String networkType) {
+        ThroughputEstimator estimator = estimators.get(networkType);
+        if (estimator == null) {
+            estimator = new ThroughputEstimator();
+            estimators.put(networkType, estimator);
+        }
+        return estimator;
+    }
+
+    private void restoreSaved() {
+        for (String networkType : new String[]{"wifi", "cellular", "other"}) {
+            float bytesPerSecond = prefs.getFloat(networkType + "_bps", 0f);
+            float rttMillis = prefs.getFloat(networkType + "_rtt", 0f);
+            if (bytesPerSecond > 0 || rttMillis > 0) {
+                estimatorFor(networkType).restore(bytesPerSecond, rttMillis);
+            }
+        }
+    }
+
+    private void persist(String networkType, ThroughputEstimator estimator) {
+        float bytesPerSecond = (float) estimator.getBytesPerSecond();
+        float rttMillis = (float) estimator.getRttMillis();
+        diskExecutor.execute(() -> prefs.edit()
+                .putFloat(networkType + "_bps", bytesPerSecond)
+                .putFloat(networkType + "_rtt", rttMillis)
+                .apply());
+    }
+
+    private NetworkCapabilities activeCapabilities() {
+        Network network = connectivityManager.getActiveNetwork();
+        return network != null ? connectivityManager.getNetworkCapabilities(network) : null;
+    }
+
+    String currentNetworkType() {
+        NetworkCapabilities capabilities = activeCapabilities();
+        if (capabilities == null) {
+            return "none";
+        }
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_WIFI)
+                || capabilities.hasTransport(NetworkCapabilities.TRANSPORT_ETHERNET)) {
+            return "wifi";
+        }
+        if (capabilities.hasTransport(NetworkCapabilities.TRANSPORT_CELLULAR)) {
+            return "cellular";
+        }
+        return "other";
+    }
+
+    private double linkUpstreamBytesPerSecond() {
+        NetworkCapabilities capabilities = activeCapabilities();
+        return capabilities != null ? capabilities.getLinkUpstreamBandwidthKbps() * 1000.0 / 8 : 0;
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.alertamx.report;
+
+import com.google.firebase.firestore.DocumentSnapshot;
+import java.util.Date;
+import java.util.List;
+
+// Copia local de un documento de "reportes" guardada en ReportStore
+public class CachedReport {
+    private final String id;
+    private final String tipoReporte;
+    private final String descripcion;
+    private final String ubicacion;
+    private final String estado;
+    private final String userId;
+    private final String userName;
+    private final long fecha;
+    // Última modificación en el servidor; los documentos antiguos sin el campo usan fecha
+    private final long updatedAt;
+    // Hora en que se marcó como resuelto; 0 si no lo está o el documento no la trae
+    private final long resueltoEn;
+    private final int attachmentCount;
+    // null en reportes enviados sin ubicación
+    private final Double latitude;
+    private final Double longitude;
+
+    public CachedReport(String id, String tipoReporte, String descripcion, String ubicacion,
+                        String estado, String userId, String userName, long fecha,
+                        long updatedAt, long resueltoEn, int attachmentCount, Double latitude,
+                        Double longitude) {
+        this.id = id;
+        this.tipoReporte = tipoReporte;
+        this.descripcion = descripcion;
+        this.ubicacion = ubicacion;
+        this.estado = estado;
+        this.userId = userId;
+        this.userName = userName;
+        this.fecha = fecha;
+        this.updatedAt = updatedAt;
+        this.resueltoEn = resueltoEn;
+        this.attachmentCount = attachmentCount;
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public static CachedReport fromSnapshot(DocumentSnapshot document) {
+        Date fecha = document.getDate("fecha");
+        // Escrituras locales aún sin confirmar: usar la hora estimada del servidor
+        Date updatedAt = document.getDate("updatedAt", DocumentSnapshot.ServerTimestampBehavior.ESTIMATE);
+        Date resueltoEn = document.getDate("resueltoEn");
+        List<?> attachments = (List<?>) document.get("attachments");
+        long fechaMillis = fecha != null ? fecha.getTime() : 0;
+        return new CachedReport(
+                document.getId(),
+                document.getString("tipoReporte"),
+                document.getString("descripcion"),
+                document.getString("ubicacion"),
+                document.getString("estado"),
+                document.getString("userId"),
+                document.getString("userName"),
+                fechaMillis,
+                updatedAt != null ? updatedAt.getTime() : fechaMillis,
+                resueltoEn != null ? resueltoEn.getTime() : 0,
+                attachments != null ? attachments.size() : 0,
+                document.getDouble("lat"),
+                document.getDouble("lng")
+        );
+    }
+
+    public String getId() { return id; }
+    public String getTipoReporte() { return tipoReporte; }
+    public String getDescripcion() { return descripcion; }
+    public String getUbicacion() { return ubicacion; }
+    public String getEstado() { return estado; }
+    public String getUserId() { return userId; }
+    public String getUserName() { return userName; }
+    public long getFecha() { return fecha; }
+    public long getUpdatedAt() { return updatedAt; }
+    public long getResueltoEn() { return resueltoEn; }
+    public int getAttachmentCount() { return attachmentCount; }
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+
+    public boolean hasLocation() {
+        return latitude != null && longitude != null;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.alertamx.report;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+// Junta ráfagas de cambios antes de entregarlos: cada cambio reinicia una
+// espera corta y, si vuelve a llegar otro, solo queda la última versión por
+// clave. Una ráfaga de 200 actualizaciones de moderación se entrega una vez.
+// maxWaitMillis evita que un flujo continuo retrase la entrega para siempre.
+public class ChangeCoalescer<K, V> {
+
+    private final SharedListener.Scheduler scheduler;
+    private final LongSupplier clock;
+    private final long debounceMillis;
+    private final long maxWaitMillis;
+    private final Consumer<Map<K, V>> deliver;
+
+    private Map<K, V> pending = new LinkedHashMap<>();
+    private long firstPendingAt;
+    private Runnable cancelFlush;
+
+    public ChangeCoalescer(SharedListener.Scheduler scheduler, LongSupplier clock,
+                           long debounceMillis, long maxWaitMillis, Consumer<Map<K, V>> deliver) {
+        this.scheduler = scheduler;
+        this.clock = clock;
+        this.debounceMillis = debounceMillis;
+        this.maxWaitMillis = maxWaitMillis;
+        this.deliver = deliver;
+    }
+
+    public void offer(K key, V value) {
+        Map<K, V> ready = null;
+        synchronized (this) {
+            long now = clock.getAsLong();
+            if (pending.isEmpty()) {
+                firstPendingAt = now;
+            }
+            pending.put(key, value);
+            if (cancelFlush != null) {
+                cancelFlush.run();
+                cancelFlush = null;
+            }
+            if (now - firstPendingAt >= maxWaitMillis) {
+                ready = take();
+            } else {
+                cancelFlush = scheduler.schedule(this::flush, debounceMillis);
+            }
+        }
+        if (ready != null) {
+            deliver.accept(ready);
+        }
+    }
+
+    // Entrega ya lo pendiente, si hay algo
+    public void flush() {
+        Map<K, V> ready;
+        synchronized (this) {
+            cancelFlush = null;
+            if (pending.isEmpty()) {
+                return;
+            }
+            ready = take();
+        }
+        deliver.accept(ready);
+    }
+
+    // Descarta lo pendiente sin entregarlo
+    public synchronized void cancel() {
+        if (cancelFlush != null) {
+            cancelFlush.run();
+            cancelFlush = null;
+        }
+        pending = new LinkedHashMap<>();
+    }
+
+    private Map<K, V> take() {
+        Map<K, V> ready = pending;
+        pending = new LinkedHashMap<>();
+        return ready;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.alertamx.report;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import android.util.LruCache;
+import android.widget.ImageView;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Carga vistas previas sin bloquear la UI: decodifica en segundo plano al
+// tamaño medido del ImageView y guarda el resultado en una caché LRU acotada
+// por bytes, de modo que volver a mostrar la misma foto (p. ej. tras rotar
+// la pantalla) es inmediato.
+public class ImagePreviewLoader {
+
+    private static final String TAG = "ImagePreviewLoader";
+
+    private static ImagePreviewLoader instance;
+
+    private final ImageProcessor decoder;
+    private final LruCache<String, Bitmap> cache;
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+    private final Handler mainHandler = new Handler(Looper.getMainLooper());
+
+    public static synchronized ImagePreviewLoader getInstance(Context context) {
+        if (instance == null) {
+            instance = new ImagePreviewLoader(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ImagePreviewLoader(Context context) {
+        this.decoder = new ImageProcessor(context);
+        // 1/8 del heap disponible, medido en KB
+        int cacheSizeKb = (int) (Runtime.getRuntime().maxMemory() / 1024 / 8);
+        this.cache = new LruCache<String, Bitmap>(cacheSizeKb) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getByteCount() / 1024;
+            }
+        };
+    }
+
+    public void load(ImageView view, Uri uri) {
+        int width = view.getWidth() > 0 ? view.getWidth() : view.getLayoutParams().width;
+        int height = view.getHeight() > 0 ? view.getHeight() : view.getLayoutParams().height;
+        if (width <= 0 || height <= 0) {
+            // Aún sin medir: esperar al primer layout
+            view.post(() -> load(view, uri));
+            return;
+        }
+
+        String key = uri + "@" + width + "x" + height;
+        view.setTag(key);
+
+        Bitmap cached = cache.get(key);
+        if (cached != null) {
+            view.setImageBitmap(cached);
+            return;
+        }
+
+        view.setImageDrawable(null);
+        int maxEdge = Math.max(width, height);
+        executor.execute(() -> {
+            Bitmap bitmap;
+            try {
+                int orientation = decoder.readOrientation(uri);
+                Bitmap sampled = decoder.decodeSampled(uri, maxEdge);
+                // Solo rotar: el submuestreo ya dejó el bitmap cerca del tamaño de la vista
+                bitmap = ImageProcessor.scaleAndRotate(sampled,
+                        Math.max(sampled.getWidth(), sampled.getHeight()), orientation);
+                if (bitmap != sampled) {
+                    sampled.recycle();
+                }
+            } catch (Exception e) {
+                Log.w(TAG, "No se pudo generar la vista previa de " + uri, e);
+                return;
+            }
+            cache.put(key, bitmap);
+            mainHandler.post(() -> {
+                // La vista pudo reciclarse para otra imagen mientras decodificábamos
+                if (key.equals(view.getTag())) {
+                    view.setImageBitmap(bitmap);
+                }
+            });
+        });
+    }
+}
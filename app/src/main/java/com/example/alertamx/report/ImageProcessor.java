@@ -0,0 +1,255 @@
+package com.example.alertamx.report;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.graphics.Matrix;
+import android.net.Uri;
+import android.os.Build;
+import androidx.exifinterface.media.ExifInterface;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Reduce y recomprime las fotos antes de subirlas. Decodifica con inSampleSize
+// para que la memoria quede acotada aun con capturas de 50 MP, y al volver a
+// codificar desde el bitmap se descarta el EXIF original (GPS, modelo, etc.)
+public class ImageProcessor {
+
+    // Pocas tareas a la vez: cada una puede ocupar decenas de MB de bitmap
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(2);
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    public static class Config {
+        public static final Config DEFAULT = new Config(1600, 80, Format.JPEG);
+
+        public enum Format { JPEG, WEBP }
+
+        private final int maxEdge;
+        private final int quality;
+        private final Format format;
+
+        public Config(int maxEdge, int quality, Format format) {
+            this.maxEdge = maxEdge;
+            this.quality = quality;
+            this.format = format;
+        }
+
+        public int getMaxEdge() { return maxEdge; }
+        public int getQuality() { return quality; }
+        public Format getFormat() { return format; }
+
+        public String getExtension() {
+            return format == Format.WEBP ? ".webp" : ".jpg";
+        }
+
+        @SuppressWarnings("deprecation")
+        Bitmap.CompressFormat getCompressFormat() {
+            if (format == Format.JPEG) {
+                return Bitmap.CompressFormat.JPEG;
+            }
+            return Build.VERSION.SDK_INT >= Build.VERSION_CODES.R
+                    ? Bitmap.CompressFormat.WEBP_LOSSY
+                    : Bitmap.CompressFormat.WEBP;
+        }
+    }
+
+    private final ContentResolver contentResolver;
+    private final ReportOutbox outbox;
+
+    public ImageProcessor(Context context) {
+        this.contentResolver = context.getApplicationContext().getContentResolver();
+        this.outbox = ReportOutbox.getInstance(context);
+    }
+
+    // Procesa la imagen en el pool de trabajo. El resultado se renombra a
+    // <sha256>.<ext> junto a target para direccionarlo por contenido, y a su
+    // lado quedan las versiones mediana y miniatura (ver ImageSizing.renditionName)
+    public Task<File> process(Uri source, File target, Config config) {
+        return Tasks.call(POOL, () -> processSync(source, target, config));
+    }
+
+    File processSync(Uri source, File target, Config config) throws IOException {
+        int orientation = readOrientation(source);
+        Bitmap sampled = decodeSampled(source, config.getMaxEdge());
+
+        // Escalar al tamaño final y aplicar la rotación del EXIF en un solo paso
+        Bitmap output = scaleAndRotate(sampled, config.getMaxEdge(), orientation);
+        if (output != sampled) {
+            sampled.recycle();
+        }
+
+        // Versiones reducidas a partir del mismo bitmap: una sola decodificación
+        Bitmap medium = null;
+        Bitmap thumbnail = null;
+        File mediumFile = new File(target.getPath() + ".medium");
+        File thumbnailFile = new File(target.getPath() + ".thumb");
+        MessageDigest digest = newSha256();
+        boolean encoded = false;
+        try {
+            medium = scaleAndRotate(output, ImageSizing.MEDIUM_EDGE, ExifInterface.ORIENTATION_NORMAL);
+            thumbnail = scaleAndRotate(medium, ImageSizing.THUMBNAIL_EDGE, ExifInterface.ORIENTATION_NORMAL);
+
+            // Recodificar; los archivos nuevos no llevan metadatos EXIF
+            try (OutputStream out = new DigestOutputStream(new FileOutputStream(target), digest)) {
+                compress(output, config, out);
+            }
+            try (OutputStream out = new FileOutputStream(mediumFile)) {
+                compress(medium, config, out);
+            }
+            try (OutputStream out = new FileOutputStream(thumbnailFile)) {
+                compress(thumbnail, config, out);
+            }
+            encoded = true;
+        } finally {
+            output.recycle();
+            if (medium != null && medium != output) {
+                medium.recycle();
+            }
+            if (thumbnail != null && thumbnail != medium) {
+                thumbnail.recycle();
+            }
+            // Una codificación a medias no deja temporales en la bandeja de salida
+            if (!encoded) {
+                deleteAll(target, mediumFile, thumbnailFile);
+            }
+        }
+
+        // Las versiones reducidas llevan el nombre del original: <sha256>_1024.jpg, <sha256>_256.jpg
+        File hashed = new File(target.getParentFile(), toHex(digest.digest()) + config.getExtension());
+        // Reservado antes de mirar si existe: un envío que termine ahora no lo borra.
+        // ReportOutbox.enqueue suelta la reserva al guardar el reporte
+        outbox.claimImage(hashed.getAbsolutePath());
+        List<File> moved = new ArrayList<>();
+        try {
+            moveTo(target, hashed, moved);
+            moveTo(mediumFile, new File(ImageSizing.renditionName(hashed.getPath(), ImageSizing.MEDIUM_EDGE)), moved);
+            moveTo(thumbnailFile, new File(ImageSizing.renditionName(hashed.getPath(), ImageSizing.THUMBNAIL_EDGE)), moved);
+        } catch (IOException e) {
+            // Lo que este intento alcanzó a mover no existía antes: nadie más lo usa
+            deleteAll(moved.toArray(new File[0]));
+            deleteAll(target, mediumFile, thumbnailFile);
+            outbox.releaseImages(Collections.singletonList(hashed.getAbsolutePath()));
+            throw e;
+        }
+        return hashed;
+    }
+
+    private static void compress(Bitmap bitmap, Config config, OutputStream out) throws IOException {
+        if (!bitmap.compress(config.getCompressFormat(), config.getQuality(), out)) {
+            throw new IOException("No se pudo comprimir la imagen");
+        }
+    }
+
+    // Agrega target a moved solo si lo creó este movimiento
+    private static void moveTo(File source, File target, List<File> moved) throws IOException {
+        if (target.exists()) {
+            // La misma foto ya está en la bandeja de salida
+            source.delete();
+        } else if (source.renameTo(target)) {
+            moved.add(target);
+        } else {
+            throw new IOException("No se pudo renombrar " + source);
+        }
+    }
+
+    private static void deleteAll(File... files) {
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    private static MessageDigest newSha256() throws IOException {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
+    static String toHex(byte[] bytes) {
+        char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0xF];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    // Decodifica submuestreado: el bitmap nunca supera 2 * maxEdge por lado
+    Bitmap decodeSampled(Uri source, int maxEdge) throws IOException {
+        // Primero solo leer dimensiones, sin reservar pixeles
+        BitmapFactory.Options bounds = new BitmapFactory.Options();
+        bounds.inJustDecodeBounds = true;
+        try (InputStream in = open(source)) {
+            BitmapFactory.decodeStream(in, null, bounds);
+        }
+        if (bounds.outWidth <= 0 || bounds.outHeight <= 0) {
+            throw new IOException("Formato de imagen no soportado");
+        }
+
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inSampleSize = ImageSizing.calculateInSampleSize(
+                bounds.outWidth, bounds.outHeight, maxEdge);
+        options.inPreferredConfig = Bitmap.Config.ARGB_8888;
+        Bitmap sampled;
+        try (InputStream in = open(source)) {
+            sampled = BitmapFactory.decodeStream(in, null, options);
+        }
+        if (sampled == null) {
+            throw new IOException("No se pudo decodificar la imagen");
+        }
+        return sampled;
+    }
+
+    int readOrientation(Uri source) throws IOException {
+        try (InputStream in = open(source)) {
+            return new ExifInterface(in).getAttributeInt(
+                    ExifInterface.TAG_ORIENTATION, ExifInterface.ORIENTATION_NORMAL);
+        }
+    }
+
+    static Bitmap scaleAndRotate(Bitmap source, int maxEdge, int orientation) {
+        int[] target = ImageSizing.targetSize(source.getWidth(), source.getHeight(), maxEdge);
+        Matrix matrix = new Matrix();
+        matrix.postScale((float) target[0] / source.getWidth(), (float) target[1] / source.getHeight());
+        switch (orientation) {
+            case ExifInterface.ORIENTATION_ROTATE_90:
+                matrix.postRotate(90);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_180:
+                matrix.postRotate(180);
+                break;
+            case ExifInterface.ORIENTATION_ROTATE_270:
+                matrix.postRotate(270);
+                break;
+            default:
+                break;
+        }
+        if (matrix.isIdentity()) {
+            return source;
+        }
+        return Bitmap.createBitmap(source, 0, 0, source.getWidth(), source.getHeight(), matrix, true);
+    }
+
+    private InputStream open(Uri source) throws IOException {
+        InputStream in = contentResolver.openInputStream(source);
+        if (in == null) {
+            throw new IOException("No se pudo abrir " + source);
+        }
+        return in;
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.alertamx.report;
+
+// Cálculos de tamaño para decodificar imágenes con memoria acotada.
+public final class ImageSizing {
+
+    // ARGB_8888
+    public static final int BYTES_PER_PIXEL = 4;
+
+    // Lado mayor de las versiones reducidas que acompañan a cada foto
+    public static final int MEDIUM_EDGE = 1024;
+    public static final int THUMBNAIL_EDGE = 256;
+
+    private ImageSizing() {
+    }
+
+    // Mayor potencia de 2 que deja el lado mayor decodificado >= maxEdge,
+    // así el bitmap intermedio nunca supera 2 * maxEdge por lado
+    public static int calculateInSampleSize(int width, int height, int maxEdge) {
+        if (width <= 0 || height <= 0 || maxEdge <= 0) {
+            return 1;
+        }
+        int longEdge = Math.max(width, height);
+        int sampleSize = 1;
+        while (longEdge / (sampleSize * 2) >= maxEdge) {
+            sampleSize *= 2;
+        }
+        return sampleSize;
+    }
+
+    // Dimensiones finales {ancho, alto} manteniendo la proporción; nunca amplía
+    public static int[] targetSize(int width, int height, int maxEdge) {
+        int longEdge = Math.max(width, height);
+        if (longEdge <= maxEdge) {
+            return new int[]{width, height};
+        }
+        double scale = (double) maxEdge / longEdge;
+        return new int[]{
+                Math.max(1, (int) Math.round(width * scale)),
+                Math.max(1, (int) Math.round(height * scale))
+        };
+    }
+
+    // Memoria máxima de pixeles durante el procesamiento: bitmap muestreado + bitmap final
+    public static long peakDecodeBytes(int width, int height, int maxEdge) {
+        int sampleSize = calculateInSampleSize(width, height, maxEdge);
+        long sampledWidth = (width + sampleSize - 1) / sampleSize;
+        long sampledHeight = (height + sampleSize - 1) / sampleSize;
+        int[] target = targetSize((int) sampledWidth, (int) sampledHeight, maxEdge);
+        return (sampledWidth * sampledHeight + (long) target[0] * target[1]) * BYTES_PER_PIXEL;
+    }
+
+    // Cota superior independiente del tamaño de la foto original
+    public static long peakDecodeBound(int maxEdge) {
+        long sampledEdge = 2L * maxEdge;
+        return (sampledEdge * sampledEdge + (long) maxEdge * maxEdge) * BYTES_PER_PIXEL;
+    }
+
+    // Nombre de una versión reducida junto al original: abc.jpg -> abc_256.jpg
+    public static String renditionName(String originalName, int edge) {
+        int dot = originalName.lastIndexOf('.');
+        int slash = originalName.lastIndexOf('/');
+        if (dot <= slash) {
+            return originalName + "_" + edge;
+        }
+        return originalName.substring(0, dot) + "_" + edge + originalName.substring(dot);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.alertamx.report;
+
+import android.content.Context;
+import com.example.alertamx.geo.GeoHash;
+import com.example.alertamx.geo.GeoQueryPlanner;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Consulta "reportes cerca de mí": el radio se convierte en unos pocos rangos
+// de geohash que se consultan en paralelo, y el resultado se une y se filtra
+// por distancia real en el cliente. Lo leído queda también en ReportStore.
+public class NearbyReports {
+
+    // Tope por rango: una zona muy densa no descarga miles de documentos
+    public static final int DEFAULT_LIMIT_PER_RANGE = 100;
+
+    private static NearbyReports instance;
+
+    private final CollectionReference reportes;
+    private final ReportSync sync;
+
+    public static synchronized NearbyReports getInstance(Context context) {
+        if (instance == null) {
+            instance = new NearbyReports(FirebaseFirestore.getInstance().collection("reportes"),
+                    ReportSync.getInstance(context));
+        }
+        return instance;
+    }
+
+    NearbyReports(CollectionReference reportes, ReportSync sync) {
+        this.reportes = reportes;
+        this.sync = sync;
+    }
+
+    public Task<List<CachedReport>> query(double latitude, double longitude, double radiusMeters) {
+        return query(latitude, longitude, radiusMeters, DEFAULT_LIMIT_PER_RANGE);
+    }
+
+    // Reportes dentro del radio, del más cercano al más lejano
+    public Task<List<CachedReport>> query(double latitude, double longitude, double radiusMeters,
+                                          int limitPerRange) {
+        List<Task<QuerySnapshot>> reads = new ArrayList<>();
+        for (GeoQueryPlanner.Range range : GeoQueryPlanner.plan(latitude, longitude, radiusMeters)) {
+            reads.add(reportes.orderBy("geohash")
+                    .startAt(range.getStart())
+                    .endAt(range.getEnd())
+                    .limit(limitPerRange)
+                    .get());
+        }
+
+        return Tasks.whenAllSuccess(reads).continueWithTask(task -> {
+            // Los rangos no se solapan, pero un documento puede moverse entre lecturas
+            Map<String, DocumentSnapshot> byId = new LinkedHashMap<>();
+            for (Object result : task.getResult()) {
+                for (DocumentSnapshot document : ((QuerySnapshot) result).getDocuments()) {
+                    byId.put(document.getId(), document);
+                }
+            }
+            return sync.cache(new ArrayList<>(byId.values()));
+        }).continueWith(task -> {
+            // Los rangos cubren un rectángulo de celdas: quitar las esquinas fuera del círculo
+            List<CachedReport> inside = new ArrayList<>();
+            for (CachedReport report : task.getResult()) {
+                if (report.hasLocation() && distance(report, latitude, longitude) <= radiusMeters) {
+                    inside.add(report);
+                }
+            }
+            Collections.sort(inside, (a, b) -> Double.compare(
+                    distance(a, latitude, longitude), distance(b, latitude, longitude)));
+            return inside;
+        });
+    }
+
+    private static double distance(CachedReport report, double latitude, double longitude) {
+        return GeoHash.distanceMeters(latitude, longitude, report.getLatitude(), report.getLongitude());
+    }
+}
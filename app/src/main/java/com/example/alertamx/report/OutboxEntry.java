@@ -0,0 +1,156 @@
+package com.example.alertamx.report;
+
+import com.example.alertamx.geo.GeoHash;
+import com.google.firebase.firestore.FieldValue;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Reporte pendiente de envío guardado en la bandeja de salida local
+public class OutboxEntry {
+    // Estado con el que nace todo reporte
+    public static final String ESTADO_INICIAL = "Pendiente";
+
+    private long id;
+    private String reportId;
+    private String tipoReporte;
+    private String descripcion;
+    private String ubicacion;
+    private String userId;
+    private String userEmail;
+    private String userName;
+    private long fecha;
+    // Posición del dispositivo al enviar; null si no hubo permiso o señal
+    private Double latitude;
+    private Double longitude;
+    // Rutas locales de las fotos procesadas, en el orden elegido por el usuario
+    private List<String> imagePaths = new ArrayList<>();
+    private int attempts;
+    // Ya salió al menos un commit con el documento, aunque no se confirmara
+    private boolean documentSent;
+    private boolean documentWritten;
+    // Ya sumado en ReportCounters (el documento guarda "countedAs")
+    private boolean counted;
+
+    public OutboxEntry() {
+    }
+
+    public OutboxEntry(String tipoReporte, String descripcion, String ubicacion,
+                       String userId, String userEmail, String userName, long fecha) {
+        this.tipoReporte = tipoReporte;
+        this.descripcion = descripcion;
+        this.ubicacion = ubicacion;
+        this.userId = userId;
+        this.userEmail = userEmail;
+        this.userName = userName;
+        this.fecha = fecha;
+    }
+
+    // Ruta en Storage direccionada por contenido: el archivo local se llama <sha256>.<ext>,
+    // así dos fotos idénticas comparten objeto y los reintentos son idempotentes
+    public String getImageStoragePath(int position) {
+        return "report_images/" + new File(imagePaths.get(position)).getName();
+    }
+
+    // Lista ordenada de adjuntos; se escribe una sola vez cuando terminan todas las subidas
+    public List<Map<String, Object>> toAttachments() {
+        List<Map<String, Object>> attachments = new ArrayList<>();
+        for (int i = 0; i < imagePaths.size(); i++) {
+            Map<String, Object> attachment = new HashMap<>();
+            String path = getImageStoragePath(i);
+            attachment.put("path", path);
+            attachment.put("mediumPath", ImageSizing.renditionName(path, ImageSizing.MEDIUM_EDGE));
+            attachment.put("thumbPath", ImageSizing.renditionName(path, ImageSizing.THUMBNAIL_EDGE));
+            attachments.add(attachment);
+        }
+        return attachments;
+    }
+
+    public Map<String, Object> toAttachmentsDocument() {
+        Map<String, Object> document = new HashMap<>();
+        document.put("attachments", toAttachments());
+        document.put("updatedAt", FieldValue.serverTimestamp());
+        return document;
+    }
+
+    // Documento de "reportes" con los campos de texto; los adjuntos van aparte.
+    // "estado" solo va en el primer envío: si aquel llegó, un moderador pudo
+    // cambiarlo y el merge de un reintento lo devolvería al estado inicial
+    public Map<String, Object> toDocument(boolean includeEstado) {
+        Map<String, Object> report = new HashMap<>();
+        report.put("tipoReporte", tipoReporte);
+        report.put("descripcion", descripcion);
+        report.put("ubicacion", ubicacion);
+        if (imagePaths.isEmpty()) {
+            report.put("attachments", new ArrayList<>());
+        }
+        if (latitude != null && longitude != null) {
+            report.put("lat", latitude);
+            report.put("lng", longitude);
+            report.put("geohash", GeoHash.encode(latitude, longitude));
+        }
+        report.put("fecha", new Date(fecha));
+        if (includeEstado) {
+            report.put("estado", ESTADO_INICIAL);
+        }
+        report.put("userId", userId);
+        report.put("userEmail", userEmail);
+        report.put("userName", userName);
+        // Marca de cambio para la sincronización incremental (ReportSync)
+        report.put("updatedAt", FieldValue.serverTimestamp());
+        return report;
+    }
+
+    // Getters y setters
+    public long getId() { return id; }
+    public void setId(long id) { this.id = id; }
+
+    public String getReportId() { return reportId; }
+    public void setReportId(String reportId) { this.reportId = reportId; }
+
+    public String getTipoReporte() { return tipoReporte; }
+    public void setTipoReporte(String tipoReporte) { this.tipoReporte = tipoReporte; }
+
+    public String getDescripcion() { return descripcion; }
+    public void setDescripcion(String descripcion) { this.descripcion = descripcion; }
+
+    public String getUbicacion() { return ubicacion; }
+    public void setUbicacion(String ubicacion) { this.ubicacion = ubicacion; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+
+    public long getFecha() { return fecha; }
+    public void setFecha(long fecha) { this.fecha = fecha; }
+
+    public Double getLatitude() { return latitude; }
+    public Double getLongitude() { return longitude; }
+    public void setLocation(Double latitude, Double longitude) {
+        this.latitude = latitude;
+        this.longitude = longitude;
+    }
+
+    public List<String> getImagePaths() { return imagePaths; }
+    public void setImagePaths(List<String> imagePaths) { this.imagePaths = imagePaths; }
+
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+
+    public boolean isDocumentSent() { return documentSent; }
+    public void setDocumentSent(boolean documentSent) { this.documentSent = documentSent; }
+
+    public boolean isDocumentWritten() { return documentWritten; }
+    public void setDocumentWritten(boolean documentWritten) { this.documentWritten = documentWritten; }
+
+    public boolean isCounted() { return counted; }
+    public void setCounted(boolean counted) { this.counted = counted; }
+}
@@ -0,0 +1,149 @@
+package com.example.alertamx.report;
+
+import com.google.android.gms.tasks.Task;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldValue;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import java.util.HashMap;
+import java.util.Map;
+
+// Totales de reportes por tipo y estado sin contar documentos de "reportes".
+// Cada par (tipo, estado) es un contador repartido en NUM_SHARDS documentos:
+// counters/{tipo__estado}/shards/{n}. Las escrituras suman a un solo shard (un
+// documento aguanta ~1 escritura por segundo) y las lecturas suman todos, así
+// que un total cuesta NUM_SHARDS lecturas sin importar cuántos reportes haya.
+// Cada reporte guarda en "countedAs" el contador en el que está sumado; así
+// contar es idempotente y se puede repetir tras un error o un plazo agotado.
+public class ReportCounters {
+
+    public static final int NUM_SHARDS = 10;
+
+    static final String COLLECTION = "counters";
+    static final String SHARDS = "shards";
+    static final String COUNTED_AS = "countedAs";
+
+    private static ReportCounters instance;
+
+    private final FirebaseFirestore db;
+
+    public static synchronized ReportCounters getInstance() {
+        if (instance == null) {
+            instance = new ReportCounters(FirebaseFirestore.getInstance());
+        }
+        return instance;
+    }
+
+    ReportCounters(FirebaseFirestore db) {
+        this.db = db;
+    }
+
+    // Deja el reporte sumado en el contador de su tipo y estado actuales: si
+    // "countedAs" ya coincide no escribe nada; si no, resta del contador
+    // anterior (si lo hay) y suma al nuevo en la misma transacción. Se llama
+    // tras escribir un reporte y tras cambiar su estado
+    public Task<Void> reconcile(String reportId) {
+        DocumentReference report = db.collection("reportes").document(reportId);
+        return db.runTransaction(transaction -> {
+            DocumentSnapshot snapshot = transaction.get(report);
+            if (!snapshot.exists()) {
+                return null;
+            }
+            String tipoReporte = snapshot.getString("tipoReporte");
+            String estado = snapshot.getString("estado");
+            Move move = move(snapshot.getString(COUNTED_AS), counterId(tipoReporte, estado));
+            if (move == null) {
+                return null;
+            }
+
+            int shard = shardFor(reportId);
+            if (move.decrement != null) {
+                Map<String, Object> decrement = new HashMap<>();
+                decrement.put("count", FieldValue.increment(-1));
+                transaction.set(shardOf(move.decrement, shard), decrement, SetOptions.merge());
+            }
+            // Tipo y estado en cada shard para poder consultarlos en grupo
+            Map<String, Object> increment = new HashMap<>();
+            increment.put("tipoReporte", tipoReporte);
+            increment.put("estado", estado);
+            increment.put("count", FieldValue.increment(1));
+            transaction.set(shardOf(move.increment, shard), increment, SetOptions.merge());
+            transaction.update(report, COUNTED_AS, move.increment);
+            return null;
+        });
+    }
+
+    // Contadores que tocar para pasar el reporte de "countedAs" al que le toca
+    static final class Move {
+        // null si el reporte no estaba sumado en ninguno
+        final String decrement;
+        final String increment;
+
+        Move(String decrement, String increment) {
+            this.decrement = decrement;
+            this.increment = increment;
+        }
+    }
+
+    // null si ya está sumado donde corresponde: repetir reconcile no cambia nada
+    static Move move(String counted, String target) {
+        if (target.equals(counted)) {
+            return null;
+        }
+        return new Move(counted, target);
+    }
+
+    // Total de un tipo en un estado: NUM_SHARDS lecturas
+    public Task<Long> total(String tipoReporte, String estado) {
+        return db.collection(COLLECTION).document(counterId(tipoReporte, estado))
+                .collection(SHARDS).get()
+                .continueWith(task -> {
+                    long total = 0;
+                    for (DocumentSnapshot shard : task.getResult()) {
+                        total += countOf(shard);
+                    }
+                    return total;
+                });
+    }
+
+    // Totales de todos los tipos en un estado: una consulta sobre los shards
+    // (tipos x NUM_SHARDS lecturas). Requiere el índice de grupo de colecciones
+    // de "shards" para el campo "estado"
+    public Task<Map<String, Long>> totalsByTipo(String estado) {
+        return db.collectionGroup(SHARDS).whereEqualTo("estado", estado).get()
+                .continueWith(task -> {
+                    Map<String, Long> totals = new HashMap<>();
+                    for (DocumentSnapshot shard : task.getResult()) {
+                        String tipo = shard.getString("tipoReporte");
+                        totals.merge(tipo != null ? tipo : "", countOf(shard), Long::sum);
+                    }
+                    return totals;
+                });
+    }
+
+    private DocumentReference shardOf(String counterId, int shard) {
+        return db.collection(COLLECTION).document(counterId)
+                .collection(SHARDS).document(String.valueOf(shard));
+    }
+
+    // El id del reporte decide el shard: reparte de forma pareja y el mismo
+    // reporte cae siempre en el mismo documento
+    static int shardFor(String reportId) {
+        return Math.floorMod(reportId.hashCode(), NUM_SHARDS);
+    }
+
+    // Los ids de documento no admiten "/"
+    static String counterId(String tipoReporte, String estado) {
+        return sanitize(tipoReporte) + "__" + sanitize(estado);
+    }
+
+    private static String sanitize(String value) {
+        return value == null ? "" : value.replace('/', '_');
+    }
+
+    private static long countOf(DocumentSnapshot shard) {
+        Long count = shard.getLong("count");
+        return count != null ? count : 0;
+    }
+}
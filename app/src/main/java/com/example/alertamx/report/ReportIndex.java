@@ -0,0 +1,79 @@
+package com.example.alertamx.report;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Base de los índices en memoria sobre ReportStore: se carga una vez desde
+// SQLite en segundo plano y después solo aplica las filas que cambian. Las
+// subclases llaman a start() al final de su constructor.
+abstract class ReportIndex implements ReportStore.ChangeListener {
+
+    // Ids que el listener tocó (alta, cambio o baja) mientras se cargaba; lo
+    // leído de ellos puede ser viejo o ya estar borrado. null al terminar la carga
+    private Set<String> touchedWhileLoading = new HashSet<>();
+    private Task<Void> loaded;
+
+    // Lo que hay que cargar de ReportStore
+    protected abstract List<CachedReport> load(ReportStore store);
+
+    // Se llaman con el lock del índice tomado
+    protected abstract void upsert(CachedReport report);
+
+    protected abstract void remove(String id);
+
+    // Después de cada carga o lote de cambios, con el lock tomado
+    protected void onIndexChanged() {
+    }
+
+    protected final void start(ReportStore store) {
+        // Registrar antes de leer: ningún cambio queda entre la lectura y la suscripción
+        store.addChangeListener(this);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        loaded = Tasks.call(executor, () -> {
+            List<CachedReport> reports = load(store);
+            synchronized (this) {
+                for (CachedReport report : reports) {
+                    if (!touchedWhileLoading.contains(report.getId())) {
+                        upsert(report);
+                    }
+                }
+                touchedWhileLoading = null;
+                onIndexChanged();
+            }
+            return null;
+        });
+        // El hilo termina con la carga
+        executor.shutdown();
+    }
+
+    // Completa cuando el índice ya contiene lo guardado en disco
+    public Task<Void> ready() {
+        return loaded;
+    }
+
+    @Override
+    public final synchronized void onReportsChanged(List<CachedReport> upserted,
+                                                    Collection<String> deletedIds) {
+        for (CachedReport report : upserted) {
+            touched(report.getId());
+            upsert(report);
+        }
+        for (String id : deletedIds) {
+            touched(id);
+            remove(id);
+        }
+        onIndexChanged();
+    }
+
+    private void touched(String id) {
+        if (touchedWhileLoading != null) {
+            touchedWhileLoading.add(id);
+        }
+    }
+}
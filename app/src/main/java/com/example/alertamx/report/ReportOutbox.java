@@ -0,0 +1,393 @@
+package com.example.alertamx.report;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Bandeja de salida persistente: cada reporte se confirma localmente al instante
+// y ReportOutboxWorker lo envía a Firestore cuando haya red
+public class ReportOutbox extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "report_outbox.db";
+    private static final int DATABASE_VERSION = 10;
+
+    static final String TABLE_OUTBOX = "outbox";
+    static final String TABLE_ATTACHMENTS = "attachments";
+    private static final String IMAGES_DIR = "outbox_images";
+
+    // Tras este número de fallos la fila queda apartada (dead = 1) con su último
+    // error; ya no entra en los lotes ni bloquea a los reportes posteriores
+    static final int MAX_ATTEMPTS = 8;
+    // Espera antes de volver a intentar una fila: 30 s, 1 min, 2 min... hasta 6 h
+    private static final long RETRY_BASE_MILLIS = 30_000;
+    private static final long RETRY_MAX_MILLIS = 6 * 60 * 60 * 1000L;
+
+    private static ReportOutbox instance;
+
+    private final Context appContext;
+    // Un solo hilo de escritura: los INSERT nunca bloquean la UI
+    private final ExecutorService writeExecutor = Executors.newSingleThreadExecutor();
+    // Fotos procesadas que aún no tienen fila en attachments (entre ImageProcessor y
+    // enqueue). Con el mismo candado markSent decide si un archivo se puede borrar
+    private final Map<String, Integer> imageClaims = new HashMap<>();
+    private final Object imageLock = new Object();
+
+    public static synchronized ReportOutbox getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReportOutbox(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ReportOutbox(Context context) {
+        super(context, DATABASE_NAME, null, DATABASE_VERSION);
+        this.appContext = context;
+        // WAL: las escrituras del formulario no esperan a las lecturas del worker
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_OUTBOX + " ("
+                + "id INTEGER PRIMARY KEY AUTOINCREMENT, "
+                + "report_id TEXT, "
+                + "tipo_reporte TEXT NOT NULL, "
+                + "descripcion TEXT NOT NULL, "
+                + "ubicacion TEXT NOT NULL, "
+                + "user_id TEXT NOT NULL, "
+                + "user_email TEXT, "
+                + "user_name TEXT, "
+                + "fecha INTEGER NOT NULL, "
+                + "latitude REAL, "
+                + "longitude REAL, "
+                + "attempts INTEGER NOT NULL DEFAULT 0, "
+                + "document_sent INTEGER NOT NULL DEFAULT 0, "
+                + "document_written INTEGER NOT NULL DEFAULT 0, "
+                + "counted INTEGER NOT NULL DEFAULT 0, "
+                + "last_error TEXT, "
+                + "next_attempt_at INTEGER NOT NULL DEFAULT 0, "
+                + "dead INTEGER NOT NULL DEFAULT 0)");
+        createReportIdIndex(db);
+        createAttachmentsTable(db);
+        UploadManager.createTable(db);
+        UploadManager.createObjectsTable(db);
+    }
+
+    // Un borrador = una fila: un doble toque o un reintento no duplica el reporte
+    private static void createReportIdIndex(SQLiteDatabase db) {
+        db.execSQL("CREATE UNIQUE INDEX outbox_report_id ON " + TABLE_OUTBOX + " (report_id)");
+    }
+
+    private static void createAttachmentsTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_ATTACHMENTS + " ("
+                + "outbox_id INTEGER NOT NULL, "
+                + "position INTEGER NOT NULL, "
+                + "local_path TEXT NOT NULL, "
+                + "PRIMARY KEY (outbox_id, position))");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            UploadManager.createTable(db);
+        }
+        if (oldVersion < 3) {
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN report_id TEXT");
+        }
+        if (oldVersion < 4) {
+            // La columna image_path queda sin uso; su contenido pasa a ser el adjunto 0
+            createAttachmentsTable(db);
+            db.execSQL("INSERT INTO " + TABLE_ATTACHMENTS + " (outbox_id, position, local_path) "
+                    + "SELECT id, 0, image_path FROM " + TABLE_OUTBOX + " WHERE image_path IS NOT NULL");
+        }
+        if (oldVersion < 5) {
+            UploadManager.createObjectsTable(db);
+        }
+        if (oldVersion < 6) {
+            createReportIdIndex(db);
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX
+                    + " ADD COLUMN document_written INTEGER NOT NULL DEFAULT 0");
+        }
+        if (oldVersion < 7) {
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN latitude REAL");
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN longitude REAL");
+        }
+        if (oldVersion < 8) {
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX
+                    + " ADD COLUMN next_attempt_at INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN dead INTEGER NOT NULL DEFAULT 0");
+        }
+        if (oldVersion < 9) {
+            // Las filas con intentos previos pudieron llegar a Firestore
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX
+                    + " ADD COLUMN document_sent INTEGER NOT NULL DEFAULT 0");
+            db.execSQL("UPDATE " + TABLE_OUTBOX + " SET document_sent = 1 WHERE attempts > 0");
+        }
+        if (oldVersion < 10) {
+            db.execSQL("ALTER TABLE " + TABLE_OUTBOX + " ADD COLUMN counted INTEGER NOT NULL DEFAULT 0");
+        }
+    }
+
+    // Guarda el reporte localmente; devuelve el id de la fila. Si el borrador
+    // ya estaba en la bandeja devuelve la fila existente sin modificarla
+    public long enqueue(OutboxEntry entry) {
+        ContentValues values = new ContentValues();
+        values.put("report_id", entry.getReportId());
+        values.put("tipo_reporte", entry.getTipoReporte());
+        values.put("descripcion", entry.getDescripcion());
+        values.put("ubicacion", entry.getUbicacion());
+        values.put("user_id", entry.getUserId());
+        values.put("user_email", entry.getUserEmail());
+        values.put("user_name", entry.getUserName());
+        values.put("fecha", entry.getFecha());
+        values.put("latitude", entry.getLatitude());
+        values.put("longitude", entry.getLongitude());
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            long id = db.insertWithOnConflict(TABLE_OUTBOX, null, values, SQLiteDatabase.CONFLICT_IGNORE);
+            if (id == -1) {
+                id = DatabaseUtils.longForQuery(db,
+                        "SELECT id FROM " + TABLE_OUTBOX + " WHERE report_id = ?",
+                        new String[]{entry.getReportId()});
+                entry.setId(id);
+                return id;
+            }
+            List<String> imagePaths = entry.getImagePaths();
+            for (int i = 0; i < imagePaths.size(); i++) {
+                ContentValues attachment = new ContentValues();
+                attachment.put("outbox_id", id);
+                attachment.put("position", i);
+                attachment.put("local_path", imagePaths.get(i));
+                db.insertOrThrow(TABLE_ATTACHMENTS, null, attachment);
+            }
+            db.setTransactionSuccessful();
+            entry.setId(id);
+            return id;
+        } finally {
+            db.endTransaction();
+            // Ya hay fila que referencia las fotos (o el reporte no se guardó)
+            releaseImages(entry.getImagePaths());
+        }
+    }
+
+    // Reserva una foto content-addressed antes de darla por buena: mientras tenga
+    // reservas, markSent no la borra aunque otro reporte enviado la compartiera
+    public void claimImage(String path) {
+        synchronized (imageLock) {
+            Integer count = imageClaims.get(path);
+            imageClaims.put(path, count == null ? 1 : count + 1);
+        }
+    }
+
+    public void releaseImages(List<String> paths) {
+        synchronized (imageLock) {
+            for (String path : paths) {
+                Integer count = imageClaims.get(path);
+                if (count == null) {
+                    continue;
+                }
+                if (count <= 1) {
+                    imageClaims.remove(path);
+                } else {
+                    imageClaims.put(path, count - 1);
+                }
+            }
+        }
+    }
+
+    public Task<Long> enqueueAsync(OutboxEntry entry) {
+        return Tasks.call(writeExecutor, () -> enqueue(entry));
+    }
+
+    // Siguiente lote de reportes que ya toca enviar. Los que nunca fallaron
+    // (next_attempt_at = 0) van primero, del más antiguo al más reciente; una
+    // fila que falla espera su turno sin frenar a las demás
+    public List<OutboxEntry> nextBatch(int limit) {
+        List<OutboxEntry> entries = new ArrayList<>();
+        SQLiteDatabase db = getReadableDatabase();
+        try (Cursor cursor = db.query(TABLE_OUTBOX, null, "dead = 0 AND next_attempt_at <= ?",
+                new String[]{String.valueOf(System.currentTimeMillis())},
+                null, null, "next_attempt_at ASC, id ASC", String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                OutboxEntry entry = new OutboxEntry(
+                        cursor.getString(cursor.getColumnIndexOrThrow("tipo_reporte")),
+                        cursor.getString(cursor.getColumnIndexOrThrow("descripcion")),
+                        cursor.getString(cursor.getColumnIndexOrThrow("ubicacion")),
+                        cursor.getString(cursor.getColumnIndexOrThrow("user_id")),
+                        cursor.getString(cursor.getColumnIndexOrThrow("user_email")),
+                        cursor.getString(cursor.getColumnIndexOrThrow("user_name")),
+                        cursor.getLong(cursor.getColumnIndexOrThrow("fecha")));
+                entry.setId(cursor.getLong(cursor.getColumnIndexOrThrow("id")));
+                entry.setReportId(cursor.getString(cursor.getColumnIndexOrThrow("report_id")));
+                int latitude = cursor.getColumnIndexOrThrow("latitude");
+                int longitude = cursor.getColumnIndexOrThrow("longitude");
+                if (!cursor.isNull(latitude) && !cursor.isNull(longitude)) {
+                    entry.setLocation(cursor.getDouble(latitude), cursor.getDouble(longitude));
+                }
+                entry.setImagePaths(loadAttachments(db, entry.getId()));
+                entry.setAttempts(cursor.getInt(cursor.getColumnIndexOrThrow("attempts")));
+                entry.setDocumentSent(cursor.getInt(cursor.getColumnIndexOrThrow("document_sent")) == 1);
+                entry.setDocumentWritten(cursor.getInt(cursor.getColumnIndexOrThrow("document_written")) == 1);
+                entry.setCounted(cursor.getInt(cursor.getColumnIndexOrThrow("counted")) == 1);
+                entries.add(entry);
+            }
+        }
+        return entries;
+    }
+
+    private List<String> loadAttachments(SQLiteDatabase db, long outboxId) {
+        List<String> paths = new ArrayList<>();
+        try (Cursor cursor = db.query(TABLE_ATTACHMENTS, new String[]{"local_path"},
+                "outbox_id = ?", new String[]{String.valueOf(outboxId)},
+                null, null, "position ASC")) {
+            while (cursor.moveToNext()) {
+                paths.add(cursor.getString(0));
+            }
+        }
+        return paths;
+    }
+
+    // Reportes que aún se van a enviar; no cuenta los apartados
+    public long pendingCount() {
+        return DatabaseUtils.queryNumEntries(getReadableDatabase(), TABLE_OUTBOX, "dead = 0");
+    }
+
+    public long deadCount() {
+        return DatabaseUtils.queryNumEntries(getReadableDatabase(), TABLE_OUTBOX, "dead = 1");
+    }
+
+    // Filas guardadas antes de reservar ids en el cliente
+    public void assignReportId(long id, String reportId) {
+        getWritableDatabase().execSQL(
+                "UPDATE " + TABLE_OUTBOX + " SET report_id = ? WHERE id = ?",
+                new Object[]{reportId, id});
+    }
+
+    // Se marca antes del commit: si la app se cierra sin conocer el resultado, el
+    // siguiente intento trata el documento como posiblemente escrito
+    public void markDocumentSent(List<OutboxEntry> entries) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (OutboxEntry entry : entries) {
+                db.execSQL("UPDATE " + TABLE_OUTBOX + " SET document_sent = 1 WHERE id = ?",
+                        new Object[]{entry.getId()});
+                entry.setDocumentSent(true);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // El documento de texto ya está en Firestore: los reintentos solo completan los adjuntos
+    // y no vuelven a pisar campos que un moderador pudo cambiar (p. ej. "estado")
+    public void markDocumentWritten(List<OutboxEntry> entries) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (OutboxEntry entry : entries) {
+                db.execSQL("UPDATE " + TABLE_OUTBOX + " SET document_written = 1 WHERE id = ?",
+                        new Object[]{entry.getId()});
+                entry.setDocumentWritten(true);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    public void markCounted(List<OutboxEntry> entries) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (OutboxEntry entry : entries) {
+                db.execSQL("UPDATE " + TABLE_OUTBOX + " SET counted = 1 WHERE id = ?",
+                        new Object[]{entry.getId()});
+                entry.setCounted(true);
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+    }
+
+    // Registra un intento fallido: la fila se aplaza con backoff exponencial y,
+    // al llegar a MAX_ATTEMPTS, se aparta conservando last_error para diagnóstico
+    public void markFailed(OutboxEntry entry, String error) {
+        int attempts = entry.getAttempts() + 1;
+        long nextAttemptAt = System.currentTimeMillis() + retryDelayMillis(attempts);
+        getWritableDatabase().execSQL("UPDATE " + TABLE_OUTBOX
+                        + " SET attempts = ?, last_error = ?, next_attempt_at = ?, dead = ? WHERE id = ?",
+                new Object[]{attempts, error, nextAttemptAt, attempts >= MAX_ATTEMPTS ? 1 : 0,
+                        entry.getId()});
+        entry.setAttempts(attempts);
+    }
+
+    static long retryDelayMillis(int attempts) {
+        int shift = Math.min(Math.max(attempts - 1, 0), 20);
+        return Math.min(RETRY_MAX_MILLIS, RETRY_BASE_MILLIS << shift);
+    }
+
+    // Elimina los reportes ya confirmados por Firestore junto con sus imágenes locales
+    public void markSent(List<OutboxEntry> entries) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (OutboxEntry entry : entries) {
+                String[] id = {String.valueOf(entry.getId())};
+                db.delete(TABLE_OUTBOX, "id = ?", id);
+                db.delete(TABLE_ATTACHMENTS, "outbox_id = ?", id);
+                for (String path : entry.getImagePaths()) {
+                    db.delete(UploadManager.TABLE_UPLOADS, "local_path IN (?, ?, ?)", new String[]{
+                            path,
+                            ImageSizing.renditionName(path, ImageSizing.MEDIUM_EDGE),
+                            ImageSizing.renditionName(path, ImageSizing.THUMBNAIL_EDGE)});
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        // Una misma foto puede estar adjunta a otro reporte aún pendiente o recién
+        // procesada para uno que todavía no se guardó
+        synchronized (imageLock) {
+            for (OutboxEntry entry : entries) {
+                for (String path : entry.getImagePaths()) {
+                    if (!imageClaims.containsKey(path)
+                            && DatabaseUtils.queryNumEntries(db, TABLE_ATTACHMENTS, "local_path = ?",
+                            new String[]{path}) == 0) {
+                        new File(path).delete();
+                        new File(ImageSizing.renditionName(path, ImageSizing.MEDIUM_EDGE)).delete();
+                        new File(ImageSizing.renditionName(path, ImageSizing.THUMBNAIL_EDGE)).delete();
+                    }
+                }
+            }
+        }
+    }
+
+    // Archivo privado para la imagen procesada: sobrevive al cierre de la app
+    // (los permisos sobre URIs content:// de la galería no persisten)
+    public File newImageFile(String extension) throws IOException {
+        File dir = new File(appContext.getFilesDir(), IMAGES_DIR);
+        if (!dir.exists() && !dir.mkdirs()) {
+            throw new IOException("No se pudo crear " + dir);
+        }
+        return new File(dir, UUID.randomUUID().toString() + extension);
+    }
+}
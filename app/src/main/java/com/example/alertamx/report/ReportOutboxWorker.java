@@ -0,0 +1,275 @@
+package com.example.alertamx.report;
+
+import android.content.Context;
+import android.util.Log;
+import androidx.annotation.NonNull;
+import androidx.work.BackoffPolicy;
+import androidx.work.Constraints;
+import androidx.work.ExistingWorkPolicy;
+import androidx.work.NetworkType;
+import androidx.work.OneTimeWorkRequest;
+import androidx.work.WorkManager;
+import androidx.work.Worker;
+import androidx.work.WorkerParameters;
+import com.example.alertamx.FirebaseCalls;
+import com.example.alertamx.resilience.Backoff;
+import com.example.alertamx.resilience.CallPolicy;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentReference;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.SetOptions;
+import com.google.firebase.firestore.WriteBatch;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// Vacía la bandeja de salida en lotes; WorkManager reintenta con backoff exponencial
+public class ReportOutboxWorker extends Worker {
+
+    private static final String TAG = "ReportOutboxWorker";
+    private static final String UNIQUE_WORK_NAME = "report_outbox_drain";
+
+    // Reportes por WriteBatch (Firestore permite hasta 500 escrituras)
+    private static final int BATCH_SIZE = 20;
+    // Suma a la prioridad de las miniaturas para que adelanten a cualquier original
+    private static final int MAX_ATTACHMENT_PRIORITY = 100;
+    // Por debajo del límite de 10 min de WorkManager; la subida sigue viva si se agota
+    private static final long UPLOAD_TIMEOUT_SECONDS = 8 * 60;
+    private static final long DOCUMENT_TIMEOUT_SECONDS = 2 * 60;
+    // Sin plazo propio: un commit que vence en el cliente sigue en la cola de escrituras
+    // de Firestore y llega igual. El worker deja de esperarlo (DOCUMENT_TIMEOUT_SECONDS)
+    // sin contarlo como fallo, y el reintento es idempotente (rewriteDocument)
+    private static final CallPolicy COMMIT_POLICY = new CallPolicy(0, 0, 1, null);
+    // La transacción lee antes de escribir: repetirla siempre deja el mismo documento
+    private static final CallPolicy REWRITE_POLICY = CallPolicy.once(60_000);
+    // Idempotente por "countedAs": admite reintentos
+    private static final CallPolicy COUNT_POLICY =
+            new CallPolicy(30_000, 90_000, 3, new Backoff(1_000, 8_000));
+
+    public ReportOutboxWorker(@NonNull Context context, @NonNull WorkerParameters params) {
+        super(context, params);
+    }
+
+    // Programa el vaciado de la bandeja en cuanto haya conexión
+    public static void schedule(Context context) {
+        Constraints constraints = new Constraints.Builder()
+                .setRequiredNetworkType(NetworkType.CONNECTED)
+                .build();
+
+        OneTimeWorkRequest request = new OneTimeWorkRequest.Builder(ReportOutboxWorker.class)
+                .setConstraints(constraints)
+                .setBackoffCriteria(BackoffPolicy.EXPONENTIAL, 10, TimeUnit.SECONDS)
+                .build();
+
+        // KEEP: si ya hay un vaciado en cola, ese mismo recogerá el reporte nuevo
+        WorkManager.getInstance(context)
+                .enqueueUniqueWork(UNIQUE_WORK_NAME, ExistingWorkPolicy.KEEP, request);
+    }
+
+    @NonNull
+    @Override
+    public Result doWork() {
+        ReportOutbox outbox = ReportOutbox.getInstance(getApplicationContext());
+        FirebaseFirestore db = FirebaseFirestore.getInstance();
+        UploadScheduler scheduler = UploadScheduler.getInstance(getApplicationContext());
+        ReportCounters counters = ReportCounters.getInstance();
+        FirebaseCalls calls = FirebaseCalls.getInstance();
+
+        boolean hadFailures = false;
+        int batchSize = BATCH_SIZE;
+        List<OutboxEntry> batch = outbox.nextBatch(batchSize);
+
+        while (!batch.isEmpty() && !isStopped()) {
+            WriteBatch writeBatch = db.batch();
+            List<OutboxEntry> firstSends = new ArrayList<>();
+            List<Task<Void>> documents = new ArrayList<>();
+            List<Task<Void>> uploads = new ArrayList<>();
+
+            for (OutboxEntry entry : batch) {
+                if (entry.getReportId() == null) {
+                    entry.setReportId(db.collection("reportes").document().getId());
+                    outbox.assignReportId(entry.getId(), entry.getReportId());
+                }
+                // Id estable + merge: cualquier reintento converge en el mismo documento
+                DocumentReference report = db.collection("reportes").document(entry.getReportId());
+                if (!entry.isDocumentSent()) {
+                    writeBatch.set(report, entry.toDocument(true), SetOptions.merge());
+                    firstSends.add(entry);
+                } else if (!entry.isDocumentWritten()) {
+                    documents.add(rewriteDocument(db, calls, report, entry));
+                }
+                uploads.add(uploadAttachments(scheduler, entry));
+            }
+
+            // Documentos e imágenes viajan en paralelo: latencia ~ max(subida, escritura)
+            // Un solo intento: los reintentos son los de WorkManager; aquí se gana el
+            // circuito y el límite de concurrencia
+            outbox.markDocumentSent(firstSends);
+            documents.add(calls.call(calls.firestore(), "commitReports", COMMIT_POLICY,
+                    writeBatch::commit));
+            Task<Void> commit = Tasks.whenAll(documents);
+            // Los documentos se esperan aparte: una foto lenta no retrasa el conteo
+            try {
+                Tasks.await(Tasks.whenAllComplete(commit), DOCUMENT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                Log.w(TAG, "Tiempo agotado escribiendo lote de reportes", e);
+                return Result.retry();
+            }
+
+            if (!commit.isSuccessful()) {
+                Exception error = causeOf(commit.getException());
+                Log.w(TAG, "Error al enviar lote de reportes", error);
+                // Sin red o con Firestore caído ninguna fila tiene la culpa: no gastan intentos
+                if (FirebaseCalls.isUnavailable(error)) {
+                    return Result.retry();
+                }
+                // Un documento rechazado tumba todo el lote: el resto de la ejecución va
+                // de uno en uno para aplazar solo a la fila que falla
+                if (batch.size() > 1) {
+                    batchSize = 1;
+                } else {
+                    outbox.markFailed(batch.get(0), messageOf(error));
+                    hadFailures = true;
+                }
+                batch = outbox.nextBatch(batchSize);
+                continue;
+            }
+            outbox.markDocumentWritten(batch);
+
+            // Cada reporte se cuenta con una transacción sobre su propio documento
+            // ("countedAs"): repetirla tras un error o un plazo agotado no suma dos veces
+            List<OutboxEntry> toCount = new ArrayList<>();
+            List<Task<Void>> counts = new ArrayList<>();
+            for (OutboxEntry entry : batch) {
+                if (!entry.isCounted()) {
+                    toCount.add(entry);
+                    counts.add(calls.call(calls.firestore(), "countReport", COUNT_POLICY,
+                            () -> counters.reconcile(entry.getReportId())));
+                }
+            }
+            try {
+                Tasks.await(Tasks.whenAllComplete(counts), DOCUMENT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                Log.w(TAG, "Tiempo agotado contando reportes", e);
+                return Result.retry();
+            }
+            List<OutboxEntry> counted = new ArrayList<>();
+            for (int i = 0; i < toCount.size(); i++) {
+                if (counts.get(i).isSuccessful()) {
+                    counted.add(toCount.get(i));
+                } else {
+                    Log.w(TAG, "Error al contar el reporte " + toCount.get(i).getId(),
+                            counts.get(i).getException());
+                    hadFailures = true;
+                }
+            }
+            outbox.markCounted(counted);
+
+            try {
+                Tasks.await(Tasks.whenAllComplete(uploads), UPLOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                Log.w(TAG, "Tiempo agotado subiendo imágenes", e);
+                return Result.retry();
+            }
+
+            // La lista de adjuntos se escribe una sola vez, cuando todas las fotos del reporte subieron
+            WriteBatch attachmentsBatch = db.batch();
+            List<OutboxEntry> sent = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                OutboxEntry entry = batch.get(i);
+                Task<Void> upload = uploads.get(i);
+                if (!upload.isSuccessful()) {
+                    Log.w(TAG, "Error al subir imágenes del reporte " + entry.getId(), upload.getException());
+                    outbox.markFailed(entry, messageOf(upload.getException()));
+                    hadFailures = true;
+                } else if (entry.isCounted()) {
+                    if (!entry.getImagePaths().isEmpty()) {
+                        attachmentsBatch.set(db.collection("reportes").document(entry.getReportId()),
+                                entry.toAttachmentsDocument(), SetOptions.merge());
+                    }
+                    sent.add(entry);
+                }
+            }
+
+            try {
+                Tasks.await(calls.call(calls.firestore(), "commitAttachments", COMMIT_POLICY,
+                        attachmentsBatch::commit), UPLOAD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                Log.w(TAG, "Error al guardar adjuntos", e);
+                return Result.retry();
+            }
+            outbox.markSent(sent);
+
+            // Un conteo pendiente se repite en la siguiente ejecución: no hace falta
+            // seguir golpeando Firestore ahora. Las filas aplazadas no vuelven en este vaciado
+            if (counted.size() < toCount.size()) {
+                break;
+            }
+            batch = outbox.nextBatch(batchSize);
+        }
+
+        // Quedan filas aplazadas: WorkManager vuelve a intentarlo con su backoff
+        return hadFailures || outbox.pendingCount() > 0 ? Result.retry() : Result.success();
+    }
+
+    // Completa cuando todas las fotos del reporte quedaron en Storage
+    private Task<Void> uploadAttachments(UploadScheduler scheduler, OutboxEntry entry) {
+        List<String> imagePaths = entry.getImagePaths();
+        List<Task<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < imagePaths.size(); i++) {
+            String storagePath = entry.getImageStoragePath(i);
+            // La primera foto es la portada del reporte: sube antes que las demás,
+            // y las miniaturas antes que todo para que los listados funcionen pronto
+            int priority = imagePaths.size() - i;
+            tasks.add(enqueue(scheduler, imagePaths.get(i), storagePath, priority));
+            tasks.add(enqueue(scheduler,
+                    ImageSizing.renditionName(imagePaths.get(i), ImageSizing.MEDIUM_EDGE),
+                    ImageSizing.renditionName(storagePath, ImageSizing.MEDIUM_EDGE), priority));
+            tasks.add(enqueue(scheduler,
+                    ImageSizing.renditionName(imagePaths.get(i), ImageSizing.THUMBNAIL_EDGE),
+                    ImageSizing.renditionName(storagePath, ImageSizing.THUMBNAIL_EDGE),
+                    priority + MAX_ATTACHMENT_PRIORITY));
+        }
+        return Tasks.whenAll(tasks);
+    }
+
+    private Task<Void> enqueue(UploadScheduler scheduler, String localPath, String storagePath,
+                               int priority) {
+        File file = new File(localPath);
+        // El nombre del archivo local (<sha256>[_edge].ext) identifica al adjunto entre reinicios
+        return scheduler.enqueue(file.getName(), file, storagePath, priority);
+    }
+
+    // Reintento de un documento cuyo primer commit no se confirmó: se reescriben los
+    // campos del reporte sin tocar "estado", salvo que aquel commit nunca llegara
+    private Task<Void> rewriteDocument(FirebaseFirestore db, FirebaseCalls calls,
+                                       DocumentReference report, OutboxEntry entry) {
+        return calls.call(calls.firestore(), "rewriteReport", REWRITE_POLICY,
+                () -> db.runTransaction(transaction -> {
+                    DocumentSnapshot current = transaction.get(report);
+                    Map<String, Object> document = entry.toDocument(false);
+                    if (current.getString("estado") == null) {
+                        document.put("estado", OutboxEntry.ESTADO_INICIAL);
+                    }
+                    transaction.set(report, document, SetOptions.merge());
+                    return null;
+                }));
+    }
+
+    // Tasks.whenAll envuelve el primer error en una ExecutionException
+    private static Exception causeOf(Exception e) {
+        if (e instanceof ExecutionException && e.getCause() instanceof Exception) {
+            return (Exception) e.getCause();
+        }
+        return e;
+    }
+
+    private static String messageOf(Exception e) {
+        return e != null ? e.getMessage() : null;
+    }
+}
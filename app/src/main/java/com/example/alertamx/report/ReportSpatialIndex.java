@@ -0,0 +1,83 @@
+package com.example.alertamx.report;
+
+import android.content.Context;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.alertamx.geo.ClusterIndex;
+import com.example.alertamx.geo.SpatialIndex;
+import java.util.List;
+
+// Índice espacial y grupos por zoom sobre los reportes guardados en
+// ReportStore, para mapas y "cerca de mí" sin recorrer la tabla. Se carga una
+// vez desde SQLite y luego se actualiza fila a fila con cada cambio que llega
+// de Firestore. Es uno para toda la app: abrir el mapa otra vez no lo recarga.
+public class ReportSpatialIndex extends ReportIndex {
+
+    private static ReportSpatialIndex instance;
+
+    private final SpatialIndex<CachedReport> index = new SpatialIndex<>();
+    private final ClusterIndex clusters = new ClusterIndex();
+    // Reportes con ubicación; cambia con cada actualización y sirve para redibujar
+    private final MutableLiveData<Integer> count = new MutableLiveData<>(0);
+
+    public static synchronized ReportSpatialIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReportSpatialIndex(ReportStore.getInstance(context));
+        }
+        return instance;
+    }
+
+    ReportSpatialIndex(ReportStore store) {
+        start(store);
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    public LiveData<Integer> getCount() {
+        return count;
+    }
+
+    public synchronized List<CachedReport> inViewport(double minLat, double minLng,
+                                                      double maxLat, double maxLng) {
+        return index.queryBox(minLat, minLng, maxLat, maxLng);
+    }
+
+    public synchronized List<CachedReport> nearest(double latitude, double longitude, int k) {
+        return index.nearest(latitude, longitude, k);
+    }
+
+    // Grupos visibles en la ventana para un nivel de zoom
+    public synchronized List<ClusterIndex.Cluster> clusters(int zoom, double minLat, double minLng,
+                                                         double maxLat, double maxLng) {
+        return clusters.query(zoom, minLat, minLng, maxLat, maxLng);
+    }
+
+    @Override
+    protected List<CachedReport> load(ReportStore store) {
+        return store.withLocation();
+    }
+
+    @Override
+    protected void upsert(CachedReport report) {
+        if (report.hasLocation()) {
+            index.put(report.getId(), report.getLatitude(), report.getLongitude(), report);
+            clusters.put(report.getId(), report.getLatitude(), report.getLongitude(),
+                    report.getEstado());
+        } else {
+            remove(report.getId());
+        }
+    }
+
+    @Override
+    protected void remove(String id) {
+        index.remove(id);
+        clusters.remove(id);
+    }
+
+    @Override
+    protected void onIndexChanged() {
+        count.postValue(index.size());
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.alertamx.report;
+
+import android.content.Context;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.alertamx.stats.ReportStats;
+import java.util.List;
+
+// Estadísticas por día sobre los reportes guardados en ReportStore, para las
+// gráficas de tendencia. Se carga una vez desde SQLite y luego solo aplica los
+// reportes que cambian con cada DocumentChange que llega de Firestore.
+public class ReportStatsIndex extends ReportIndex {
+
+    // Los días se cuentan en hora de la Ciudad de México sin importar la zona del
+    // teléfono. UTC-6 fijo: México quitó el horario de verano en octubre de 2022
+    static final long MEXICO_CITY_OFFSET_MILLIS = -6 * 60 * 60 * 1000L;
+
+    private static ReportStatsIndex instance;
+
+    private final ReportStats stats;
+    // Cambia con cada carga o lote de cambios; las pantallas recalculan al observarlo
+    private final MutableLiveData<Long> changes = new MutableLiveData<>(0L);
+    private long changeCount;
+
+    public static synchronized ReportStatsIndex getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReportStatsIndex(ReportStore.getInstance(context),
+                    new ReportStats(MEXICO_CITY_OFFSET_MILLIS));
+        }
+        return instance;
+    }
+
+    ReportStatsIndex(ReportStore store, ReportStats stats) {
+        this.stats = stats;
+        start(store);
+    }
+
+    public LiveData<Long> getChanges() {
+        return changes;
+    }
+
+    // Una cubeta por día; tipo o estado null = todos
+    public synchronized int[] countsPerDay(long fromMillis, long toMillis, String tipoReporte,
+                                           String estado) {
+        return stats.countsPerDay(fromMillis, toMillis, tipoReporte, estado);
+    }
+
+    public synchronized long medianResolutionMillis(long fromMillis, long toMillis) {
+        return stats.medianResolutionMillis(fromMillis, toMillis);
+    }
+
+    public synchronized int resolvedCount(long fromMillis, long toMillis) {
+        return stats.resolvedCount(fromMillis, toMillis);
+    }
+
+    public synchronized List<String> getTipos() {
+        return stats.getTipos();
+    }
+
+    @Override
+    protected List<CachedReport> load(ReportStore store) {
+        return store.all();
+    }
+
+    @Override
+    protected void upsert(CachedReport report) {
+        stats.upsert(report.getId(), report.getTipoReporte(), report.getEstado(),
+                report.getFecha(), report.getResueltoEn());
+    }
+
+    @Override
+    protected void remove(String id) {
+        stats.remove(id);
+    }
+
+    @Override
+    protected void onIndexChanged() {
+        changes.postValue(++changeCount);
+    }
+}
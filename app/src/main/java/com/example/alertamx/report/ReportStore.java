@@ -0,0 +1,418 @@
+package com.example.alertamx.report;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteOpenHelper;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.alertamx.search.Bm25;
+import com.example.alertamx.search.SearchCache;
+import com.example.alertamx.search.SearchText;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+// Copia local de los reportes que el usuario ya vio. Las pantallas leen de
+// aquí primero (abre al instante y sin red) y ReportSync la mantiene al día
+// descargando solo lo que cambió desde la última sincronización.
+public class ReportStore extends SQLiteOpenHelper {
+
+    private static final String DATABASE_NAME = "report_store.db";
+    private static final int DATABASE_VERSION = 4;
+
+    static final String TABLE_REPORTS = "reports";
+    private static final String TABLE_SYNC_STATE = "sync_state";
+    // Índice de texto: docid = rowid de la fila en reports (estable: la app no hace
+    // VACUUM), texto ya plegado por SearchText
+    private static final String TABLE_SEARCH = "reports_fts";
+
+    // Pesos BM25 por columna de TABLE_SEARCH: tipo_reporte, descripcion, ubicacion
+    private static final double[] SEARCH_WEIGHTS = {2.0, 1.0, 1.5};
+    // Consultas recientes con su ranking: el texto que se está escribiendo y sus páginas
+    private static final int SEARCH_CACHE_SIZE = 8;
+
+    private static final String KEY_HIGH_WATER_MARK = "updated_at_high_water_mark";
+    private static final String KEY_CREATED_MARK = "fecha_high_water_mark";
+
+    private static ReportStore instance;
+
+    // Cambia cada vez que se escriben filas; las pantallas recargan al observarlo
+    private final MutableLiveData<Long> changes = new MutableLiveData<>(0L);
+    private long changeCount;
+    private final List<ChangeListener> listeners = new CopyOnWriteArrayList<>();
+    private final SearchCache searchCache = new SearchCache(SEARCH_CACHE_SIZE);
+
+    // Para índices en memoria que se actualizan con cada fila y no releen la tabla.
+    // Se llama en el hilo que escribió, después de confirmar la transacción
+    public interface ChangeListener {
+        void onReportsChanged(List<CachedReport> upserted, Collection<String> deletedIds);
+    }
+
+    public static synchronized ReportStore getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReportStore(context.getApplicationContext());
+        }
+        return instance;
+    }
+
+    private ReportStore(Context context) {
+        this(context, DATABASE_NAME);
+    }
+
+    // name null: base en memoria, para pruebas
+    ReportStore(Context context, String name) {
+        super(context, name, null, DATABASE_VERSION);
+        setWriteAheadLoggingEnabled(true);
+    }
+
+    @Override
+    public void onCreate(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_REPORTS + " ("
+                + "id TEXT PRIMARY KEY, "
+                + "tipo_reporte TEXT, "
+                + "descripcion TEXT, "
+                + "ubicacion TEXT, "
+                + "estado TEXT, "
+                + "user_id TEXT, "
+                + "user_name TEXT, "
+                + "fecha INTEGER NOT NULL, "
+                + "updated_at INTEGER NOT NULL, "
+                + "resuelto_en INTEGER NOT NULL DEFAULT 0, "
+                + "attachment_count INTEGER NOT NULL DEFAULT 0, "
+                + "latitude REAL, "
+                + "longitude REAL)");
+        db.execSQL("CREATE INDEX reports_fecha ON " + TABLE_REPORTS + " (fecha DESC)");
+        db.execSQL("CREATE TABLE " + TABLE_SYNC_STATE + " ("
+                + "key TEXT PRIMARY KEY, "
+                + "value INTEGER NOT NULL)");
+        createSearchTable(db);
+    }
+
+    // Los índices de prefijo hacen que "fug*" no recorra todo el vocabulario
+    private static void createSearchTable(SQLiteDatabase db) {
+        db.execSQL("CREATE VIRTUAL TABLE " + TABLE_SEARCH + " USING fts4("
+                + "tipo_reporte, descripcion, ubicacion, prefix=\"2,3\")");
+    }
+
+    @Override
+    public void onUpgrade(SQLiteDatabase db, int oldVersion, int newVersion) {
+        if (oldVersion < 2) {
+            db.execSQL("ALTER TABLE " + TABLE_REPORTS + " ADD COLUMN latitude REAL");
+            db.execSQL("ALTER TABLE " + TABLE_REPORTS + " ADD COLUMN longitude REAL");
+            // Es solo una caché: vaciarla para que se vuelva a llenar con coordenadas
+            db.execSQL("DELETE FROM " + TABLE_REPORTS);
+            db.execSQL("DELETE FROM " + TABLE_SYNC_STATE);
+        }
+        if (oldVersion < 3) {
+            createSearchTable(db);
+            // Indexar lo que ya estaba guardado
+            try (Cursor cursor = db.query(TABLE_REPORTS,
+                    new String[]{"rowid", "tipo_reporte", "descripcion", "ubicacion"},
+                    null, null, null, null, null)) {
+                while (cursor.moveToNext()) {
+                    indexText(db, cursor.getLong(0), cursor.getString(1), cursor.getString(2),
+                            cursor.getString(3));
+                }
+            }
+        }
+        if (oldVersion < 4) {
+            db.execSQL("ALTER TABLE " + TABLE_REPORTS + " ADD COLUMN resuelto_en INTEGER NOT NULL DEFAULT 0");
+            // Es solo una caché: vaciarla para que los resueltos vuelvan con su hora de resolución
+            db.execSQL("DELETE FROM " + TABLE_REPORTS);
+            db.execSQL("DELETE FROM " + TABLE_SEARCH);
+            db.execSQL("DELETE FROM " + TABLE_SYNC_STATE);
+        }
+    }
+
+    public LiveData<Long> getChanges() {
+        return changes;
+    }
+
+    public void addChangeListener(ChangeListener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeChangeListener(ChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+    // Inserta o actualiza; una copia igual o más reciente nunca se pisa con una más vieja.
+    // Devuelve cuántas filas cambiaron
+    public int upsertAll(Collection<CachedReport> reports) {
+        List<CachedReport> changed = new ArrayList<>();
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (CachedReport report : reports) {
+                ContentValues values = toValues(report);
+                long rowId;
+                if (db.update(TABLE_REPORTS, values, "id = ? AND updated_at < ?",
+                        new String[]{report.getId(), String.valueOf(report.getUpdatedAt())}) > 0) {
+                    rowId = rowId(db, report.getId());
+                } else {
+                    rowId = db.insertWithOnConflict(TABLE_REPORTS, null, values,
+                            SQLiteDatabase.CONFLICT_IGNORE);
+                }
+                if (rowId != -1) {
+                    changed.add(report);
+                    indexText(db, rowId, report.getTipoReporte(), report.getDescripcion(),
+                            report.getUbicacion());
+                }
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        if (!changed.isEmpty()) {
+            notifyChanged(changed, Collections.emptyList());
+        }
+        return changed.size();
+    }
+
+    public void delete(Collection<String> ids) {
+        SQLiteDatabase db = getWritableDatabase();
+        db.beginTransaction();
+        try {
+            for (String id : ids) {
+                long rowId = rowId(db, id);
+                if (rowId < 0) {
+                    continue;
+                }
+                db.delete(TABLE_SEARCH, "docid = ?", new String[]{String.valueOf(rowId)});
+                db.delete(TABLE_REPORTS, "rowid = ?", new String[]{String.valueOf(rowId)});
+            }
+            db.setTransactionSuccessful();
+        } finally {
+            db.endTransaction();
+        }
+        notifyChanged(Collections.emptyList(), ids);
+    }
+
+    // Reportes que siguen al cursor (fecha, id), del más nuevo al más viejo; beforeId null =
+    // desde el más reciente. El id desempata los reportes con la misma fecha
+    public List<CachedReport> page(long beforeFecha, String beforeId, int limit) {
+        String selection = beforeId != null ? "fecha < ? OR (fecha = ? AND id < ?)" : null;
+        String[] args = beforeId != null
+                ? new String[]{String.valueOf(beforeFecha), String.valueOf(beforeFecha), beforeId}
+                : null;
+        List<CachedReport> reports = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_REPORTS, null, selection, args,
+                null, null, "fecha DESC, id DESC", String.valueOf(limit))) {
+            while (cursor.moveToNext()) {
+                reports.add(fromCursor(cursor));
+            }
+        }
+        return reports;
+    }
+
+    // Todos los reportes guardados, para construir índices en memoria
+    public List<CachedReport> all() {
+        List<CachedReport> reports = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_REPORTS, null, null, null,
+                null, null, null)) {
+            while (cursor.moveToNext()) {
+                reports.add(fromCursor(cursor));
+            }
+        }
+        return reports;
+    }
+
+    // Reportes con coordenadas, para construir índices espaciales
+    public List<CachedReport> withLocation() {
+        List<CachedReport> reports = new ArrayList<>();
+        try (Cursor cursor = getReadableDatabase().query(TABLE_REPORTS, null,
+                "latitude IS NOT NULL AND longitude IS NOT NULL", null, null, null, null)) {
+            while (cursor.moveToNext()) {
+                reports.add(fromCursor(cursor));
+            }
+        }
+        return reports;
+    }
+
+    // Búsqueda de texto sobre lo descargado, del más relevante al menos relevante.
+    // El ranking de una consulta se calcula una vez y queda en searchCache; cada
+    // página lee solo sus filas
+    public List<CachedReport> search(String text, int offset, int limit) {
+        List<CachedReport> reports = new ArrayList<>();
+        String match = SearchText.matchQuery(text);
+        if (match == null || limit <= 0) {
+            return reports;
+        }
+        SQLiteDatabase db = getReadableDatabase();
+        long[] ranked = searchCache.get(match);
+        if (ranked == null) {
+            long generation = searchCache.generation();
+            ranked = rank(db, match);
+            searchCache.put(match, generation, ranked);
+        }
+        if (offset >= ranked.length) {
+            return reports;
+        }
+        int end = Math.min(ranked.length, offset + limit);
+
+        StringBuilder placeholders = new StringBuilder();
+        String[] args = new String[end - offset];
+        for (int i = offset; i < end; i++) {
+            placeholders.append(i == offset ? "?" : ", ?");
+            args[i - offset] = String.valueOf(ranked[i]);
+        }
+        Map<Long, CachedReport> byRowId = new HashMap<>();
+        try (Cursor cursor = db.rawQuery("SELECT rowid AS search_rowid, * FROM " + TABLE_REPORTS
+                + " WHERE rowid IN (" + placeholders + ")", args)) {
+            while (cursor.moveToNext()) {
+                byRowId.put(cursor.getLong(0), fromCursor(cursor));
+            }
+        }
+        for (int i = offset; i < end; i++) {
+            CachedReport report = byRowId.get(ranked[i]);
+            if (report != null) {
+                reports.add(report);
+            }
+        }
+        return reports;
+    }
+
+    // Ids de fila de todos los aciertos ordenados por BM25. Solo lee docid y
+    // matchinfo: el SQLite de Android no deja registrar una función de ranking
+    private static long[] rank(SQLiteDatabase db, String match) {
+        List<SearchHit> hits = new ArrayList<>();
+        try (Cursor cursor = db.rawQuery("SELECT docid, matchinfo(" + TABLE_SEARCH + ", '"
+                + Bm25.MATCHINFO_FORMAT + "') FROM " + TABLE_SEARCH + " WHERE " + TABLE_SEARCH
+                + " MATCH ?", new String[]{match})) {
+            while (cursor.moveToNext()) {
+                hits.add(new SearchHit(cursor.getLong(0),
+                        Bm25.score(Bm25.parseMatchInfo(cursor.getBlob(1)), SEARCH_WEIGHTS)));
+            }
+        }
+        // Empates: el docid más alto es la fila insertada más tarde
+        hits.sort((a, b) -> a.score != b.score
+                ? Double.compare(b.score, a.score) : Long.compare(b.rowId, a.rowId));
+        long[] ranked = new long[hits.size()];
+        for (int i = 0; i < ranked.length; i++) {
+            ranked[i] = hits.get(i).rowId;
+        }
+        return ranked;
+    }
+
+    // Mayor updatedAt ya aplicado: la sincronización pide solo lo posterior
+    public long getHighWaterMark() {
+        return readMark(KEY_HIGH_WATER_MARK);
+    }
+
+    public void advanceHighWaterMark(long updatedAt) {
+        advanceMark(KEY_HIGH_WATER_MARK, updatedAt);
+    }
+
+    // Mayor fecha ya vista: alcanza a los reportes que llegan sin updatedAt
+    public long getCreatedMark() {
+        return readMark(KEY_CREATED_MARK);
+    }
+
+    public void advanceCreatedMark(long fecha) {
+        advanceMark(KEY_CREATED_MARK, fecha);
+    }
+
+    private long readMark(String key) {
+        try (Cursor cursor = getReadableDatabase().query(TABLE_SYNC_STATE, new String[]{"value"},
+                "key = ?", new String[]{key}, null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : 0;
+        }
+    }
+
+    // Solo avanza: respuestas fuera de orden no hacen retroceder la marca
+    private void advanceMark(String key, long value) {
+        if (value <= readMark(key)) {
+            return;
+        }
+        ContentValues values = new ContentValues();
+        values.put("key", key);
+        values.put("value", value);
+        getWritableDatabase().insertWithOnConflict(TABLE_SYNC_STATE, null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private void notifyChanged(List<CachedReport> upserted, Collection<String> deletedIds) {
+        searchCache.invalidate();
+        synchronized (this) {
+            changes.postValue(++changeCount);
+        }
+        for (ChangeListener listener : listeners) {
+            listener.onReportsChanged(upserted, deletedIds);
+        }
+    }
+
+    private static long rowId(SQLiteDatabase db, String id) {
+        try (Cursor cursor = db.query(TABLE_REPORTS, new String[]{"rowid"}, "id = ?",
+                new String[]{id}, null, null, null)) {
+            return cursor.moveToFirst() ? cursor.getLong(0) : -1;
+        }
+    }
+
+    // FTS4 no actualiza en sitio: se borra la versión anterior y se inserta la nueva
+    private static void indexText(SQLiteDatabase db, long rowId, String tipoReporte,
+                                  String descripcion, String ubicacion) {
+        db.delete(TABLE_SEARCH, "docid = ?", new String[]{String.valueOf(rowId)});
+        ContentValues values = new ContentValues();
+        values.put("docid", rowId);
+        values.put("tipo_reporte", SearchText.fold(tipoReporte));
+        values.put("descripcion", SearchText.fold(descripcion));
+        values.put("ubicacion", SearchText.fold(ubicacion));
+        db.insert(TABLE_SEARCH, null, values);
+    }
+
+    private static ContentValues toValues(CachedReport report) {
+        ContentValues values = new ContentValues();
+        values.put("id", report.getId());
+        values.put("tipo_reporte", report.getTipoReporte());
+        values.put("descripcion", report.getDescripcion());
+        values.put("ubicacion", report.getUbicacion());
+        values.put("estado", report.getEstado());
+        values.put("user_id", report.getUserId());
+        values.put("user_name", report.getUserName());
+        values.put("fecha", report.getFecha());
+        values.put("updated_at", report.getUpdatedAt());
+        values.put("resuelto_en", report.getResueltoEn());
+        values.put("attachment_count", report.getAttachmentCount());
+        values.put("latitude", report.getLatitude());
+        values.put("longitude", report.getLongitude());
+        return values;
+    }
+
+    private static CachedReport fromCursor(Cursor cursor) {
+        return new CachedReport(
+                cursor.getString(cursor.getColumnIndexOrThrow("id")),
+                cursor.getString(cursor.getColumnIndexOrThrow("tipo_reporte")),
+                cursor.getString(cursor.getColumnIndexOrThrow("descripcion")),
+                cursor.getString(cursor.getColumnIndexOrThrow("ubicacion")),
+                cursor.getString(cursor.getColumnIndexOrThrow("estado")),
+                cursor.getString(cursor.getColumnIndexOrThrow("user_id")),
+                cursor.getString(cursor.getColumnIndexOrThrow("user_name")),
+                cursor.getLong(cursor.getColumnIndexOrThrow("fecha")),
+                cursor.getLong(cursor.getColumnIndexOrThrow("updated_at")),
+                cursor.getLong(cursor.getColumnIndexOrThrow("resuelto_en")),
+                cursor.getInt(cursor.getColumnIndexOrThrow("attachment_count")),
+                getDoubleOrNull(cursor, "latitude"),
+                getDoubleOrNull(cursor, "longitude"));
+    }
+
+    private static Double getDoubleOrNull(Cursor cursor, String column) {
+        int index = cursor.getColumnIndexOrThrow(column);
+        return cursor.isNull(index) ? null : cursor.getDouble(index);
+    }
+
+    private static final class SearchHit {
+        final long rowId;
+        final double score;
+
+        SearchHit(long rowId, double score) {
+            this.rowId = rowId;
+            this.score = score;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.example.alertamx.report;
+
+import android.content.Context;
+import android.util.Log;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.CollectionReference;
+import com.google.firebase.firestore.DocumentChange;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+// Mantiene ReportStore al día sin volver a descargar lo que no cambió: pide
+// solo los documentos con updatedAt desde la marca guardada y, mientras hay
+// una pantalla abierta, aplica los cambios que llegan por el listener. Los
+// reportes que versiones viejas de la app crean sin updatedAt no aparecen en
+// esa consulta; se alcanzan con una segunda marca sobre fecha. Un borrado
+// real no aparece en ninguna consulta: los reportes se dan de baja con
+// deleted = true y un updatedAt nuevo, y aquí se quitan del almacén.
+public class ReportSync {
+
+    private static final String TAG = "ReportSync";
+
+    // Documentos por consulta de sincronización
+    static final int SYNC_PAGE_SIZE = 200;
+    // fecha la pone el cliente: margen para relojes desfasados
+    static final long CREATED_LOOKBACK_MILLIS = 5 * 60_000;
+
+    private static ReportSync instance;
+
+    private final ReportStore store;
+    private final CollectionReference reportes;
+    // Escrituras en SQLite en orden y fuera del hilo principal
+    private final Executor executor = Executors.newSingleThreadExecutor();
+
+    private Task<Void> running;
+    private final SharedListener listener = new SharedListener(this::open,
+            SnapshotListenerRegistry.getInstance().mainThreadScheduler(),
+            SnapshotListenerRegistry.GRACE_PERIOD_MILLIS);
+    private ListenerRegistration registration;
+    private boolean listening;
+
+    public static synchronized ReportSync getInstance(Context context) {
+        if (instance == null) {
+            instance = new ReportSync(ReportStore.getInstance(context),
+                    FirebaseFirestore.getInstance().collection("reportes"));
+        }
+        return instance;
+    }
+
+    ReportSync(ReportStore store, CollectionReference reportes) {
+        this.store = store;
+        this.reportes = reportes;
+    }
+
+    // Guarda en el almacén local documentos leídos por otra vía (p. ej. el feed paginado)
+    public Task<List<CachedReport>> cache(List<DocumentSnapshot> documents) {
+        return Tasks.call(executor, () -> save(documents));
+    }
+
+    static boolean isDeleted(DocumentSnapshot document) {
+        return Boolean.TRUE.equals(document.getBoolean("deleted"));
+    }
+
+    // Guarda los reportes vigentes y quita los dados de baja; devuelve los vigentes
+    private List<CachedReport> save(List<DocumentSnapshot> documents) {
+        List<CachedReport> reports = new ArrayList<>(documents.size());
+        List<String> deletedIds = new ArrayList<>();
+        for (DocumentSnapshot document : documents) {
+            if (isDeleted(document)) {
+                deletedIds.add(document.getId());
+            } else {
+                reports.add(CachedReport.fromSnapshot(document));
+            }
+        }
+        store.upsertAll(reports);
+        if (!deletedIds.isEmpty()) {
+            store.delete(deletedIds);
+        }
+        return reports;
+    }
+
+    // Descarga los cambios posteriores a la marca; si ya hay una sincronización en curso la reutiliza
+    public synchronized Task<Void> syncChanges() {
+        if (running != null && !running.isComplete()) {
+            return running;
+        }
+        running = Tasks.call(executor, store::getHighWaterMark)
+                .continueWithTask(executor, task -> {
+                    long mark = task.getResult();
+                    if (mark == 0) {
+                        return initMarks();
+                    }
+                    // Instalaciones anteriores a la marca de fecha arrancan desde la de updatedAt
+                    long createdMark = store.getCreatedMark();
+                    if (createdMark == 0) {
+                        createdMark = mark;
+                        store.advanceCreatedMark(mark);
+                    }
+                    Query changed = reportes.whereGreaterThanOrEqualTo("updatedAt", new Date(mark))
+                            .orderBy("updatedAt");
+                    Query created = reportes.whereGreaterThanOrEqualTo("fecha",
+                                    new Date(createdMark - CREATED_LOOKBACK_MILLIS))
+                            .orderBy("fecha");
+                    return drain(changed, null)
+                            .continueWithTask(executor, done -> drain(created, null));
+                });
+        return running;
+    }
+
+    // Primera vez: no bajar la colección entera. Las marcas arrancan en el documento más
+    // reciente y el feed va llenando el almacén página a página desde arriba
+    private Task<Void> initMarks() {
+        Task<QuerySnapshot> latestChange =
+                reportes.orderBy("updatedAt", Query.Direction.DESCENDING).limit(1).get();
+        Task<QuerySnapshot> latestCreated =
+                reportes.orderBy("fecha", Query.Direction.DESCENDING).limit(1).get();
+        return Tasks.whenAll(latestChange, latestCreated).continueWith(executor, task -> {
+            long now = System.currentTimeMillis();
+            List<DocumentSnapshot> changed = latestChange.getResult().getDocuments();
+            List<DocumentSnapshot> created = latestCreated.getResult().getDocuments();
+            store.advanceHighWaterMark(changed.isEmpty()
+                    ? now : CachedReport.fromSnapshot(changed.get(0)).getUpdatedAt());
+            store.advanceCreatedMark(created.isEmpty()
+                    ? now : CachedReport.fromSnapshot(created.get(0)).getFecha());
+            return null;
+        });
+    }
+
+    // Recorre la consulta por páginas con el último documento como cursor: los
+    // documentos con la misma marca que caen en el corte de página no se pierden
+    private Task<Void> drain(Query query, DocumentSnapshot after) {
+        Query page = query.limit(SYNC_PAGE_SIZE);
+        if (after != null) {
+            page = page.startAfter(after);
+        }
+        return page.get().continueWithTask(executor, task -> {
+            List<DocumentSnapshot> documents = task.getResult().getDocuments();
+            apply(documents);
+            Log.d(TAG, documents.size() + " reportes sincronizados");
+            // Página llena: puede haber más
+            if (documents.size() == SYNC_PAGE_SIZE) {
+                return drain(query, documents.get(documents.size() - 1));
+            }
+            return Tasks.forResult(null);
+        });
+    }
+
+    // Aplica los cambios en vivo mientras alguna pantalla los necesita. Cada
+    // startListening debe ir con su stopListening: Home y Dashboard comparten
+    // el mismo listener y se cierra un rato después de que se va la última
+    public void startListening() {
+        listener.acquire();
+    }
+
+    public void stopListening() {
+        listener.release();
+    }
+
+    // Primero se pone al día y luego escucha desde la marca resultante
+    private synchronized Runnable open() {
+        listening = true;
+        syncChanges().addOnCompleteListener(executor, task -> register(store.getHighWaterMark()));
+        return this::close;
+    }
+
+    private synchronized void register(long mark) {
+        if (!listening || registration != null) {
+            return;
+        }
+        // limitToLast: tras muchos cambios en una sesión larga se conservan los más recientes
+        registration = reportes.whereGreaterThan("updatedAt", new Date(mark))
+                .orderBy("updatedAt")
+                .limitToLast(SYNC_PAGE_SIZE)
+                .addSnapshotListener(executor, (snapshot, error) -> {
+                    if (error != null) {
+                        Log.w(TAG, "Error en el listener de reportes", error);
+                        return;
+                    }
+                    applyChanges(snapshot);
+                });
+    }
+
+    private synchronized void close() {
+        listening = false;
+        if (registration != null) {
+            registration.remove();
+            registration = null;
+        }
+    }
+
+    // Solo los deltas: el primer snapshot y los siguientes traen únicamente los documentos que cambiaron.
+    // REMOVED no es un borrado: el documento salió de la ventana de limitToLast (las bajas
+    // llegan como MODIFIED con deleted = true)
+    private void applyChanges(QuerySnapshot snapshot) {
+        List<DocumentSnapshot> changed = new ArrayList<>();
+        for (DocumentChange change : snapshot.getDocumentChanges()) {
+            if (change.getType() != DocumentChange.Type.REMOVED) {
+                changed.add(change.getDocument());
+            }
+        }
+        if (!changed.isEmpty()) {
+            apply(changed);
+        }
+    }
+
+    private void apply(List<DocumentSnapshot> documents) {
+        long mark = 0;
+        long createdMark = 0;
+        for (DocumentSnapshot document : documents) {
+            CachedReport report = CachedReport.fromSnapshot(document);
+            // Escrituras locales pendientes llevan hora estimada: no mover las marcas con ellas
+            if (document.getMetadata().hasPendingWrites()) {
+                continue;
+            }
+            // Sin updatedAt, CachedReport usa fecha; eso no dice nada de la marca de cambios
+            if (document.contains("updatedAt")) {
+                mark = Math.max(mark, report.getUpdatedAt());
+            }
+            createdMark = Math.max(createdMark, report.getFecha());
+        }
+        save(documents);
+        store.advanceHighWaterMark(mark);
+        store.advanceCreatedMark(createdMark);
+    }
+}
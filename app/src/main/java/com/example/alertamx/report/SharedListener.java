@@ -0,0 +1,69 @@
+package com.example.alertamx.report;
+
+// Un listener compartido por varios consumidores: se abre con el primero, se
+// cuenta cada uno y, cuando se va el último, se cierra tras un periodo de
+// gracia. Si alguien vuelve antes (rotación, cambio de pestaña) se reutiliza
+// el mismo listener y Firestore no vuelve a cobrar la consulta completa.
+public class SharedListener {
+
+    // Abre el listener y devuelve cómo cerrarlo
+    public interface Opener {
+        Runnable open();
+    }
+
+    // Ejecuta una tarea más tarde y devuelve cómo cancelarla
+    public interface Scheduler {
+        Runnable schedule(Runnable task, long delayMillis);
+    }
+
+    private final Opener opener;
+    private final Scheduler scheduler;
+    private final long gracePeriodMillis;
+
+    private int references;
+    private Runnable close;
+    private Runnable cancelPendingClose;
+
+    public SharedListener(Opener opener, Scheduler scheduler, long gracePeriodMillis) {
+        this.opener = opener;
+        this.scheduler = scheduler;
+        this.gracePeriodMillis = gracePeriodMillis;
+    }
+
+    public synchronized void acquire() {
+        references++;
+        if (cancelPendingClose != null) {
+            cancelPendingClose.run();
+            cancelPendingClose = null;
+        }
+        if (close == null) {
+            close = opener.open();
+        }
+    }
+
+    public synchronized void release() {
+        if (references == 0) {
+            return;
+        }
+        references--;
+        if (references == 0 && close != null && cancelPendingClose == null) {
+            cancelPendingClose = scheduler.schedule(this::closeIfUnused, gracePeriodMillis);
+        }
+    }
+
+    public synchronized int getReferences() {
+        return references;
+    }
+
+    public synchronized boolean isOpen() {
+        return close != null;
+    }
+
+    private synchronized void closeIfUnused() {
+        cancelPendingClose = null;
+        if (references == 0 && close != null) {
+            close.run();
+            close = null;
+        }
+    }
+}
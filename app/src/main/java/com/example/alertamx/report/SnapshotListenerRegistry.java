@@ -0,0 +1,88 @@
+package com.example.alertamx.report;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.util.Log;
+import androidx.lifecycle.LiveData;
+import com.google.firebase.firestore.ListenerRegistration;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.HashMap;
+import java.util.Map;
+
+// Un solo addSnapshotListener por consulta para toda la app. Las pantallas que
+// piden la misma consulta reciben el mismo LiveData: LiveData cuenta sus
+// observadores activos y SharedListener mantiene vivo el listener un rato
+// después de que se va el último, así rotar o cambiar de pestaña en Navigation
+// no vuelve a leer los documentos.
+public class SnapshotListenerRegistry {
+
+    private static final String TAG = "SnapshotListeners";
+
+    // Cubre rotaciones y cambios rápidos de pestaña
+    public static final long GRACE_PERIOD_MILLIS = 60_000;
+
+    private static SnapshotListenerRegistry instance;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    // Query implementa equals/hashCode: consultas iguales comparten entrada.
+    // Se conservan al cerrarse (sin listener abierto no cuestan nada) porque
+    // las consultas distintas de la app son pocas
+    private final Map<Query, SharedQueryLiveData> queries = new HashMap<>();
+
+    public static synchronized SnapshotListenerRegistry getInstance() {
+        if (instance == null) {
+            instance = new SnapshotListenerRegistry();
+        }
+        return instance;
+    }
+
+    private SnapshotListenerRegistry() {
+    }
+
+    public synchronized LiveData<QuerySnapshot> observe(Query query) {
+        SharedQueryLiveData live = queries.get(query);
+        if (live == null) {
+            live = new SharedQueryLiveData(query);
+            queries.put(query, live);
+        }
+        return live;
+    }
+
+    // Para los consumidores que no son pantallas, como ReportSync
+    public SharedListener.Scheduler mainThreadScheduler() {
+        return (task, delayMillis) -> {
+            handler.postDelayed(task, delayMillis);
+            return () -> handler.removeCallbacks(task);
+        };
+    }
+
+    private final class SharedQueryLiveData extends LiveData<QuerySnapshot> {
+
+        private final SharedListener listener;
+
+        SharedQueryLiveData(Query query) {
+            listener = new SharedListener(() -> {
+                ListenerRegistration registration = query.addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        Log.w(TAG, "Error en el listener compartido", error);
+                        return;
+                    }
+                    setValue(snapshot);
+                });
+                return registration::remove;
+            }, mainThreadScheduler(), GRACE_PERIOD_MILLIS);
+        }
+
+        // Un observador nuevo recibe el último snapshot guardado sin otra lectura
+        @Override
+        protected void onActive() {
+            listener.acquire();
+        }
+
+        @Override
+        protected void onInactive() {
+            listener.release();
+        }
+    }
+}
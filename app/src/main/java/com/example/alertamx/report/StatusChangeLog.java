@@ -0,0 +1,211 @@
+package com.example.alertamx.report;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+// Historial de cambios de estado de los reportes del usuario. Guarda el último
+// estado conocido de cada reporte y un cambio por reporte: si un reporte pasa
+// de Pendiente a En proceso y a Resuelto antes de que el usuario lo vea, queda
+// un solo aviso "Pendiente → Resuelto". Se guarda como texto para que abrir la
+// pestaña muestre lo último sin volver a leer de Firestore, junto con el mayor
+// updatedAt aplicado: al volver a escuchar solo se piden los cambios desde ahí.
+public class StatusChangeLog {
+
+    // Avisos que se conservan; los más viejos se descartan
+    static final int MAX_CHANGES = 100;
+
+    private static final String KNOWN = "E";
+    private static final String CHANGE = "C";
+    private static final String MARK = "M";
+
+    private final Map<String, String> knownEstado = new HashMap<>();
+    private final Map<String, Change> changes = new HashMap<>();
+    private long highWaterMark;
+
+    public static final class Change {
+        private final String reportId;
+        private final String tipoReporte;
+        private final String fromEstado;
+        private final String toEstado;
+        private final long updatedAt;
+        private final boolean unread;
+
+        public Change(String reportId, String tipoReporte, String fromEstado, String toEstado,
+                      long updatedAt, boolean unread) {
+            this.reportId = reportId;
+            this.tipoReporte = tipoReporte;
+            this.fromEstado = fromEstado;
+            this.toEstado = toEstado;
+            this.updatedAt = updatedAt;
+            this.unread = unread;
+        }
+
+        public String getReportId() { return reportId; }
+        public String getTipoReporte() { return tipoReporte; }
+        public String getFromEstado() { return fromEstado; }
+        public String getToEstado() { return toEstado; }
+        public long getUpdatedAt() { return updatedAt; }
+        public boolean isUnread() { return unread; }
+
+        Change read() {
+            return new Change(reportId, tipoReporte, fromEstado, toEstado, updatedAt, false);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof Change)) return false;
+            Change other = (Change) o;
+            return updatedAt == other.updatedAt
+                    && unread == other.unread
+                    && reportId.equals(other.reportId)
+                    && Objects.equals(tipoReporte, other.tipoReporte)
+                    && Objects.equals(fromEstado, other.fromEstado)
+                    && Objects.equals(toEstado, other.toEstado);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(reportId, tipoReporte, fromEstado, toEstado, updatedAt, unread);
+        }
+    }
+
+    // Estado actual de un reporte. La primera vez que se ve un reporte solo se
+    // anota su estado (no es un cambio). Devuelve true si cambió la lista de avisos
+    public boolean apply(String reportId, String tipoReporte, String estado, long updatedAt) {
+        highWaterMark = Math.max(highWaterMark, updatedAt);
+        if (!knownEstado.containsKey(reportId)) {
+            knownEstado.put(reportId, estado);
+            return false;
+        }
+        String known = knownEstado.get(reportId);
+        if (Objects.equals(known, estado)) {
+            return false;
+        }
+        knownEstado.put(reportId, estado);
+
+        Change pending = changes.get(reportId);
+        // Un aviso sin leer se extiende desde su estado original
+        String from = pending != null && pending.isUnread() ? pending.getFromEstado() : known;
+        if (Objects.equals(from, estado)) {
+            // Volvió al estado que el usuario ya conocía: no hay nada que avisar
+            changes.remove(reportId);
+        } else {
+            changes.put(reportId, new Change(reportId, tipoReporte, from, estado, updatedAt, true));
+            trim();
+        }
+        return true;
+    }
+
+    // Mayor updatedAt aplicado; 0 si todavía no se ha visto ningún reporte
+    public long getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    // Del más reciente al más antiguo
+    public List<Change> list() {
+        List<Change> list = new ArrayList<>(changes.values());
+        Collections.sort(list, (a, b) -> {
+            int byTime = Long.compare(b.getUpdatedAt(), a.getUpdatedAt());
+            return byTime != 0 ? byTime : a.getReportId().compareTo(b.getReportId());
+        });
+        return list;
+    }
+
+    public int unreadCount() {
+        int unread = 0;
+        for (Change change : changes.values()) {
+            if (change.isUnread()) {
+                unread++;
+            }
+        }
+        return unread;
+    }
+
+    // Devuelve true si había algo sin leer
+    public boolean markAllRead() {
+        boolean changed = false;
+        for (Map.Entry<String, Change> entry : changes.entrySet()) {
+            if (entry.getValue().isUnread()) {
+                entry.setValue(entry.getValue().read());
+                changed = true;
+            }
+        }
+        return changed;
+    }
+
+    private void trim() {
+        if (changes.size() <= MAX_CHANGES) {
+            return;
+        }
+        List<Change> sorted = list();
+        for (Change change : sorted.subList(MAX_CHANGES, sorted.size())) {
+            changes.remove(change.getReportId());
+        }
+    }
+
+    // Una línea por registro, campos separados por tabuladores
+    public String serialize() {
+        StringBuilder out = new StringBuilder();
+        if (highWaterMark > 0) {
+            appendLine(out, MARK, String.valueOf(highWaterMark));
+        }
+        for (Map.Entry<String, String> entry : knownEstado.entrySet()) {
+            appendLine(out, KNOWN, entry.getKey(), entry.getValue());
+        }
+        for (Change change : changes.values()) {
+            appendLine(out, CHANGE, change.getReportId(), change.getTipoReporte(),
+                    change.getFromEstado(), change.getToEstado(),
+                    String.valueOf(change.getUpdatedAt()), change.isUnread() ? "1" : "0");
+        }
+        return out.toString();
+    }
+
+    // Un texto ilegible se descarta: se pierde el historial, no la app
+    public static StatusChangeLog parse(String text) {
+        StatusChangeLog log = new StatusChangeLog();
+        if (text == null || text.isEmpty()) {
+            return log;
+        }
+        for (String line : text.split("\n")) {
+            String[] fields = line.split("\t", -1);
+            try {
+                if (MARK.equals(fields[0]) && fields.length == 2) {
+                    log.highWaterMark = Long.parseLong(fields[1]);
+                } else if (KNOWN.equals(fields[0]) && fields.length == 3) {
+                    log.knownEstado.put(fields[1], decode(fields[2]));
+                } else if (CHANGE.equals(fields[0]) && fields.length == 7) {
+                    log.changes.put(fields[1], new Change(fields[1], decode(fields[2]),
+                            decode(fields[3]), decode(fields[4]), Long.parseLong(fields[5]),
+                            "1".equals(fields[6])));
+                }
+            } catch (NumberFormatException e) {
+                return new StatusChangeLog();
+            }
+        }
+        return log;
+    }
+
+    private static void appendLine(StringBuilder out, String... fields) {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.append('\t');
+            }
+            out.append(encode(fields[i]));
+        }
+        out.append('\n');
+    }
+
+    // null se guarda como "\0"; tabuladores y saltos de línea no pueden aparecer en un campo
+    private static String encode(String value) {
+        return value == null ? "\0" : value.replace('\t', ' ').replace('\n', ' ');
+    }
+
+    private static String decode(String value) {
+        return "\0".equals(value) ? null : value;
+    }
+}
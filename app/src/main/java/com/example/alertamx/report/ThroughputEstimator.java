@@ -0,0 +1,61 @@
+package com.example.alertamx.report;
+
+// Estimación móvil (EWMA) del caudal de subida y del RTT a partir de las
+// transferencias recientes.
+public class ThroughputEstimator {
+
+    // Peso de la muestra nueva: reacciona en 3-4 subidas sin saltar con cada una
+    static final double ALPHA = 0.3;
+
+    // Transferencias muy cortas miden sobre todo latencia, no caudal
+    static final long MIN_SAMPLE_BYTES = 32 * 1024;
+
+    private double bytesPerSecond;
+    private double rttMillis;
+
+    public ThroughputEstimator() {
+    }
+
+    public ThroughputEstimator(double bytesPerSecond, double rttMillis) {
+        this.bytesPerSecond = bytesPerSecond;
+        this.rttMillis = rttMillis;
+    }
+
+    public synchronized void recordTransfer(long bytes, long durationMillis) {
+        if (bytes < MIN_SAMPLE_BYTES || durationMillis <= 0) {
+            return;
+        }
+        double sample = bytes * 1000.0 / durationMillis;
+        bytesPerSecond = bytesPerSecond == 0 ? sample : ALPHA * sample + (1 - ALPHA) * bytesPerSecond;
+    }
+
+    // Valores guardados de otra sesión; no pisan lo medido en esta
+    public synchronized void restore(double bytesPerSecond, double rttMillis) {
+        if (this.bytesPerSecond == 0) {
+            this.bytesPerSecond = bytesPerSecond;
+        }
+        if (this.rttMillis == 0) {
+            this.rttMillis = rttMillis;
+        }
+    }
+
+    public synchronized void recordRtt(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        rttMillis = rttMillis == 0 ? millis : ALPHA * millis + (1 - ALPHA) * rttMillis;
+    }
+
+    // 0 si todavía no hay muestras
+    public synchronized double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+
+    public synchronized double getRttMillis() {
+        return rttMillis;
+    }
+
+    public synchronized boolean hasSamples() {
+        return bytesPerSecond > 0;
+    }
+}
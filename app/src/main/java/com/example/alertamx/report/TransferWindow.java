@@ -0,0 +1,82 @@
+package com.example.alertamx.report;
+
+// Junta las subidas simultáneas en una sola muestra de caudal. Con dos subidas
+// a la vez cada una ve la mitad del enlace; medirlas por separado llevaría la
+// estimación a la mitad del caudal real. Aquí la muestra es el total de bytes
+// entre que empieza la primera y termina la última (o cada MAX_WINDOW_MILLIS
+// si nunca se queda sin subidas en curso). Los bytes se cuentan según avanzan,
+// así cada ventana recibe solo lo que se envió dentro de ella.
+public class TransferWindow {
+
+    public interface Sink {
+        void onSample(long bytes, long durationMillis);
+    }
+
+    // Con una cola larga las subidas se encadenan sin pausa: se cierra una muestra cada tanto
+    static final long MAX_WINDOW_MILLIS = 10_000;
+
+    private final Sink sink;
+    private int active;
+    private long windowStart;
+    private long windowBytes;
+
+    public TransferWindow(Sink sink) {
+        this.sink = sink;
+    }
+
+    public void started(long nowMillis) {
+        synchronized (this) {
+            if (active++ == 0) {
+                windowStart = nowMillis;
+                windowBytes = 0;
+            }
+        }
+    }
+
+    // Bytes enviados desde el último aviso de esa subida
+    public void transferred(long bytes, long nowMillis) {
+        long sampleBytes;
+        long sampleMillis;
+        synchronized (this) {
+            if (active == 0) {
+                return;
+            }
+            windowBytes += Math.max(0, bytes);
+            sampleMillis = nowMillis - windowStart;
+            if (sampleMillis < MAX_WINDOW_MILLIS) {
+                return;
+            }
+            sampleBytes = closeWindow(nowMillis);
+        }
+        sink.onSample(sampleBytes, sampleMillis);
+    }
+
+    // La subida terminó, bien o no; lo que envió ya llegó por transferred()
+    public void finished(long nowMillis) {
+        long sampleBytes;
+        long sampleMillis;
+        synchronized (this) {
+            if (active == 0) {
+                return;
+            }
+            active--;
+            sampleMillis = nowMillis - windowStart;
+            if (active > 0 && sampleMillis < MAX_WINDOW_MILLIS) {
+                return;
+            }
+            sampleBytes = closeWindow(nowMillis);
+        }
+        sink.onSample(sampleBytes, sampleMillis);
+    }
+
+    private long closeWindow(long nowMillis) {
+        long bytes = windowBytes;
+        windowStart = nowMillis;
+        windowBytes = 0;
+        return bytes;
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+}
@@ -0,0 +1,320 @@
+package com.example.alertamx.report;
+
+import android.content.ContentValues;
+import android.content.Context;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.util.Log;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.storage.FirebaseStorage;
+import com.google.firebase.storage.StorageException;
+import com.google.firebase.storage.StorageMetadata;
+import com.google.firebase.storage.StorageReference;
+import com.google.firebase.storage.UploadTask;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+// Subidas reanudables a Firebase Storage. Guarda por adjunto la URI de sesión
+// y el último offset confirmado, de modo que tras un cierre de la app o un
+// cambio de red la subida continúa donde quedó en lugar de empezar de cero.
+public class UploadManager {
+
+    private static final String TAG = "UploadManager";
+
+    static final String TABLE_UPLOADS = "uploads";
+    static final String TABLE_OBJECTS = "uploaded_objects";
+
+    // No escribir en disco en cada evento de progreso
+    private static final long PERSIST_EVERY_BYTES = 256 * 1024;
+
+    private static UploadManager instance;
+
+    private final ReportOutbox outbox;
+    private final BandwidthMonitor bandwidthMonitor;
+    private final StorageReference storageRef;
+    private final Map<String, MutableLiveData<UploadProgress>> progressById = new HashMap<>();
+    private final Map<String, Task<Void>> inFlight = new HashMap<>();
+    // Callbacks de progreso fuera del hilo principal: escriben en SQLite
+    private final Executor callbackExecutor = Executors.newSingleThreadExecutor();
+
+    public static synchronized UploadManager getInstance(Context context) {
+        if (instance == null) {
+            instance = new UploadManager(ReportOutbox.getInstance(context),
+                    BandwidthMonitor.getInstance(context));
+        }
+        return instance;
+    }
+
+    private UploadManager(ReportOutbox outbox, BandwidthMonitor bandwidthMonitor) {
+        this.outbox = outbox;
+        this.bandwidthMonitor = bandwidthMonitor;
+        this.storageRef = FirebaseStorage.getInstance().getReference();
+    }
+
+    static void createTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_UPLOADS + " ("
+                + "attachment_id TEXT PRIMARY KEY, "
+                + "local_path TEXT NOT NULL, "
+                + "storage_path TEXT NOT NULL, "
+                + "session_uri TEXT, "
+                + "bytes_transferred INTEGER NOT NULL DEFAULT 0, "
+                + "total_bytes INTEGER NOT NULL DEFAULT 0, "
+                + "state TEXT NOT NULL)");
+    }
+
+    static void createObjectsTable(SQLiteDatabase db) {
+        db.execSQL("CREATE TABLE " + TABLE_OBJECTS + " ("
+                + "storage_path TEXT PRIMARY KEY, "
+                + "uploaded_at INTEGER NOT NULL)");
+    }
+
+    public interface ProgressListener {
+        void onProgress(UploadProgress progress);
+    }
+
+    public Task<Void> upload(String attachmentId, File localFile, String storagePath) {
+        return upload(attachmentId, localFile, storagePath, null);
+    }
+
+    // Sube (o reanuda) el archivo local; completa cuando el objeto existe en Storage.
+    // Las rutas son direccionadas por contenido: si el objeto ya existe no se vuelve a enviar.
+    public synchronized Task<Void> upload(String attachmentId, File localFile, String storagePath,
+                                          ProgressListener listener) {
+        // Si el worker anterior agotó su espera, la subida sigue viva: no duplicarla
+        Task<Void> running = inFlight.get(attachmentId);
+        if (running != null && !running.isComplete()) {
+            return running;
+        }
+
+        if (isKnownObject(storagePath)) {
+            return Tasks.forResult(null);
+        }
+
+        UploadRecord record = load(attachmentId);
+        if (record == null || !record.storagePath.equals(storagePath)) {
+            // Una sesión solo vale para su ruta original
+            record = new UploadRecord(attachmentId, localFile.getAbsolutePath(), storagePath);
+            save(record);
+        } else if (UploadProgress.State.DONE.name().equals(record.state)) {
+            return Tasks.forResult(null);
+        }
+
+        final UploadRecord current = record;
+        current.listener = listener;
+        StorageReference ref = storageRef.child(storagePath);
+
+        Task<Void> result;
+        if (current.sessionUri != null) {
+            result = startUpload(ref, localFile, current);
+        } else {
+            // Subida nueva: preguntar antes si otro reporte (de este u otro usuario) ya subió la foto
+            long requestedAt = SystemClock.elapsedRealtime();
+            result = ref.getMetadata().continueWithTask(callbackExecutor, metadataTask -> {
+                // Petición sin cuerpo: sirve como medida de RTT, exista o no el objeto
+                bandwidthMonitor.recordRtt(SystemClock.elapsedRealtime() - requestedAt);
+                if (metadataTask.isSuccessful()) {
+                    Log.d(TAG, "Objeto ya existente, se omite la subida de " + attachmentId);
+                    markUploaded(current);
+                    return Tasks.forResult(null);
+                }
+                return startUpload(ref, localFile, current);
+            });
+        }
+        inFlight.put(attachmentId, result);
+        return result;
+    }
+
+    private Task<Void> startUpload(StorageReference ref, File localFile, UploadRecord current) {
+        StorageMetadata metadata = new StorageMetadata.Builder()
+                .setContentType(localFile.getName().endsWith(".webp") ? "image/webp" : "image/jpeg")
+                .build();
+
+        UploadTask uploadTask;
+        if (current.sessionUri != null) {
+            Log.d(TAG, "Reanudando " + current.attachmentId + " desde " + current.bytesTransferred + " bytes");
+            uploadTask = ref.putFile(Uri.fromFile(localFile), metadata, Uri.parse(current.sessionUri));
+        } else {
+            uploadTask = ref.putFile(Uri.fromFile(localFile), metadata);
+        }
+        publish(current, UploadProgress.State.UPLOADING);
+        // Para medir el caudal solo cuenta lo enviado en esta sesión
+        current.measuredBytes = current.sessionUri != null ? current.bytesTransferred : 0;
+        bandwidthMonitor.uploadStarted();
+
+        uploadTask.addOnProgressListener(callbackExecutor, snapshot -> {
+            Uri sessionUri = snapshot.getUploadSessionUri();
+            boolean newSession = sessionUri != null && !sessionUri.toString().equals(current.sessionUri);
+            long transferred = snapshot.getBytesTransferred();
+            measure(current, transferred);
+
+            current.totalBytes = snapshot.getTotalByteCount();
+            if (newSession || transferred - current.persistedBytes >= PERSIST_EVERY_BYTES) {
+                if (sessionUri != null) {
+                    current.sessionUri = sessionUri.toString();
+                }
+                current.bytesTransferred = transferred;
+                current.persistedBytes = transferred;
+                save(current);
+            } else {
+                current.bytesTransferred = transferred;
+            }
+            publish(current, UploadProgress.State.UPLOADING);
+        });
+
+        return uploadTask.continueWith(callbackExecutor, task -> {
+            if (!task.isSuccessful()) {
+                bandwidthMonitor.uploadFinished();
+                Exception e = task.getException();
+                // Una sesión caducada o inválida no se puede reanudar: empezar de nuevo la próxima vez
+                if (e instanceof StorageException && current.sessionUri != null
+                        && !((StorageException) e).getIsRecoverableException()) {
+                    current.sessionUri = null;
+                    current.bytesTransferred = 0;
+                    current.persistedBytes = 0;
+                }
+                publish(current, UploadProgress.State.FAILED);
+                save(current);
+                release(current, false);
+                throw e != null ? e : new IllegalStateException("Subida cancelada");
+            }
+            measure(current, task.getResult().getTotalByteCount());
+            bandwidthMonitor.uploadFinished();
+            markUploaded(current);
+            return null;
+        });
+    }
+
+    // El caudal se mide con lo enviado entre eventos, no al terminar la subida
+    private void measure(UploadRecord record, long transferred) {
+        if (transferred > record.measuredBytes) {
+            bandwidthMonitor.uploadProgress(transferred - record.measuredBytes);
+            record.measuredBytes = transferred;
+        }
+    }
+
+    private void markUploaded(UploadRecord record) {
+        record.state = UploadProgress.State.DONE.name();
+        record.bytesTransferred = record.totalBytes;
+        save(record);
+
+        ContentValues values = new ContentValues();
+        values.put("storage_path", record.storagePath);
+        values.put("uploaded_at", System.currentTimeMillis());
+        outbox.getWritableDatabase().insertWithOnConflict(TABLE_OBJECTS, null, values,
+                SQLiteDatabase.CONFLICT_IGNORE);
+        publish(record, UploadProgress.State.DONE);
+        release(record, true);
+    }
+
+    // Al terminar se sueltan la tarea y el listener del llamador. El LiveData se
+    // conserva tras un fallo solo si alguien lo observa, para que vea la reanudación
+    private synchronized void release(UploadRecord record, boolean done) {
+        record.listener = null;
+        inFlight.remove(record.attachmentId);
+        MutableLiveData<UploadProgress> liveData = progressById.get(record.attachmentId);
+        if (liveData != null && (done || !liveData.hasObservers())) {
+            progressById.remove(record.attachmentId);
+        }
+    }
+
+    // Índice local de objetos que ya están en Storage; sobrevive al envío de los reportes
+    private boolean isKnownObject(String storagePath) {
+        return DatabaseUtils.queryNumEntries(outbox.getReadableDatabase(), TABLE_OBJECTS,
+                "storage_path = ?", new String[]{storagePath}) > 0;
+    }
+
+    // Flujo de progreso de un adjunto; sigue emitiendo tras reanudaciones
+    public synchronized LiveData<UploadProgress> observeProgress(String attachmentId) {
+        MutableLiveData<UploadProgress> liveData = progressById.get(attachmentId);
+        if (liveData == null) {
+            liveData = new MutableLiveData<>();
+            progressById.put(attachmentId, liveData);
+        }
+        return liveData;
+    }
+
+    // Olvida el registro una vez que el reporte quedó confirmado
+    public synchronized void forget(String attachmentId) {
+        outbox.getWritableDatabase().delete(TABLE_UPLOADS, "attachment_id = ?", new String[]{attachmentId});
+        progressById.remove(attachmentId);
+        inFlight.remove(attachmentId);
+    }
+
+    private void publish(UploadRecord record, UploadProgress.State state) {
+        record.state = state.name();
+        MutableLiveData<UploadProgress> liveData;
+        synchronized (this) {
+            liveData = progressById.get(record.attachmentId);
+        }
+        if (liveData == null && record.listener == null) {
+            return;
+        }
+        UploadProgress progress = new UploadProgress(record.attachmentId, state,
+                record.bytesTransferred, record.totalBytes);
+        if (liveData != null) {
+            liveData.postValue(progress);
+        }
+        if (record.listener != null) {
+            record.listener.onProgress(progress);
+        }
+    }
+
+    private UploadRecord load(String attachmentId) {
+        try (Cursor cursor = outbox.getReadableDatabase().query(TABLE_UPLOADS, null,
+                "attachment_id = ?", new String[]{attachmentId}, null, null, null)) {
+            if (!cursor.moveToFirst()) {
+                return null;
+            }
+            UploadRecord record = new UploadRecord(attachmentId,
+                    cursor.getString(cursor.getColumnIndexOrThrow("local_path")),
+                    cursor.getString(cursor.getColumnIndexOrThrow("storage_path")));
+            record.sessionUri = cursor.getString(cursor.getColumnIndexOrThrow("session_uri"));
+            record.bytesTransferred = cursor.getLong(cursor.getColumnIndexOrThrow("bytes_transferred"));
+            record.persistedBytes = record.bytesTransferred;
+            record.totalBytes = cursor.getLong(cursor.getColumnIndexOrThrow("total_bytes"));
+            record.state = cursor.getString(cursor.getColumnIndexOrThrow("state"));
+            return record;
+        }
+    }
+
+    private void save(UploadRecord record) {
+        ContentValues values = new ContentValues();
+        values.put("attachment_id", record.attachmentId);
+        values.put("local_path", record.localPath);
+        values.put("storage_path", record.storagePath);
+        values.put("session_uri", record.sessionUri);
+        values.put("bytes_transferred", record.bytesTransferred);
+        values.put("total_bytes", record.totalBytes);
+        values.put("state", record.state);
+        outbox.getWritableDatabase().insertWithOnConflict(TABLE_UPLOADS, null, values,
+                SQLiteDatabase.CONFLICT_REPLACE);
+    }
+
+    private static class UploadRecord {
+        final String attachmentId;
+        final String localPath;
+        final String storagePath;
+        String sessionUri;
+        long bytesTransferred;
+        long persistedBytes;
+        long measuredBytes;
+        long totalBytes;
+        String state = UploadProgress.State.PENDING.name();
+        ProgressListener listener;
+
+        UploadRecord(String attachmentId, String localPath, String storagePath) {
+            this.attachmentId = attachmentId;
+            this.localPath = localPath;
+            this.storagePath = storagePath;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.alertamx.report;
+
+// Perfiles de tamaño/calidad para las fotos, de mayor a menor calidad.
+// bytesPerPixel es una estimación del JPEG resultante para fotos de calle típicas.
+public enum UploadProfile {
+    HIGH(1600, 85, 0.30),
+    MEDIUM(1280, 75, 0.22),
+    LOW(960, 65, 0.16),
+    MINIMAL(640, 55, 0.12);
+
+    // Sin mediciones usamos un punto intermedio
+    public static final UploadProfile DEFAULT = MEDIUM;
+
+    // Las versiones mediana (1024) y miniatura (256) suman ~45 % al original de 1600
+    static final double RENDITIONS_OVERHEAD = 1.45;
+    // Peticiones por foto: consulta de metadatos + inicio de sesión + subida
+    static final int ROUND_TRIPS_PER_PHOTO = 3;
+
+    private final int maxEdge;
+    private final int quality;
+    private final double bytesPerPixel;
+
+    UploadProfile(int maxEdge, int quality, double bytesPerPixel) {
+        this.maxEdge = maxEdge;
+        this.quality = quality;
+        this.bytesPerPixel = bytesPerPixel;
+    }
+
+    public int getMaxEdge() { return maxEdge; }
+    public int getQuality() { return quality; }
+
+    // Bytes estimados de una foto 4:3 con sus versiones reducidas
+    public long estimatedBytes() {
+        double pixels = (double) maxEdge * maxEdge * 3 / 4;
+        return (long) (pixels * bytesPerPixel * RENDITIONS_OVERHEAD);
+    }
+
+    public double estimatedSeconds(double bytesPerSecond, double rttMillis) {
+        return estimatedBytes() / bytesPerSecond + ROUND_TRIPS_PER_PHOTO * rttMillis / 1000.0;
+    }
+
+    // El perfil de mayor calidad cuya subida cabe en targetSeconds; si ninguno
+    // cabe, el más ligero. Sin caudal conocido devuelve DEFAULT.
+    public static UploadProfile choose(double bytesPerSecond, double rttMillis, double targetSeconds) {
+        if (bytesPerSecond <= 0) {
+            return DEFAULT;
+        }
+        for (UploadProfile profile : values()) {
+            if (profile.estimatedSeconds(bytesPerSecond, rttMillis) <= targetSeconds) {
+                return profile;
+            }
+        }
+        return MINIMAL;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.alertamx.report;
+
+// Estado inmutable de la subida de un adjunto
+public class UploadProgress {
+
+    public enum State { PENDING, UPLOADING, DONE, FAILED }
+
+    private final String attachmentId;
+    private final State state;
+    private final long bytesTransferred;
+    private final long totalBytes;
+
+    public UploadProgress(String attachmentId, State state, long bytesTransferred, long totalBytes) {
+        this.attachmentId = attachmentId;
+        this.state = state;
+        this.bytesTransferred = bytesTransferred;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getAttachmentId() { return attachmentId; }
+    public State getState() { return state; }
+    public long getBytesTransferred() { return bytesTransferred; }
+    public long getTotalBytes() { return totalBytes; }
+
+    // Porcentaje 0-100, o 0 si aún no se conoce el tamaño
+    public int getPercent() {
+        if (totalBytes <= 0) {
+            return state == State.DONE ? 100 : 0;
+        }
+        return (int) (bytesTransferred * 100 / totalBytes);
+    }
+}
@@ -0,0 +1,150 @@
+package com.example.alertamx.report;
+
+import android.content.Context;
+import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MutableLiveData;
+import com.example.alertamx.FirebaseCalls;
+import com.example.alertamx.resilience.CallPolicy;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import java.io.File;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+
+// Cola de subidas con límite de concurrencia: varias fotos suben en paralelo
+// sin saturar la radio ni la memoria. Las de mayor prioridad salen primero y
+// a igual prioridad se respeta el orden de llegada.
+public class UploadScheduler {
+
+    public static final int DEFAULT_MAX_CONCURRENT = 2;
+    private static final CallPolicy UPLOAD_POLICY = new CallPolicy(0, 0, 1, null);
+
+    private static UploadScheduler instance;
+
+    private final UploadManager uploadManager;
+    private final FirebaseCalls calls = FirebaseCalls.getInstance();
+    private final PriorityQueue<Job> queue = new PriorityQueue<>();
+    private final Map<String, Job> jobsById = new HashMap<>();
+    private final MutableLiveData<UploadProgress> aggregateProgress = new MutableLiveData<>();
+    // Arrancar la siguiente subida lee SQLite: fuera del hilo principal
+    private final Executor executor = Executors.newSingleThreadExecutor();
+
+    private int maxConcurrent;
+    private int running;
+    private long sequence;
+
+    public static synchronized UploadScheduler getInstance(Context context) {
+        if (instance == null) {
+            instance = new UploadScheduler(UploadManager.getInstance(context), DEFAULT_MAX_CONCURRENT);
+        }
+        return instance;
+    }
+
+    UploadScheduler(UploadManager uploadManager, int maxConcurrent) {
+        this.uploadManager = uploadManager;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    public synchronized void setMaxConcurrent(int maxConcurrent) {
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        startNext();
+    }
+
+    // Encola una subida; si el adjunto ya está en cola devuelve la misma tarea
+    public synchronized Task<Void> enqueue(String attachmentId, File localFile, String storagePath,
+                                           int priority) {
+        Job existing = jobsById.get(attachmentId);
+        if (existing != null) {
+            return existing.completion.getTask();
+        }
+        Job job = new Job(attachmentId, localFile, storagePath, priority, sequence++);
+        jobsById.put(attachmentId, job);
+        queue.add(job);
+        publishAggregate();
+        startNext();
+        return job.completion.getTask();
+    }
+
+    // Progreso conjunto de todo lo que está en cola o subiendo
+    public LiveData<UploadProgress> getAggregateProgress() {
+        return aggregateProgress;
+    }
+
+    private synchronized void startNext() {
+        while (running < maxConcurrent && !queue.isEmpty()) {
+            Job job = queue.poll();
+            running++;
+            // Sin plazo ni reintento propios: la subida es reanudable y dura lo que dure.
+            // Con el circuito de Storage abierto falla al instante y el worker reintenta más tarde
+            calls.call(calls.storage(), "upload", UPLOAD_POLICY,
+                    () -> uploadManager.upload(job.attachmentId, job.localFile, job.storagePath, progress -> {
+                        synchronized (UploadScheduler.this) {
+                            job.bytesTransferred = progress.getBytesTransferred();
+                            if (progress.getTotalBytes() > 0) {
+                                job.totalBytes = progress.getTotalBytes();
+                            }
+                            publishAggregate();
+                        }
+                    })).addOnCompleteListener(executor, task -> onJobFinished(job, task));
+        }
+    }
+
+    private synchronized void onJobFinished(Job job, Task<Void> task) {
+        running--;
+        jobsById.remove(job.attachmentId);
+        if (task.isSuccessful()) {
+            job.completion.setResult(null);
+        } else {
+            job.completion.setException(task.getException() != null
+                    ? task.getException()
+                    : new IllegalStateException("Subida cancelada"));
+        }
+        publishAggregate();
+        startNext();
+    }
+
+    private void publishAggregate() {
+        long transferred = 0;
+        long total = 0;
+        for (Job job : jobsById.values()) {
+            transferred += job.bytesTransferred;
+            total += job.totalBytes;
+        }
+        UploadProgress.State state = jobsById.isEmpty()
+                ? UploadProgress.State.DONE
+                : UploadProgress.State.UPLOADING;
+        aggregateProgress.postValue(new UploadProgress(null, state, transferred, total));
+    }
+
+    private static class Job implements Comparable<Job> {
+        final String attachmentId;
+        final File localFile;
+        final String storagePath;
+        final int priority;
+        final long sequence;
+        final TaskCompletionSource<Void> completion = new TaskCompletionSource<>();
+        long bytesTransferred;
+        long totalBytes;
+
+        Job(String attachmentId, File localFile, String storagePath, int priority, long sequence) {
+            this.attachmentId = attachmentId;
+            this.localFile = localFile;
+            this.storagePath = storagePath;
+            this.priority = priority;
+            this.sequence = sequence;
+            // Hasta que Storage informe el total usamos el tamaño en disco
+            this.totalBytes = localFile.length();
+        }
+
+        @Override
+        public int compareTo(Job other) {
+            if (priority != other.priority) {
+                return Integer.compare(other.priority, priority);
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
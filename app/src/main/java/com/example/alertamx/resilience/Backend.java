@@ -0,0 +1,186 @@
+package com.example.alertamx.resilience;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+
+// Ejecuta las llamadas a un backend (Auth, Firestore, Storage) con plazo por
+// intento, reintentos con backoff, circuito y límite de concurrencia compartidos
+// por todas sus operaciones. No conoce las Task de Firebase: el adaptador
+// arranca la llamada y avisa al terminar, así se prueba en la JVM.
+public class Backend {
+
+    // Arranca un intento; debe llamar una vez al callback, desde cualquier hilo
+    public interface Call<T> {
+        void start(Callback<T> callback);
+    }
+
+    public interface Callback<T> {
+        void onSuccess(T result);
+        void onFailure(Exception e);
+    }
+
+    private final String name;
+    private final Clock clock;
+    private final CircuitBreaker breaker;
+    private final Bulkhead bulkhead;
+    // Fallos del backend: cuentan para el circuito
+    private final Predicate<Exception> isTransient;
+    // De esos, los que conviene repetir enseguida; un límite de peticiones no
+    private final Predicate<Exception> isRetryable;
+    private final CallMetrics metrics;
+
+    public Backend(String name, Clock clock, CircuitBreaker breaker, Bulkhead bulkhead,
+                   Predicate<Exception> isTransient, CallMetrics metrics) {
+        this(name, clock, breaker, bulkhead, isTransient, isTransient, metrics);
+    }
+
+    public Backend(String name, Clock clock, CircuitBreaker breaker, Bulkhead bulkhead,
+                   Predicate<Exception> isTransient, Predicate<Exception> isRetryable,
+                   CallMetrics metrics) {
+        this.name = name;
+        this.clock = clock;
+        this.breaker = breaker;
+        this.bulkhead = bulkhead;
+        this.isTransient = isTransient;
+        this.isRetryable = isRetryable;
+        this.metrics = metrics;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CircuitBreaker getBreaker() {
+        return breaker;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public <T> void execute(String operation, CallPolicy policy, Call<T> call, Callback<T> callback) {
+        new Execution<>(operation, policy, call, callback).attempt(1);
+    }
+
+    private final class Execution<T> {
+        final String operation;
+        final CallPolicy policy;
+        final Call<T> call;
+        final Callback<T> callback;
+        final long startedAt;
+
+        Execution(String operation, CallPolicy policy, Call<T> call, Callback<T> callback) {
+            this.operation = operation;
+            this.policy = policy;
+            this.call = call;
+            this.callback = callback;
+            this.startedAt = clock.nowMillis();
+        }
+
+        void attempt(int attempt) {
+            if (!bulkhead.enter(() -> run(attempt))) {
+                // Rechazo sin reintento: es lo que corta los toques repetidos del usuario
+                metrics.onAttempt(name, operation, attempt, CallMetrics.Outcome.BULKHEAD_FULL, 0);
+                callback.onFailure(new RejectedExecutionException(
+                        "Demasiadas operaciones en curso: " + name));
+            }
+        }
+
+        void run(int attempt) {
+            if (!breaker.tryAcquire()) {
+                bulkhead.release();
+                metrics.onAttempt(name, operation, attempt, CallMetrics.Outcome.CIRCUIT_OPEN, 0);
+                callback.onFailure(new CircuitOpenException(name, breaker.retryAfterMillis()));
+                return;
+            }
+
+            long attemptStart = clock.nowMillis();
+            AtomicBoolean settled = new AtomicBoolean();
+            long timeout = timeoutFor(attemptStart);
+            Runnable cancelTimeout = timeout > 0
+                    ? clock.schedule(() -> {
+                        if (settled.compareAndSet(false, true)) {
+                            // La Task sigue en vuelo y no se puede cancelar; su resultado se ignora.
+                            // Se libera el hueco para que una llamada colgada no bloquee el backend
+                            bulkhead.release();
+                            breaker.onFailure();
+                            metrics.onAttempt(name, operation, attempt, CallMetrics.Outcome.TIMEOUT,
+                                    clock.nowMillis() - attemptStart);
+                            retryOrFail(attempt, new TimeoutException(
+                                    operation + " sin respuesta en " + timeout + " ms"));
+                        }
+                    }, timeout)
+                    : () -> { };
+
+            Callback<T> attemptCallback = new Callback<T>() {
+                @Override
+                public void onSuccess(T result) {
+                    if (!settled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    cancelTimeout.run();
+                    bulkhead.release();
+                    breaker.onSuccess();
+                    metrics.onAttempt(name, operation, attempt, CallMetrics.Outcome.SUCCESS,
+                            clock.nowMillis() - attemptStart);
+                    callback.onSuccess(result);
+                }
+
+                @Override
+                public void onFailure(Exception e) {
+                    if (!settled.compareAndSet(false, true)) {
+                        return;
+                    }
+                    cancelTimeout.run();
+                    bulkhead.release();
+                    boolean transientError = isTransient.test(e);
+                    if (transientError) {
+                        breaker.onFailure();
+                    } else {
+                        breaker.onSuccess();
+                    }
+                    metrics.onAttempt(name, operation, attempt,
+                            transientError ? CallMetrics.Outcome.TRANSIENT_ERROR : CallMetrics.Outcome.ERROR,
+                            clock.nowMillis() - attemptStart);
+                    if (transientError && isRetryable.test(e)) {
+                        retryOrFail(attempt, e);
+                    } else {
+                        callback.onFailure(e);
+                    }
+                }
+            };
+
+            try {
+                call.start(attemptCallback);
+            } catch (RuntimeException e) {
+                attemptCallback.onFailure(e);
+            }
+        }
+
+        // El plazo del intento nunca pasa del plazo total que queda
+        long timeoutFor(long now) {
+            long timeout = policy.getAttemptTimeoutMillis();
+            if (policy.getDeadlineMillis() > 0) {
+                long remaining = Math.max(1, startedAt + policy.getDeadlineMillis() - now);
+                timeout = timeout > 0 ? Math.min(timeout, remaining) : remaining;
+            }
+            return timeout;
+        }
+
+        void retryOrFail(int attempt, Exception e) {
+            if (attempt >= policy.getMaxAttempts()) {
+                callback.onFailure(e);
+                return;
+            }
+            long delay = policy.getBackoff() != null ? policy.getBackoff().delayMillis(attempt) : 0;
+            if (policy.getDeadlineMillis() > 0
+                    && clock.nowMillis() + delay >= startedAt + policy.getDeadlineMillis()) {
+                callback.onFailure(e);
+                return;
+            }
+            clock.schedule(() -> attempt(attempt + 1), delay);
+        }
+    }
+}
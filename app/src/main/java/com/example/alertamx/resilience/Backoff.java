@@ -0,0 +1,39 @@
+package com.example.alertamx.resilience;
+
+import java.util.Random;
+
+// Espera exponencial con jitter entre reintentos. La mitad del tope es fija y la
+// otra mitad aleatoria: los clientes que fallaron a la vez no reintentan a la vez,
+// pero ninguno reintenta de inmediato.
+public final class Backoff {
+
+    private final long baseMillis;
+    private final long maxMillis;
+    private final Random random;
+
+    public Backoff(long baseMillis, long maxMillis) {
+        this(baseMillis, maxMillis, new Random());
+    }
+
+    Backoff(long baseMillis, long maxMillis, Random random) {
+        this.baseMillis = baseMillis;
+        this.maxMillis = maxMillis;
+        this.random = random;
+    }
+
+    // Espera antes del reintento n (1 = el primero)
+    public long delayMillis(int retry) {
+        long ceiling = ceilingMillis(retry);
+        long half = ceiling / 2;
+        return half + (long) (random.nextDouble() * (ceiling - half + 1));
+    }
+
+    // base·2^(n-1), sin pasar de maxMillis
+    long ceilingMillis(int retry) {
+        int shift = Math.max(0, retry - 1);
+        if (shift >= 62 || baseMillis > (maxMillis >> shift)) {
+            return maxMillis;
+        }
+        return Math.min(maxMillis, baseMillis << shift);
+    }
+}
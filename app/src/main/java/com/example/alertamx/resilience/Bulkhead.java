@@ -0,0 +1,57 @@
+package com.example.alertamx.resilience;
+
+import java.util.ArrayDeque;
+
+// Límite de llamadas simultáneas a un backend. Lo que no cabe espera en una
+// cola corta; si la cola también está llena la llamada se rechaza en el acto.
+public class Bulkhead {
+
+    private final int maxConcurrent;
+    private final int maxQueued;
+    private final ArrayDeque<Runnable> waiting = new ArrayDeque<>();
+    private int active;
+
+    public Bulkhead(int maxConcurrent, int maxQueued) {
+        this.maxConcurrent = maxConcurrent;
+        this.maxQueued = maxQueued;
+    }
+
+    // Ejecuta la tarea ya o cuando se libere un hueco; false si no cabe.
+    // Quien la ejecuta ocupa un hueco hasta llamar a release()
+    public boolean enter(Runnable task) {
+        synchronized (this) {
+            if (active >= maxConcurrent) {
+                if (waiting.size() >= maxQueued) {
+                    return false;
+                }
+                waiting.add(task);
+                return true;
+            }
+            active++;
+        }
+        task.run();
+        return true;
+    }
+
+    public void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                active--;
+            }
+        }
+        // El hueco pasa directamente a la siguiente en cola
+        if (next != null) {
+            next.run();
+        }
+    }
+
+    public synchronized int getActive() {
+        return active;
+    }
+
+    public synchronized int getQueued() {
+        return waiting.size();
+    }
+}
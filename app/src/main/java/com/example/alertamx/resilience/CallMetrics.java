@@ -0,0 +1,20 @@
+package com.example.alertamx.resilience;
+
+// Recibe un evento por cada intento, también los rechazados sin llegar a salir
+public interface CallMetrics {
+
+    enum Outcome {
+        SUCCESS,
+        // Error propio de la petición (credenciales, permisos): no se reintenta
+        ERROR,
+        // Error de red o del backend: cuenta para el circuito y se puede reintentar
+        TRANSIENT_ERROR,
+        TIMEOUT,
+        CIRCUIT_OPEN,
+        BULKHEAD_FULL
+    }
+
+    void onAttempt(String backend, String operation, int attempt, Outcome outcome, long latencyMillis);
+
+    CallMetrics NONE = (backend, operation, attempt, outcome, latencyMillis) -> { };
+}
@@ -0,0 +1,31 @@
+package com.example.alertamx.resilience;
+
+// Plazos y reintentos de una operación. Solo las operaciones idempotentes
+// deberían tener más de un intento: un intento que vence por tiempo puede
+// haberse aplicado igualmente en el servidor.
+public final class CallPolicy {
+
+    // 0 = sin límite
+    private final long attemptTimeoutMillis;
+    // Plazo total desde la primera llamada, esperas incluidas; 0 = sin límite
+    private final long deadlineMillis;
+    private final int maxAttempts;
+    private final Backoff backoff;
+
+    public CallPolicy(long attemptTimeoutMillis, long deadlineMillis, int maxAttempts, Backoff backoff) {
+        this.attemptTimeoutMillis = attemptTimeoutMillis;
+        this.deadlineMillis = deadlineMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoff = backoff;
+    }
+
+    // Un solo intento con plazo
+    public static CallPolicy once(long timeoutMillis) {
+        return new CallPolicy(timeoutMillis, 0, 1, null);
+    }
+
+    public long getAttemptTimeoutMillis() { return attemptTimeoutMillis; }
+    public long getDeadlineMillis() { return deadlineMillis; }
+    public int getMaxAttempts() { return maxAttempts; }
+    public Backoff getBackoff() { return backoff; }
+}
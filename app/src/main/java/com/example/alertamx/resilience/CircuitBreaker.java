@@ -0,0 +1,74 @@
+package com.example.alertamx.resilience;
+
+// Corta las llamadas a un backend que está fallando. Tras failureThreshold
+// fallos seguidos se abre y rechaza todo durante openMillis; luego deja pasar
+// una sola llamada de prueba: si sale bien se cierra, si no vuelve a abrirse.
+public class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final Clock clock;
+    private final int failureThreshold;
+    private final long openMillis;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(Clock clock, int failureThreshold, long openMillis) {
+        this.clock = clock;
+        this.failureThreshold = failureThreshold;
+        this.openMillis = openMillis;
+    }
+
+    // true si la llamada puede salir; cada true debe seguirse de onSuccess u onFailure
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (clock.nowMillis() - openedAt < openMillis) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probeInFlight) {
+                return false;
+            }
+            probeInFlight = true;
+        }
+        return true;
+    }
+
+    // El backend respondió, aunque sea con un error que no es suyo (p. ej. contraseña incorrecta)
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        probeInFlight = false;
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = clock.nowMillis();
+            consecutiveFailures = 0;
+        }
+    }
+
+    public synchronized State getState() {
+        if (state == State.OPEN && clock.nowMillis() - openedAt >= openMillis) {
+            return State.HALF_OPEN;
+        }
+        return state;
+    }
+
+    // Tiempo hasta que se permita la llamada de prueba; 0 si no está abierto
+    public synchronized long retryAfterMillis() {
+        if (state != State.OPEN) {
+            return 0;
+        }
+        return Math.max(0, openedAt + openMillis - clock.nowMillis());
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.alertamx.resilience;
+
+// La llamada no salió porque el circuito del backend está abierto
+public class CircuitOpenException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterMillis;
+
+    public CircuitOpenException(String backend, long retryAfterMillis) {
+        super("Servicio no disponible: " + backend);
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
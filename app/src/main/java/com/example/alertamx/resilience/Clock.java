@@ -0,0 +1,11 @@
+package com.example.alertamx.resilience;
+
+// Tiempo y temporizadores de la capa de llamadas. En la app es el reloj del
+// sistema; en los tests uno falso que avanza a mano.
+public interface Clock {
+
+    long nowMillis();
+
+    // Ejecuta la tarea tras el retraso; el Runnable devuelto la cancela
+    Runnable schedule(Runnable task, long delayMillis);
+}
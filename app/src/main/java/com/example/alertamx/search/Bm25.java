@@ -0,0 +1,62 @@
+package com.example.alertamx.search;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+// Ranking BM25 a partir de matchinfo(tabla, 'pcnalx') de SQLite FTS4, que no
+// trae una función de ranking propia. Cada columna tiene un peso: un término
+// en el tipo de reporte pesa más que el mismo término en la descripción.
+public final class Bm25 {
+
+    public static final String MATCHINFO_FORMAT = "pcnalx";
+
+    static final double K1 = 1.2;
+    static final double B = 0.75;
+
+    private Bm25() {
+    }
+
+    // El blob de matchinfo son enteros de 32 bits sin signo en el orden de bytes de la máquina
+    public static int[] parseMatchInfo(byte[] blob) {
+        ByteBuffer buffer = ByteBuffer.wrap(blob).order(ByteOrder.nativeOrder());
+        int[] values = new int[blob.length / 4];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = buffer.getInt();
+        }
+        return values;
+    }
+
+    // Mayor es mejor. weights tiene un peso por columna de la tabla FTS
+    public static double score(int[] matchInfo, double[] weights) {
+        int phrases = matchInfo[0];
+        int columns = matchInfo[1];
+        double totalDocs = matchInfo[2];
+        int avgLengthOffset = 3;
+        int lengthOffset = avgLengthOffset + columns;
+        int hitsOffset = lengthOffset + columns;
+
+        double score = 0;
+        for (int phrase = 0; phrase < phrases; phrase++) {
+            for (int column = 0; column < columns; column++) {
+                double weight = column < weights.length ? weights[column] : 1;
+                if (weight == 0) {
+                    continue;
+                }
+                // x: {aciertos en esta fila, aciertos en todas, filas con acierto}
+                int x = hitsOffset + 3 * (phrase * columns + column);
+                double hits = matchInfo[x];
+                double docsWithHit = matchInfo[x + 2];
+                if (hits == 0) {
+                    continue;
+                }
+                double avgLength = Math.max(1, matchInfo[avgLengthOffset + column]);
+                double length = matchInfo[lengthOffset + column];
+                // Variante de Lucene: nunca negativa aunque el término esté en casi todas las filas
+                double idf = Math.log(1 + (totalDocs - docsWithHit + 0.5) / (docsWithHit + 0.5));
+                double tf = hits * (K1 + 1) / (hits + K1 * (1 - B + B * length / avgLength));
+                score += weight * idf * tf;
+            }
+        }
+        return score;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.alertamx.search;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Ranking ya calculado de las últimas consultas. FTS4 no ordena por relevancia:
+// la primera página de una consulta lee matchinfo de todos los aciertos y las
+// siguientes (o volver a escribir el mismo texto) solo leen sus filas. Cualquier
+// escritura en el almacén descarta lo guardado.
+public final class SearchCache {
+
+    private final Map<String, long[]> rankings;
+    private long generation;
+
+    public SearchCache(int capacity) {
+        // Orden de acceso: se descarta la consulta usada hace más tiempo
+        rankings = new LinkedHashMap<String, long[]>(capacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, long[]> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    // Se lee antes de calcular un ranking y se pasa a put
+    public synchronized long generation() {
+        return generation;
+    }
+
+    // Ids de fila del más relevante al menos relevante, o null si no está
+    public synchronized long[] get(String query) {
+        return rankings.get(query);
+    }
+
+    // Un ranking calculado mientras alguien escribía ya no vale y no se guarda
+    public synchronized void put(String query, long generation, long[] ranked) {
+        if (generation == this.generation) {
+            rankings.put(query, ranked);
+        }
+    }
+
+    public synchronized void invalidate() {
+        generation++;
+        rankings.clear();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.alertamx.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Normalización del texto para la búsqueda local: minúsculas, sin acentos y
+// separado en palabras por cualquier carácter que no sea letra o dígito. Se
+// aplica igual al indexar y al consultar, así "energía" encuentra "energia"
+// sin depender de los tokenizadores que traiga el SQLite de cada dispositivo.
+public final class SearchText {
+
+    // Palabras más cortas no ayudan a distinguir y llenan el índice de prefijos
+    static final int MIN_PREFIX_LENGTH = 2;
+
+    private SearchText() {
+    }
+
+    // Texto listo para guardar en la tabla FTS: palabras plegadas separadas por un espacio
+    public static String fold(String text) {
+        // Sin String.join: no existe antes de Android 8 (minSdk 24)
+        StringBuilder folded = new StringBuilder();
+        for (String token : tokens(text)) {
+            if (folded.length() > 0) {
+                folded.append(' ');
+            }
+            folded.append(token);
+        }
+        return folded.toString();
+    }
+
+    public static List<String> tokens(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return tokens;
+        }
+        // NFD separa cada acento de su letra; las marcas se descartan
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || type == Character.ENCLOSING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                tokens.add(token.toString().toLowerCase(Locale.ROOT));
+                token.setLength(0);
+            }
+        }
+        if (token.length() > 0) {
+            tokens.add(token.toString().toLowerCase(Locale.ROOT));
+        }
+        return tokens;
+    }
+
+    // Expresión MATCH para lo que escribe el usuario: todas las palabras deben
+    // aparecer y la última puede estar incompleta (búsqueda mientras se escribe).
+    // Devuelve null si no queda ninguna palabra. Las palabras plegadas son solo
+    // letras y dígitos en minúsculas: nunca forman operadores ni comillas de MATCH
+    public static String matchQuery(String input) {
+        List<String> tokens = tokens(input);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        StringBuilder query = new StringBuilder();
+        for (int i = 0; i < tokens.size(); i++) {
+            if (i > 0) {
+                query.append(' ');
+            }
+            String token = tokens.get(i);
+            query.append(token);
+            if (i == tokens.size() - 1 && token.length() >= MIN_PREFIX_LENGTH) {
+                query.append('*');
+            }
+        }
+        return query.toString();
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.alertamx.stats;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Estadísticas por día para las gráficas del Dashboard: reportes por día de
+// creación, tipo y estado, y tiempo desde la creación hasta la resolución
+// (campo resueltoEn del documento).
+// Se actualiza con cada alta, cambio o baja (O(1) por evento) y responde
+// cualquier rango de fechas leyendo un valor por día, sin recorrer reportes.
+// El tiempo de resolución se guarda en un histograma logarítmico por día, así
+// la mediana de un rango se obtiene sumando histogramas (error < 12%).
+public class ReportStats {
+
+    public static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    public static final String ESTADO_RESUELTO = "Resuelto";
+
+    // Histograma en minutos: 4 cubetas por potencia de 2, hasta 2^24 min (~32 años)
+    static final int SUB_BUCKETS = 4;
+    static final int OCTAVES = 24;
+    static final int HISTOGRAM_BINS = 1 + SUB_BUCKETS * OCTAVES;
+    private static final long MINUTE_MILLIS = 60 * 1000;
+    private static final int NOT_RESOLVED = -1;
+
+    // Desfase de la zona horaria: los días empiezan a medianoche local
+    private final long offsetMillis;
+
+    private final Map<String, Integer> tipoIds = new HashMap<>();
+    private final Map<String, Integer> estadoIds = new HashMap<>();
+    private final List<String> tipos = new ArrayList<>();
+    private final List<String> estados = new ArrayList<>();
+
+    private final Map<String, Report> reports = new HashMap<>();
+    // series[tipo][estado]: reportes creados por día; crece al aparecer tipos o estados
+    private DaySeries[][] series = new DaySeries[0][0];
+    private final DaySeries totals = new DaySeries();
+    private final Map<Integer, int[]> resolutionsByDay = new HashMap<>();
+
+    public ReportStats(long offsetMillis) {
+        this.offsetMillis = offsetMillis;
+    }
+
+    public int size() {
+        return reports.size();
+    }
+
+    public boolean contains(String id) {
+        return reports.containsKey(id);
+    }
+
+    public List<String> getTipos() {
+        return new ArrayList<>(tipos);
+    }
+
+    public List<String> getEstados() {
+        return new ArrayList<>(estados);
+    }
+
+    public int dayOf(long millis) {
+        return (int) Math.floorDiv(millis + offsetMillis, DAY_MILLIS);
+    }
+
+    // Alta o cambio de un reporte (DocumentChange ADDED o MODIFIED). resueltoEn es la
+    // hora de resolución guardada en el documento; 0 si no la tiene. Un resuelto sin
+    // ella cuenta por día pero no entra en el tiempo de resolución
+    public void upsert(String id, String tipoReporte, String estado, long fecha, long resueltoEn) {
+        int day = dayOf(fecha);
+        int tipo = idOf(tipoReporte, tipoIds, tipos);
+        int estadoId = idOf(estado, estadoIds, estados);
+        Report report = reports.get(id);
+        if (report == null) {
+            report = new Report();
+            reports.put(id, report);
+        } else if (report.day == day && report.tipo == tipo && report.estado == estadoId
+                && report.resueltoEn == resueltoEn) {
+            // Cambió otro campo (descripción, adjuntos): nada que contar
+            return;
+        } else {
+            count(report, -1);
+            if (report.resolvedBin != NOT_RESOLVED) {
+                uncountResolution(report);
+            }
+        }
+        report.day = day;
+        report.tipo = tipo;
+        report.estado = estadoId;
+        report.resueltoEn = resueltoEn;
+        count(report, 1);
+
+        // Reabierto no cuenta; resuelto otra vez cuenta con la nueva hora
+        if (ESTADO_RESUELTO.equals(estado) && resueltoEn > 0) {
+            report.resolvedDay = dayOf(resueltoEn);
+            report.resolvedBin = bin(resueltoEn - fecha);
+            histogram(report.resolvedDay)[report.resolvedBin]++;
+        }
+    }
+
+    // Baja de un reporte (DocumentChange REMOVED)
+    public void remove(String id) {
+        Report report = reports.remove(id);
+        if (report == null) {
+            return;
+        }
+        count(report, -1);
+        if (report.resolvedBin != NOT_RESOLVED) {
+            uncountResolution(report);
+        }
+    }
+
+    public void clear() {
+        reports.clear();
+        series = new DaySeries[0][0];
+        tipoIds.clear();
+        estadoIds.clear();
+        tipos.clear();
+        estados.clear();
+        totals.clear();
+        resolutionsByDay.clear();
+    }
+
+    // Reportes creados en un día; tipo o estado null = todos
+    public int count(int day, String tipoReporte, String estado) {
+        if (tipoReporte == null && estado == null) {
+            return totals.get(day);
+        }
+        Integer tipo = tipoReporte != null ? tipoIds.get(tipoReporte) : null;
+        Integer estadoId = estado != null ? estadoIds.get(estado) : null;
+        if ((tipoReporte != null && tipo == null) || (estado != null && estadoId == null)) {
+            return 0;
+        }
+        int total = 0;
+        for (int t = 0; t < series.length; t++) {
+            if (tipo != null && t != tipo) {
+                continue;
+            }
+            for (int e = 0; e < series[t].length; e++) {
+                if (estadoId != null && e != estadoId) {
+                    continue;
+                }
+                DaySeries days = series[t][e];
+                if (days != null) {
+                    total += days.get(day);
+                }
+            }
+        }
+        return total;
+    }
+
+    // Una cubeta por día entre fromMillis y toMillis (ambos incluidos)
+    public int[] countsPerDay(long fromMillis, long toMillis, String tipoReporte, String estado) {
+        int firstDay = dayOf(fromMillis);
+        int lastDay = dayOf(toMillis);
+        int[] counts = new int[Math.max(0, lastDay - firstDay + 1)];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = count(firstDay + i, tipoReporte, estado);
+        }
+        return counts;
+    }
+
+    // Reportes resueltos entre fromMillis y toMillis (por día de resolución, con resueltoEn)
+    public int resolvedCount(long fromMillis, long toMillis) {
+        int total = 0;
+        for (int bin : resolutionHistogram(fromMillis, toMillis)) {
+            total += bin;
+        }
+        return total;
+    }
+
+    // Percentil (0-1) del tiempo de resolución de lo resuelto en el rango, en
+    // milisegundos; -1 si no hubo resoluciones
+    public long resolutionPercentile(long fromMillis, long toMillis, double percentile) {
+        int[] histogram = resolutionHistogram(fromMillis, toMillis);
+        long total = 0;
+        for (int bin : histogram) {
+            total += bin;
+        }
+        if (total == 0) {
+            return -1;
+        }
+        long target = Math.max(1, (long) Math.ceil(percentile * total));
+        long seen = 0;
+        for (int bin = 0; bin < histogram.length; bin++) {
+            seen += histogram[bin];
+            if (seen >= target) {
+                return binMidpoint(bin);
+            }
+        }
+        return binMidpoint(histogram.length - 1);
+    }
+
+    public long medianResolutionMillis(long fromMillis, long toMillis) {
+        return resolutionPercentile(fromMillis, toMillis, 0.5);
+    }
+
+    private int[] resolutionHistogram(long fromMillis, long toMillis) {
+        int[] sum = new int[HISTOGRAM_BINS];
+        for (int day = dayOf(fromMillis), last = dayOf(toMillis); day <= last; day++) {
+            int[] histogram = resolutionsByDay.get(day);
+            if (histogram != null) {
+                for (int bin = 0; bin < HISTOGRAM_BINS; bin++) {
+                    sum[bin] += histogram[bin];
+                }
+            }
+        }
+        return sum;
+    }
+
+    private void count(Report report, int delta) {
+        totals.add(report.day, delta);
+        DaySeries days = series[report.tipo][report.estado];
+        if (days == null) {
+            days = new DaySeries();
+            series[report.tipo][report.estado] = days;
+        }
+        days.add(report.day, delta);
+    }
+
+    private void uncountResolution(Report report) {
+        int[] histogram = resolutionsByDay.get(report.resolvedDay);
+        histogram[report.resolvedBin]--;
+        report.resolvedBin = NOT_RESOLVED;
+    }
+
+    private int[] histogram(int day) {
+        int[] histogram = resolutionsByDay.get(day);
+        if (histogram == null) {
+            histogram = new int[HISTOGRAM_BINS];
+            resolutionsByDay.put(day, histogram);
+        }
+        return histogram;
+    }
+
+    // Asigna un índice compacto a cada tipo o estado y agranda la tabla de series
+    private int idOf(String value, Map<String, Integer> ids, List<String> values) {
+        String key = String.valueOf(value);
+        Integer id = ids.get(key);
+        if (id != null) {
+            return id;
+        }
+        id = values.size();
+        ids.put(key, id);
+        values.add(key);
+        int tipoCount = tipos.size();
+        int estadoCount = estados.size();
+        DaySeries[][] grown = new DaySeries[tipoCount][estadoCount];
+        for (int t = 0; t < series.length; t++) {
+            System.arraycopy(series[t], 0, grown[t], 0, series[t].length);
+        }
+        series = grown;
+        return id;
+    }
+
+    static int bin(long durationMillis) {
+        long minutes = durationMillis / MINUTE_MILLIS;
+        if (minutes < 1) {
+            return 0;
+        }
+        int octave = 63 - Long.numberOfLeadingZeros(minutes);
+        if (octave >= OCTAVES) {
+            return HISTOGRAM_BINS - 1;
+        }
+        // Los dos bits siguientes al más alto eligen la cubeta dentro de la octava
+        int sub = octave >= 2
+                ? (int) (minutes >> (octave - 2)) & (SUB_BUCKETS - 1)
+                : (int) (minutes << (2 - octave)) & (SUB_BUCKETS - 1);
+        return 1 + octave * SUB_BUCKETS + sub;
+    }
+
+    static long binMidpoint(int bin) {
+        if (bin == 0) {
+            return MINUTE_MILLIS / 2;
+        }
+        int octave = (bin - 1) / SUB_BUCKETS;
+        int sub = (bin - 1) % SUB_BUCKETS;
+        double width = (double) (1L << octave) / SUB_BUCKETS;
+        double lower = (1L << octave) + sub * width;
+        return (long) ((lower + width / 2) * MINUTE_MILLIS);
+    }
+
+    private static final class Report {
+        int day;
+        int tipo;
+        int estado;
+        long resueltoEn;
+        int resolvedDay;
+        int resolvedBin = NOT_RESOLVED;
+    }
+
+    // Contadores por día en un arreglo que crece hacia atrás o adelante según llegan fechas
+    private static final class DaySeries {
+        int firstDay;
+        int[] values;
+
+        int get(int day) {
+            if (values == null) {
+                return 0;
+            }
+            int index = day - firstDay;
+            return index >= 0 && index < values.length ? values[index] : 0;
+        }
+
+        void add(int day, int delta) {
+            if (values == null) {
+                firstDay = day;
+                values = new int[32];
+            } else if (day < firstDay || day >= firstDay + values.length) {
+                grow(day);
+            }
+            values[day - firstDay] += delta;
+        }
+
+        void clear() {
+            values = null;
+        }
+
+        private void grow(int day) {
+            int newFirst = Math.min(firstDay, day);
+            int newEnd = Math.max(firstDay + values.length, day + 1);
+            // Duplicar la capacidad: crecer es O(1) amortizado
+            int capacity = Math.max(values.length * 2, newEnd - newFirst);
+            if (day < firstDay) {
+                newFirst = newEnd - capacity;
+            }
+            int[] grown = new int[capacity];
+            System.arraycopy(values, 0, grown, firstDay - newFirst, values.length);
+            values = grown;
+            firstDay = newFirst;
+        }
+    }
+}
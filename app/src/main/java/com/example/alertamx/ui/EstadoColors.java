@@ -0,0 +1,23 @@
+package com.example.alertamx.ui;
+
+import androidx.annotation.ColorRes;
+
+import com.example.alertamx.R;
+
+// Color de cada estado de un reporte, el mismo en el feed, el mapa y los avisos
+public final class EstadoColors {
+
+    private EstadoColors() {
+    }
+
+    @ColorRes
+    public static int of(String estado) {
+        if ("Resuelto".equals(estado)) {
+            return R.color.green;
+        }
+        if ("En proceso".equals(estado)) {
+            return R.color.blue;
+        }
+        return R.color.orange;
+    }
+}
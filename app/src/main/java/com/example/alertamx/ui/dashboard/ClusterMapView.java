@@ -0,0 +1,184 @@
+package com.example.alertamx.ui.dashboard;
+
+import android.content.Context;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.util.AttributeSet;
+import android.view.GestureDetector;
+import android.view.MotionEvent;
+import android.view.ScaleGestureDetector;
+import android.view.View;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.core.content.ContextCompat;
+
+import com.example.alertamx.geo.ClusterIndex;
+import com.example.alertamx.ui.EstadoColors;
+
+import java.util.List;
+
+// Vista de mapa mínima en proyección Web Mercator: dibuja los grupos que le da
+// la fuente para la ventana visible y permite desplazar y hacer zoom con gestos.
+// No dibuja mapa base; cuando se integre un SDK de mapas los grupos se pasan
+// como marcadores con la misma consulta por ventana.
+public class ClusterMapView extends View {
+
+    public interface ClusterSource {
+        List<ClusterIndex.Cluster> query(int zoom, double minLat, double minLng, double maxLat, double maxLng);
+    }
+
+    public interface OnMapTapListener {
+        void onMapTap(double latitude, double longitude);
+    }
+
+    private static final int TILE_DP = 256;
+
+    private ClusterSource source;
+    private OnMapTapListener tapListener;
+    // Centro en coordenadas Mercator normalizadas [0, 1]
+    private double centerX;
+    private double centerY;
+    private int zoom = 12;
+    private float pendingScale = 1f;
+
+    private final float density;
+    private final Paint circlePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint textPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final GestureDetector gestureDetector;
+    private final ScaleGestureDetector scaleDetector;
+
+    public ClusterMapView(Context context, @Nullable AttributeSet attrs) {
+        super(context, attrs);
+        density = getResources().getDisplayMetrics().density;
+        textPaint.setColor(Color.WHITE);
+        textPaint.setTextAlign(Paint.Align.CENTER);
+        textPaint.setTextSize(12 * density);
+        textPaint.setFakeBoldText(true);
+
+        gestureDetector = new GestureDetector(context, new GestureDetector.SimpleOnGestureListener() {
+            @Override
+            public boolean onDown(@NonNull MotionEvent e) {
+                return true;
+            }
+
+            @Override
+            public boolean onScroll(MotionEvent e1, @NonNull MotionEvent e2, float dx, float dy) {
+                double worldSize = worldSizePx();
+                centerX = clamp(centerX + dx / worldSize);
+                centerY = clamp(centerY + dy / worldSize);
+                invalidate();
+                return true;
+            }
+
+            @Override
+            public boolean onSingleTapConfirmed(@NonNull MotionEvent e) {
+                if (tapListener != null) {
+                    double worldSize = worldSizePx();
+                    tapListener.onMapTap(latitude(centerY + (e.getY() - getHeight() / 2.0) / worldSize),
+                            longitude(centerX + (e.getX() - getWidth() / 2.0) / worldSize));
+                }
+                return true;
+            }
+
+            @Override
+            public boolean onDoubleTap(@NonNull MotionEvent e) {
+                setZoom(zoom + 1);
+                return true;
+            }
+        });
+        scaleDetector = new ScaleGestureDetector(context, new ScaleGestureDetector.SimpleOnScaleGestureListener() {
+            @Override
+            public boolean onScale(@NonNull ScaleGestureDetector detector) {
+                // El zoom de los grupos es entero: cambia al duplicar o reducir a la mitad
+                pendingScale *= detector.getScaleFactor();
+                if (pendingScale >= 2f) {
+                    pendingScale = 1f;
+                    setZoom(zoom + 1);
+                } else if (pendingScale <= 0.5f) {
+                    pendingScale = 1f;
+                    setZoom(zoom - 1);
+                }
+                return true;
+            }
+        });
+    }
+
+    public void setSource(ClusterSource source) {
+        this.source = source;
+        invalidate();
+    }
+
+    public void setOnMapTapListener(OnMapTapListener listener) {
+        this.tapListener = listener;
+    }
+
+    public void setCenter(double latitude, double longitude) {
+        centerX = ClusterIndex.mercatorX(longitude);
+        centerY = ClusterIndex.mercatorY(latitude);
+        invalidate();
+    }
+
+    public void setZoom(int zoom) {
+        this.zoom = Math.max(ClusterIndex.MIN_ZOOM, Math.min(ClusterIndex.MAX_ZOOM, zoom));
+        invalidate();
+    }
+
+    public int getZoom() {
+        return zoom;
+    }
+
+    @Override
+    public boolean onTouchEvent(MotionEvent event) {
+        scaleDetector.onTouchEvent(event);
+        if (!scaleDetector.isInProgress()) {
+            gestureDetector.onTouchEvent(event);
+        }
+        return true;
+    }
+
+    @Override
+    protected void onDraw(@NonNull Canvas canvas) {
+        super.onDraw(canvas);
+        if (source == null || getWidth() == 0) {
+            return;
+        }
+        double worldSize = worldSizePx();
+        double halfWidth = getWidth() / 2.0 / worldSize;
+        double halfHeight = getHeight() / 2.0 / worldSize;
+        double minLng = longitude(centerX - halfWidth);
+        double maxLng = longitude(centerX + halfWidth);
+        double maxLat = latitude(centerY - halfHeight);
+        double minLat = latitude(centerY + halfHeight);
+
+        for (ClusterIndex.Cluster cluster : source.query(zoom, minLat, minLng, maxLat, maxLng)) {
+            float x = (float) ((ClusterIndex.mercatorX(cluster.getLongitude()) - centerX) * worldSize + getWidth() / 2.0);
+            float y = (float) ((ClusterIndex.mercatorY(cluster.getLatitude()) - centerY) * worldSize + getHeight() / 2.0);
+            int count = cluster.getCount();
+            // El radio crece con el logaritmo para que los grupos grandes no tapen el mapa
+            float radius = (float) ((8 + 4 * (Math.log(count) / Math.log(2))) * density);
+            circlePaint.setColor(ContextCompat.getColor(getContext(), EstadoColors.of(cluster.getDominantEstado())));
+            canvas.drawCircle(x, y, radius, circlePaint);
+            if (count > 1) {
+                canvas.drawText(String.valueOf(count), x, y - (textPaint.ascent() + textPaint.descent()) / 2, textPaint);
+            }
+        }
+    }
+
+    private double worldSizePx() {
+        return TILE_DP * density * Math.pow(2, zoom);
+    }
+
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    private static double longitude(double x) {
+        return Math.max(-180, Math.min(180, clamp(x) * 360 - 180));
+    }
+
+    private static double latitude(double y) {
+        return Math.toDegrees(Math.atan(Math.sinh(Math.PI * (1 - 2 * clamp(y)))));
+    }
+}
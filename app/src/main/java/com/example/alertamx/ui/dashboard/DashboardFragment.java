@@ -4,16 +4,22 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
 
 import com.example.alertamx.databinding.FragmentDashboardBinding;
+import com.example.alertamx.report.CachedReport;
 
 public class DashboardFragment extends Fragment {
 
+    // Centro inicial: Ciudad de México
+    private static final double DEFAULT_LAT = 19.4326;
+    private static final double DEFAULT_LNG = -99.1332;
+    private static final int DEFAULT_ZOOM = 11;
+
     private FragmentDashboardBinding binding;
 
     public View onCreateView(@NonNull LayoutInflater inflater,
@@ -24,8 +30,24 @@ public class DashboardFragment extends Fragment {
         binding = FragmentDashboardBinding.inflate(inflater, container, false);
         View root = binding.getRoot();
 
-        final TextView textView = binding.textDashboard;
-        dashboardViewModel.getText().observe(getViewLifecycleOwner(), textView::setText);
+        ClusterMapView map = binding.clusterMap;
+        map.setCenter(DEFAULT_LAT, DEFAULT_LNG);
+        map.setZoom(DEFAULT_ZOOM);
+        map.setSource(dashboardViewModel);
+        map.setOnMapTapListener((latitude, longitude) -> {
+            CachedReport report = dashboardViewModel.nearest(latitude, longitude);
+            if (report != null) {
+                Toast.makeText(requireContext(), "Más cercano: " + report.getTipoReporte()
+                        + " (" + report.getEstado() + ")", Toast.LENGTH_SHORT).show();
+            }
+        });
+
+        dashboardViewModel.getReportCount().observe(getViewLifecycleOwner(), count -> {
+            binding.textDashboard.setText(count == 1 ? "1 reporte en el mapa" : count + " reportes en el mapa");
+            map.invalidate();
+        });
+        dashboardViewModel.getResolutionSummary().observe(getViewLifecycleOwner(),
+                binding.textStats::setText);
         return root;
     }
 
@@ -34,4 +56,4 @@ public class DashboardFragment extends Fragment {
         super.onDestroyView();
         binding = null;
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,87 @@
 package com.example.alertamx.ui.dashboard;
 
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
-import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.MediatorLiveData;
+
+import com.example.alertamx.geo.ClusterIndex;
+import com.example.alertamx.report.CachedReport;
+import com.example.alertamx.report.ReportSpatialIndex;
+import com.example.alertamx.report.ReportStatsIndex;
+import com.example.alertamx.report.ReportSync;
+import com.example.alertamx.stats.ReportStats;
+
+import java.util.List;
+
+// Grupos del mapa y resumen de resoluciones sobre los reportes guardados. Usa
+// los índices compartidos: volver a abrir la pestaña no relee ReportStore.
+public class DashboardViewModel extends AndroidViewModel implements ClusterMapView.ClusterSource {
+
+    private static final int SUMMARY_DAYS = 30;
+
+    private final ReportSpatialIndex index;
+    private final ReportStatsIndex stats;
+    private final ReportSync sync;
+    private final MediatorLiveData<String> resolutionSummary = new MediatorLiveData<>();
+
+    public DashboardViewModel(@NonNull Application application) {
+        super(application);
+        index = ReportSpatialIndex.getInstance(application);
+        stats = ReportStatsIndex.getInstance(application);
+        resolutionSummary.addSource(stats.getChanges(),
+                changes -> resolutionSummary.setValue(summarizeResolutions()));
+        // Mismo listener que Home: con las dos pestañas abiertas se paga una sola vez
+        sync = ReportSync.getInstance(application);
+        sync.startListening();
+    }
 
-public class DashboardViewModel extends ViewModel {
+    // Número de reportes en el mapa; cambia con cada actualización y sirve para redibujar
+    public LiveData<Integer> getReportCount() {
+        return index.getCount();
+    }
+
+    // Resueltos en los últimos 30 días y la mediana de cuánto tardaron
+    public LiveData<String> getResolutionSummary() {
+        return resolutionSummary;
+    }
+
+    @Override
+    public List<ClusterIndex.Cluster> query(int zoom, double minLat, double minLng,
+                                            double maxLat, double maxLng) {
+        return index.clusters(zoom, minLat, minLng, maxLat, maxLng);
+    }
+
+    // Reporte más cercano a un punto; null si ninguno tiene ubicación
+    public CachedReport nearest(double latitude, double longitude) {
+        List<CachedReport> nearest = index.nearest(latitude, longitude, 1);
+        return nearest.isEmpty() ? null : nearest.get(0);
+    }
 
-    private final MutableLiveData<String> mText;
+    @Override
+    protected void onCleared() {
+        sync.stopListening();
+    }
 
-    public DashboardViewModel() {
-        mText = new MutableLiveData<>();
-        mText.setValue("This is dashboard fragment");
+    private String summarizeResolutions() {
+        long now = System.currentTimeMillis();
+        long from = now - (SUMMARY_DAYS - 1) * ReportStats.DAY_MILLIS;
+        int resolved = stats.resolvedCount(from, now);
+        if (resolved == 0) {
+            return "Sin reportes resueltos en los últimos " + SUMMARY_DAYS + " días";
+        }
+        return (resolved == 1 ? "1 resuelto" : resolved + " resueltos") + " en " + SUMMARY_DAYS
+                + " días, mediana " + formatDuration(stats.medianResolutionMillis(from, now));
     }
 
-    public LiveData<String> getText() {
-        return mText;
+    private static String formatDuration(long millis) {
+        long minutes = millis / 60_000;
+        if (minutes < 60) {
+            return minutes + " min";
+        }
+        long hours = minutes / 60;
+        return hours < 48 ? hours + " h" : hours / 24 + " días";
     }
-}
\ No newline at end of file
+}
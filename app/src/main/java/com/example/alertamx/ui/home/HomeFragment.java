@@ -4,11 +4,13 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.TextView;
+import android.widget.Toast;
 
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
+import androidx.recyclerview.widget.RecyclerView;
 
 import com.example.alertamx.databinding.FragmentHomeBinding;
 
@@ -24,8 +26,42 @@ public class HomeFragment extends Fragment {
         binding = FragmentHomeBinding.inflate(inflater, container, false);
         View root = binding.getRoot();
 
-        final TextView textView = binding.textHome;
-        homeViewModel.getText().observe(getViewLifecycleOwner(), textView::setText);
+        ReportAdapter adapter = new ReportAdapter();
+        LinearLayoutManager layoutManager = new LinearLayoutManager(requireContext());
+        RecyclerView recyclerView = binding.reportList;
+        recyclerView.setLayoutManager(layoutManager);
+        recyclerView.setHasFixedSize(true);
+        recyclerView.setAdapter(adapter);
+
+        // Pedir la siguiente página cuando queda media página por ver,
+        // para que llegue antes de que el usuario alcance el final
+        int prefetchDistance = homeViewModel.getPageSize() / 2;
+        recyclerView.addOnScrollListener(new RecyclerView.OnScrollListener() {
+            @Override
+            public void onScrolled(@NonNull RecyclerView recyclerView, int dx, int dy) {
+                if (dy <= 0) {
+                    return;
+                }
+                int lastVisible = layoutManager.findLastVisibleItemPosition();
+                if (lastVisible >= adapter.getItemCount() - 1 - prefetchDistance) {
+                    homeViewModel.loadNextPage();
+                }
+            }
+        });
+
+        binding.swipeRefresh.setOnRefreshListener(homeViewModel::refresh);
+
+        homeViewModel.getReports().observe(getViewLifecycleOwner(), reports -> {
+            adapter.submitList(reports);
+            binding.textHome.setVisibility(reports.isEmpty() ? View.VISIBLE : View.GONE);
+        });
+        homeViewModel.getLoading().observe(getViewLifecycleOwner(), loading -> {
+            if (!loading) {
+                binding.swipeRefresh.setRefreshing(false);
+            }
+        });
+        homeViewModel.getError().observe(getViewLifecycleOwner(), error ->
+                Toast.makeText(requireContext(), error, Toast.LENGTH_SHORT).show());
         return root;
     }
 
@@ -34,4 +70,4 @@ public class HomeFragment extends Fragment {
         super.onDestroyView();
         binding = null;
     }
-}
\ No newline at end of file
+}
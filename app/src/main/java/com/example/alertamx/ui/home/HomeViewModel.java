@@ -1,19 +1,191 @@
 package com.example.alertamx.ui.home;
 
+import android.app.Application;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
-public class HomeViewModel extends ViewModel {
+import com.example.alertamx.report.CachedReport;
+import com.example.alertamx.report.ReportStore;
+import com.example.alertamx.report.ReportSync;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.FirebaseFirestore;
+
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// El feed se lee siempre del almacén local: abre al instante y sin red. La red
+// solo se usa para los cambios posteriores a la última sincronización y para
+// páginas más antiguas que todavía no están guardadas.
+public class HomeViewModel extends AndroidViewModel {
+
+    public static final int PAGE_SIZE = 20;
+
+    private final MutableLiveData<List<ReportItem>> reports = new MutableLiveData<>(Collections.emptyList());
+    private final MutableLiveData<Boolean> loading = new MutableLiveData<>(false);
+    private final MutableLiveData<String> error = new MutableLiveData<>();
+
+    private final ReportStore store;
+    private final ReportSync sync;
+    private final ReportPager pager;
+    // Lecturas de SQLite en orden y fuera del hilo principal
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final SimpleDateFormat dateFormat = ReportItem.newDateFormat();
+    // Cualquier escritura en el almacén (sync, listener o página nueva) llega con las
+    // filas que cambiaron: se parchan en lo visible sin volver a leer la tabla
+    private final ReportStore.ChangeListener storeListener = this::onReportsChanged;
+    private boolean cleared;
+
+    // Solo se accede desde executor
+    private List<ReportItem> items = new ArrayList<>();
+
+    public HomeViewModel(@NonNull Application application) {
+        super(application);
+        store = ReportStore.getInstance(application);
+        sync = ReportSync.getInstance(application);
+        pager = new ReportPager(FirebaseFirestore.getInstance().collection("reportes"), PAGE_SIZE, sync);
 
-    private final MutableLiveData<String> mText;
+        store.addChangeListener(storeListener);
+        sync.startListening();
+        loadNextPage();
+    }
+
+    public LiveData<List<ReportItem>> getReports() {
+        return reports;
+    }
+
+    public LiveData<Boolean> getLoading() {
+        return loading;
+    }
+
+    public LiveData<String> getError() {
+        return error;
+    }
+
+    public int getPageSize() {
+        return pager.getPageSize();
+    }
+
+    public void loadNextPage() {
+        if (Boolean.TRUE.equals(loading.getValue())) {
+            return;
+        }
+        loading.setValue(true);
+        executor.execute(() -> {
+            ReportItem last = items.isEmpty() ? null : items.get(items.size() - 1);
+            long oldest = last != null ? last.getFecha() : 0;
+            String oldestId = last != null ? last.getId() : null;
+            List<CachedReport> page = store.page(oldest, oldestId, PAGE_SIZE);
+            if (page.size() < PAGE_SIZE && !pager.isEndReached()) {
+                // El almacén no llega tan atrás: pedir a la red lo anterior al último guardado
+                CachedReport stored = page.isEmpty() ? null : page.get(page.size() - 1);
+                try {
+                    if (stored != null) {
+                        Tasks.await(pager.loadBefore(stored.getFecha(), stored.getId()));
+                    } else {
+                        Tasks.await(pager.loadBefore(oldest, oldestId));
+                    }
+                    page = store.page(oldest, oldestId, PAGE_SIZE);
+                } catch (ExecutionException | InterruptedException e) {
+                    error.postValue("Sin conexión: mostrando reportes guardados");
+                }
+            }
+            List<ReportItem> updated = new ArrayList<>(items.size() + page.size());
+            updated.addAll(items);
+            for (CachedReport report : page) {
+                updated.add(ReportItem.from(report, dateFormat));
+            }
+            publish(updated);
+            loading.postValue(false);
+        });
+    }
+
+    // Trae solo los cambios desde la última sincronización; el almacén avisa y se recarga lo visible
+    public void refresh() {
+        loading.setValue(true);
+        sync.syncChanges().addOnCompleteListener(task -> {
+            loading.setValue(false);
+            if (!task.isSuccessful()) {
+                error.setValue("Sin conexión: mostrando reportes guardados");
+            }
+        });
+    }
+
+    // Llega en el hilo que escribió en el almacén
+    private synchronized void onReportsChanged(List<CachedReport> upserted, Collection<String> deletedIds) {
+        if (!cleared) {
+            executor.execute(() -> patch(upserted, deletedIds));
+        }
+    }
+
+    // Reemplaza o quita las filas que cambiaron y mete en su lugar las nuevas que caen
+    // dentro de lo cargado; las más viejas llegarán con su página. DiffUtil repinta solo esas
+    private void patch(List<CachedReport> upserted, Collection<String> deletedIds) {
+        Set<String> deleted = new HashSet<>(deletedIds);
+        Map<String, CachedReport> pending = new HashMap<>();
+        for (CachedReport report : upserted) {
+            pending.put(report.getId(), report);
+        }
+        List<ReportItem> updated = new ArrayList<>(items.size() + upserted.size());
+        for (ReportItem item : items) {
+            CachedReport report = pending.remove(item.getId());
+            if (report != null) {
+                updated.add(ReportItem.from(report, dateFormat));
+            } else if (!deleted.contains(item.getId())) {
+                updated.add(item);
+            }
+        }
+        // Lo visible es un tramo continuo desde el más reciente: más atrás solo entra si ya
+        // no hay más páginas, si no dejaría un hueco que la siguiente página no llena
+        ReportItem last = items.isEmpty() ? null : items.get(items.size() - 1);
+        for (CachedReport report : pending.values()) {
+            if (last == null || pager.isEndReached()
+                    || isBefore(report.getFecha(), report.getId(), last)) {
+                insertSorted(updated, ReportItem.from(report, dateFormat));
+            }
+        }
+        publish(updated);
+    }
+
+    // Mismo orden que ReportStore.page: fecha y luego id, de mayor a menor
+    private static boolean isBefore(long fecha, String id, ReportItem item) {
+        return fecha > item.getFecha() || (fecha == item.getFecha() && id.compareTo(item.getId()) > 0);
+    }
+
+    private static void insertSorted(List<ReportItem> list, ReportItem item) {
+        int index = 0;
+        while (index < list.size() && !isBefore(item.getFecha(), item.getId(), list.get(index))) {
+            index++;
+        }
+        list.add(index, item);
+    }
 
-    public HomeViewModel() {
-        mText = new MutableLiveData<>();
-        mText.setValue("This is home fragment");
+    // Lista nueva en cada cambio: ListAdapter ignora la misma instancia
+    private void publish(List<ReportItem> updated) {
+        items = updated;
+        reports.postValue(Collections.unmodifiableList(updated));
     }
 
-    public LiveData<String> getText() {
-        return mText;
+    @Override
+    protected void onCleared() {
+        store.removeChangeListener(storeListener);
+        synchronized (this) {
+            cleared = true;
+        }
+        sync.stopListening();
+        // Lo ya encolado termina; el hilo no sobrevive al ViewModel
+        executor.shutdown();
     }
-}
\ No newline at end of file
+}
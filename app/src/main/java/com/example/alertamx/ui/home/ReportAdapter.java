@@ -0,0 +1,116 @@
+package com.example.alertamx.ui.home;
+
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.alertamx.databinding.ItemReportBinding;
+import com.example.alertamx.ui.EstadoColors;
+
+import java.util.List;
+import java.util.Objects;
+
+// Adaptador del feed. El diff se calcula en segundo plano (ListAdapter) y
+// cuando solo cambia el estado o los adjuntos de un reporte se repinta esa
+// parte de la fila en lugar de volver a enlazarla completa.
+public class ReportAdapter extends ListAdapter<ReportItem, ReportAdapter.ViewHolder> {
+
+    static final int PAYLOAD_ESTADO = 1;
+    static final int PAYLOAD_ATTACHMENTS = 1 << 1;
+    static final int PAYLOAD_TEXT = 1 << 2;
+
+    public ReportAdapter() {
+        super(DIFF_CALLBACK);
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemReportBinding binding = ItemReportBinding.inflate(
+                LayoutInflater.from(parent.getContext()), parent, false);
+        return new ViewHolder(binding);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        holder.bind(getItem(position), PAYLOAD_ESTADO | PAYLOAD_ATTACHMENTS | PAYLOAD_TEXT);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position, @NonNull List<Object> payloads) {
+        if (payloads.isEmpty()) {
+            onBindViewHolder(holder, position);
+            return;
+        }
+        int changes = 0;
+        for (Object payload : payloads) {
+            changes |= (Integer) payload;
+        }
+        holder.bind(getItem(position), changes);
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+
+        private final ItemReportBinding binding;
+
+        ViewHolder(ItemReportBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+
+        void bind(ReportItem item, int changes) {
+            if ((changes & PAYLOAD_TEXT) != 0) {
+                binding.reportTipo.setText(item.getTipoReporte());
+                binding.reportDescripcion.setText(item.getDescripcion());
+                binding.reportUbicacion.setText(item.getUbicacion());
+                binding.reportFecha.setText(item.getFechaTexto());
+            }
+            if ((changes & PAYLOAD_ESTADO) != 0) {
+                binding.reportEstado.setText(item.getEstado());
+                binding.reportEstado.setTextColor(ContextCompat.getColor(
+                        itemView.getContext(), EstadoColors.of(item.getEstado())));
+            }
+            if ((changes & PAYLOAD_ATTACHMENTS) != 0) {
+                int count = item.getAttachmentCount();
+                binding.reportFotos.setVisibility(count > 0 ? View.VISIBLE : View.GONE);
+                binding.reportFotos.setText(count == 1 ? "1 foto" : count + " fotos");
+            }
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<ReportItem> DIFF_CALLBACK = new DiffUtil.ItemCallback<ReportItem>() {
+        @Override
+        public boolean areItemsTheSame(@NonNull ReportItem oldItem, @NonNull ReportItem newItem) {
+            return oldItem.getId().equals(newItem.getId());
+        }
+
+        @Override
+        public boolean areContentsTheSame(@NonNull ReportItem oldItem, @NonNull ReportItem newItem) {
+            return oldItem.equals(newItem);
+        }
+
+        @Override
+        public Object getChangePayload(@NonNull ReportItem oldItem, @NonNull ReportItem newItem) {
+            int changes = 0;
+            if (!Objects.equals(oldItem.getEstado(), newItem.getEstado())) {
+                changes |= PAYLOAD_ESTADO;
+            }
+            if (oldItem.getAttachmentCount() != newItem.getAttachmentCount()) {
+                changes |= PAYLOAD_ATTACHMENTS;
+            }
+            if (!Objects.equals(oldItem.getTipoReporte(), newItem.getTipoReporte())
+                    || !Objects.equals(oldItem.getDescripcion(), newItem.getDescripcion())
+                    || !Objects.equals(oldItem.getUbicacion(), newItem.getUbicacion())
+                    || !Objects.equals(oldItem.getFechaTexto(), newItem.getFechaTexto())) {
+                changes |= PAYLOAD_TEXT;
+            }
+            return changes;
+        }
+    };
+}
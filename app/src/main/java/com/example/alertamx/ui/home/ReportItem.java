@@ -0,0 +1,94 @@
+package com.example.alertamx.ui.home;
+
+import com.example.alertamx.report.CachedReport;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Objects;
+
+// Fila del feed: solo los campos que se muestran, ya formateados, para que
+// bind() no asigne memoria ni formatee fechas mientras se hace scroll.
+public final class ReportItem {
+
+    // La fila muestra dos líneas: no retener descripciones largas en memoria
+    static final int MAX_DESCRIPCION = 160;
+
+    private final String id;
+    private final String tipoReporte;
+    private final String descripcion;
+    private final String ubicacion;
+    private final String estado;
+    private final String userName;
+    private final long fecha;
+    private final String fechaTexto;
+    private final int attachmentCount;
+
+    public ReportItem(String id, String tipoReporte, String descripcion, String ubicacion,
+                      String estado, String userName, long fecha, String fechaTexto,
+                      int attachmentCount) {
+        this.id = id;
+        this.tipoReporte = tipoReporte;
+        this.descripcion = descripcion;
+        this.ubicacion = ubicacion;
+        this.estado = estado;
+        this.userName = userName;
+        this.fecha = fecha;
+        this.fechaTexto = fechaTexto;
+        this.attachmentCount = attachmentCount;
+    }
+
+    // SimpleDateFormat no es thread-safe: el llamador pasa el suyo
+    public static ReportItem from(CachedReport report, SimpleDateFormat dateFormat) {
+        long fecha = report.getFecha();
+        return new ReportItem(
+                report.getId(),
+                report.getTipoReporte(),
+                truncate(report.getDescripcion()),
+                report.getUbicacion(),
+                report.getEstado(),
+                report.getUserName(),
+                fecha,
+                fecha > 0 ? dateFormat.format(new Date(fecha)) : "",
+                report.getAttachmentCount()
+        );
+    }
+
+    private static String truncate(String text) {
+        return text != null && text.length() > MAX_DESCRIPCION ? text.substring(0, MAX_DESCRIPCION) : text;
+    }
+
+    public static SimpleDateFormat newDateFormat() {
+        return new SimpleDateFormat("dd/MM/yyyy HH:mm", Locale.getDefault());
+    }
+
+    public String getId() { return id; }
+    public String getTipoReporte() { return tipoReporte; }
+    public String getDescripcion() { return descripcion; }
+    public String getUbicacion() { return ubicacion; }
+    public String getEstado() { return estado; }
+    public String getUserName() { return userName; }
+    public long getFecha() { return fecha; }
+    public String getFechaTexto() { return fechaTexto; }
+    public int getAttachmentCount() { return attachmentCount; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ReportItem)) return false;
+        ReportItem other = (ReportItem) o;
+        return fecha == other.fecha
+                && attachmentCount == other.attachmentCount
+                && Objects.equals(id, other.id)
+                && Objects.equals(tipoReporte, other.tipoReporte)
+                && Objects.equals(descripcion, other.descripcion)
+                && Objects.equals(ubicacion, other.ubicacion)
+                && Objects.equals(estado, other.estado)
+                && Objects.equals(userName, other.userName);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, tipoReporte, descripcion, ubicacion, estado, userName, fecha,
+                attachmentCount);
+    }
+}
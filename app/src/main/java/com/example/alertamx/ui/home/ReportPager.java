@@ -0,0 +1,67 @@
+package com.example.alertamx.ui.home;
+
+import com.example.alertamx.report.CachedReport;
+import com.example.alertamx.report.ReportSync;
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.Tasks;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FieldPath;
+import com.google.firebase.firestore.Query;
+import com.google.firebase.firestore.QuerySnapshot;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+// Paginación por cursor sobre "reportes", del más reciente al más antiguo.
+// El cursor es la fecha y el id del último reporte ya guardado (startAfter),
+// no un offset: cada página cuesta lo mismo sin importar cuánto se haya
+// avanzado, y el id evita saltarse reportes con la misma fecha.
+// Lo descargado se guarda en ReportStore y no se vuelve a pedir.
+public class ReportPager {
+
+    private final Query baseQuery;
+    private final int pageSize;
+    private final ReportSync sync;
+
+    private volatile boolean endReached;
+
+    public ReportPager(Query baseQuery, int pageSize, ReportSync sync) {
+        this.baseQuery = baseQuery.orderBy("fecha", Query.Direction.DESCENDING)
+                .orderBy(FieldPath.documentId(), Query.Direction.DESCENDING);
+        this.pageSize = pageSize;
+        this.sync = sync;
+    }
+
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public boolean isEndReached() {
+        return endReached;
+    }
+
+    // Página de reportes anteriores a (beforeFecha, beforeId); beforeId null = desde el más reciente
+    public Task<List<CachedReport>> loadBefore(long beforeFecha, String beforeId) {
+        if (endReached) {
+            return Tasks.forResult(new ArrayList<>());
+        }
+        Query query = baseQuery.limit(pageSize);
+        if (beforeId != null) {
+            query = query.startAfter(new Date(beforeFecha), beforeId);
+        }
+        return query.get().continueWithTask(task -> {
+            QuerySnapshot snapshot = task.getResult();
+            List<DocumentSnapshot> documents = snapshot.getDocuments();
+            if (isLastPage(documents.size(), pageSize, snapshot.getMetadata().isFromCache())) {
+                endReached = true;
+            }
+            return sync.cache(documents);
+        });
+    }
+
+    // Sin red Firestore responde con lo que tenga en caché: una página corta de ahí
+    // no prueba que no haya más, y al volver la red hay que seguir paginando
+    static boolean isLastPage(int size, int pageSize, boolean fromCache) {
+        return size < pageSize && !fromCache;
+    }
+}
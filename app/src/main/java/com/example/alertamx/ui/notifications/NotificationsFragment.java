@@ -4,34 +4,48 @@ import android.os.Bundle;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.fragment.app.Fragment;
 import androidx.lifecycle.ViewModelProvider;
+import androidx.recyclerview.widget.LinearLayoutManager;
 
 import com.example.alertamx.databinding.FragmentNotificationsBinding;
 
 public class NotificationsFragment extends Fragment {
 
     private FragmentNotificationsBinding binding;
+    private NotificationsViewModel notificationsViewModel;
 
     public View onCreateView(@NonNull LayoutInflater inflater,
                              ViewGroup container, Bundle savedInstanceState) {
-        NotificationsViewModel notificationsViewModel =
-                new ViewModelProvider(this).get(NotificationsViewModel.class);
+        notificationsViewModel = new ViewModelProvider(this).get(NotificationsViewModel.class);
 
         binding = FragmentNotificationsBinding.inflate(inflater, container, false);
         View root = binding.getRoot();
 
-        final TextView textView = binding.textNotifications;
-        notificationsViewModel.getText().observe(getViewLifecycleOwner(), textView::setText);
+        StatusChangeAdapter adapter = new StatusChangeAdapter();
+        binding.changeList.setLayoutManager(new LinearLayoutManager(requireContext()));
+        binding.changeList.setAdapter(adapter);
+
+        notificationsViewModel.getChanges().observe(getViewLifecycleOwner(), changes -> {
+            adapter.submitList(changes);
+            binding.textNotifications.setVisibility(changes.isEmpty() ? View.VISIBLE : View.GONE);
+        });
+        notificationsViewModel.getMessage().observe(getViewLifecycleOwner(),
+                binding.textNotifications::setText);
         return root;
     }
 
+    @Override
+    public void onStop() {
+        super.onStop();
+        notificationsViewModel.markAllRead();
+    }
+
     @Override
     public void onDestroyView() {
         super.onDestroyView();
         binding = null;
     }
-}
\ No newline at end of file
+}
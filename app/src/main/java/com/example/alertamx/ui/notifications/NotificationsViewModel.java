@@ -1,19 +1,155 @@
 package com.example.alertamx.ui.notifications;
 
+import android.app.Application;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.SystemClock;
+
+import androidx.annotation.NonNull;
+import androidx.lifecycle.AndroidViewModel;
 import androidx.lifecycle.LiveData;
+import androidx.lifecycle.MediatorLiveData;
 import androidx.lifecycle.MutableLiveData;
-import androidx.lifecycle.ViewModel;
 
-public class NotificationsViewModel extends ViewModel {
+import com.example.alertamx.AuthSession;
+import com.example.alertamx.report.CachedReport;
+import com.example.alertamx.report.ChangeCoalescer;
+import com.example.alertamx.report.SnapshotListenerRegistry;
+import com.example.alertamx.report.StatusChangeLog;
+import com.google.firebase.firestore.DocumentSnapshot;
+import com.google.firebase.firestore.FirebaseFirestore;
+import com.google.firebase.firestore.Query;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+// Avisos de cambio de estado en los reportes del usuario. Un solo listener
+// (compartido por SnapshotListenerRegistry) sobre sus reportes alimenta un
+// ChangeCoalescer: una ráfaga de cambios de moderación llega a la lista como
+// una sola actualización. El historial y lo no leído se guardan en el
+// dispositivo, así la pestaña abre con lo último sin consultar Firestore.
+public class NotificationsViewModel extends AndroidViewModel {
+
+    private static final String PREFS_NAME = "status_changes";
+    static final long DEBOUNCE_MILLIS = 500;
+    static final long MAX_WAIT_MILLIS = 2_000;
+
+    private final MediatorLiveData<List<StatusChangeLog.Change>> changes = new MediatorLiveData<>();
+    private final MutableLiveData<String> message = new MutableLiveData<>();
+
+    private final SharedPreferences prefs;
+    // Lecturas y escrituras del historial en orden y fuera del hilo principal
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private ChangeCoalescer<String, CachedReport> coalescer;
+    private String prefsKey;
+    // Solo se accede desde el hilo principal
+    private boolean cleared;
+
+    // Solo se accede desde executor
+    private StatusChangeLog log = new StatusChangeLog();
+
+    public NotificationsViewModel(@NonNull Application application) {
+        super(application);
+        prefs = application.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+        changes.setValue(Collections.emptyList());
+
+        AuthSession.Snapshot user = AuthSession.getInstance().current();
+        if (!user.isSignedIn()) {
+            message.setValue("Inicia sesión para ver los avisos de tus reportes");
+            return;
+        }
+        prefsKey = "log_" + user.getUid();
+        SnapshotListenerRegistry registry = SnapshotListenerRegistry.getInstance();
+        coalescer = new ChangeCoalescer<>(registry.mainThreadScheduler(), SystemClock::uptimeMillis,
+                DEBOUNCE_MILLIS, MAX_WAIT_MILLIS, batch -> executor.execute(() -> apply(batch)));
+
+        // Primero el historial guardado: su marca dice desde dónde escuchar
+        executor.execute(() -> {
+            log = StatusChangeLog.parse(prefs.getString(prefsKey, null));
+            publish();
+            long mark = log.getHighWaterMark();
+            registry.mainThreadScheduler().schedule(() -> listen(registry, user.getUid(), mark), 0);
+        });
+    }
+
+    // El listener vive mientras la pestaña está visible (más el periodo de gracia).
+    // Con marca solo pide los reportes modificados desde ella (incluida: los de la
+    // misma hora se vuelven a aplicar sin efecto); sin marca los lee todos una vez
+    // para conocer su estado. LiveData entrega solo el último snapshot, así que se
+    // revisan todos sus documentos y no solo los deltas
+    private void listen(SnapshotListenerRegistry registry, String uid, long mark) {
+        if (cleared) {
+            return;
+        }
+        Query query = FirebaseFirestore.getInstance().collection("reportes")
+                .whereEqualTo("userId", uid);
+        if (mark > 0) {
+            query = query.whereGreaterThanOrEqualTo("updatedAt", new Date(mark)).orderBy("updatedAt");
+        }
+        changes.addSource(registry.observe(query), snapshot -> {
+            for (DocumentSnapshot document : snapshot.getDocuments()) {
+                // Escrituras locales sin confirmar llevan hora estimada: no deben mover la marca
+                if (!document.getMetadata().hasPendingWrites()) {
+                    coalescer.offer(document.getId(), CachedReport.fromSnapshot(document));
+                }
+            }
+        });
+    }
+
+    public LiveData<List<StatusChangeLog.Change>> getChanges() {
+        return changes;
+    }
+
+    public LiveData<String> getMessage() {
+        return message;
+    }
 
-    private final MutableLiveData<String> mText;
+    // Al salir de la pestaña lo mostrado queda como leído
+    public void markAllRead() {
+        if (prefsKey == null) {
+            return;
+        }
+        executor.execute(() -> {
+            if (log.markAllRead()) {
+                persist();
+                publish();
+            }
+        });
+    }
+
+    private void apply(Map<String, CachedReport> batch) {
+        boolean changed = false;
+        for (CachedReport report : batch.values()) {
+            changed |= log.apply(report.getId(), report.getTipoReporte(), report.getEstado(),
+                    report.getUpdatedAt());
+        }
+        // Los reportes vistos por primera vez también se guardan, aunque no haya aviso
+        persist();
+        if (changed) {
+            publish();
+        }
+    }
+
+    private void persist() {
+        prefs.edit().putString(prefsKey, log.serialize()).apply();
+    }
 
-    public NotificationsViewModel() {
-        mText = new MutableLiveData<>();
-        mText.setValue("This is notifications fragment");
+    private void publish() {
+        changes.postValue(Collections.unmodifiableList(log.list()));
     }
 
-    public LiveData<String> getText() {
-        return mText;
+    @Override
+    protected void onCleared() {
+        if (coalescer != null) {
+            // Entregar lo pendiente para que quede guardado
+            coalescer.flush();
+        }
+        cleared = true;
+        // Lo ya encolado (el último guardado incluido) termina; el hilo no sobrevive al ViewModel
+        executor.shutdown();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,77 @@
+package com.example.alertamx.ui.notifications;
+
+import android.graphics.Typeface;
+import android.view.LayoutInflater;
+import android.view.View;
+import android.view.ViewGroup;
+
+import androidx.annotation.NonNull;
+import androidx.core.content.ContextCompat;
+import androidx.recyclerview.widget.DiffUtil;
+import androidx.recyclerview.widget.ListAdapter;
+import androidx.recyclerview.widget.RecyclerView;
+
+import com.example.alertamx.databinding.ItemStatusChangeBinding;
+import com.example.alertamx.report.StatusChangeLog;
+import com.example.alertamx.ui.EstadoColors;
+import com.example.alertamx.ui.home.ReportItem;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+// Lista de avisos; el diff se calcula en segundo plano (ListAdapter), así una
+// ráfaga ya agrupada por el ViewModel repinta solo las filas que cambiaron
+public class StatusChangeAdapter extends ListAdapter<StatusChangeLog.Change, StatusChangeAdapter.ViewHolder> {
+
+    // bind() corre siempre en el hilo principal
+    private final SimpleDateFormat dateFormat = ReportItem.newDateFormat();
+
+    public StatusChangeAdapter() {
+        super(DIFF_CALLBACK);
+    }
+
+    @NonNull
+    @Override
+    public ViewHolder onCreateViewHolder(@NonNull ViewGroup parent, int viewType) {
+        ItemStatusChangeBinding binding = ItemStatusChangeBinding.inflate(
+                LayoutInflater.from(parent.getContext()), parent, false);
+        return new ViewHolder(binding);
+    }
+
+    @Override
+    public void onBindViewHolder(@NonNull ViewHolder holder, int position) {
+        StatusChangeLog.Change change = getItem(position);
+        holder.binding.changeTipo.setText(change.getTipoReporte());
+        holder.binding.changeTipo.setTypeface(null, change.isUnread() ? Typeface.BOLD : Typeface.NORMAL);
+        holder.binding.changeUnread.setVisibility(change.isUnread() ? View.VISIBLE : View.GONE);
+        holder.binding.changeEstado.setText(change.getFromEstado() + " → " + change.getToEstado());
+        holder.binding.changeEstado.setTextColor(ContextCompat.getColor(
+                holder.itemView.getContext(), EstadoColors.of(change.getToEstado())));
+        holder.binding.changeFecha.setText(dateFormat.format(new Date(change.getUpdatedAt())));
+    }
+
+    static class ViewHolder extends RecyclerView.ViewHolder {
+
+        final ItemStatusChangeBinding binding;
+
+        ViewHolder(ItemStatusChangeBinding binding) {
+            super(binding.getRoot());
+            this.binding = binding;
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<StatusChangeLog.Change> DIFF_CALLBACK =
+            new DiffUtil.ItemCallback<StatusChangeLog.Change>() {
+                @Override
+                public boolean areItemsTheSame(@NonNull StatusChangeLog.Change oldItem,
+                                               @NonNull StatusChangeLog.Change newItem) {
+                    return oldItem.getReportId().equals(newItem.getReportId());
+                }
+
+                @Override
+                public boolean areContentsTheSame(@NonNull StatusChangeLog.Change oldItem,
+                                                  @NonNull StatusChangeLog.Change newItem) {
+                    return oldItem.equals(newItem);
+                }
+            };
+}
@@ -0,0 +1,192 @@
+package com.example.alertamx;
+
+import androidx.annotation.NonNull;
+import androidx.arch.core.executor.testing.InstantTaskExecutorRule;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleEventObserver;
+import androidx.lifecycle.LifecycleOwner;
+import androidx.lifecycle.LifecycleRegistry;
+import androidx.lifecycle.Observer;
+import androidx.lifecycle.ViewModel;
+import androidx.lifecycle.ViewModelProvider;
+import androidx.lifecycle.ViewModelStore;
+import androidx.lifecycle.ViewModelStoreOwner;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+// Recorre Login → registrer → ReportFormActivity muchas veces como lo haría el
+// sistema (cada pantalla con su Lifecycle y su ViewModelStore, que se limpia
+// al destruirla) y comprueba que la sesión compartida no retiene ningún ViewModel
+public class AuthSessionLeakTest {
+
+    private static final int CYCLES = 50;
+    private static final int SCREENS_PER_CYCLE = 3;
+
+    @Rule
+    public InstantTaskExecutorRule instantTaskExecutorRule = new InstantTaskExecutorRule();
+
+    private final FakeSource source = new FakeSource();
+    private AuthSession session;
+
+    @Before
+    public void setUp() {
+        source.signIn(new AuthSession.Snapshot("uid-1", "Ana", "ana@example.com"));
+        session = new AuthSession(source);
+    }
+
+    @Test
+    public void cyclingActivities_retainsNoViewModels() throws InterruptedException {
+        List<WeakReference<AuthViewModel>> created = new ArrayList<>();
+        for (int cycle = 0; cycle < CYCLES; cycle++) {
+            for (int screen = 0; screen < SCREENS_PER_CYCLE; screen++) {
+                created.add(new WeakReference<>(openAndDestroyScreen()));
+            }
+        }
+
+        assertFalse("La sesión conserva observadores", session.getSession().hasObservers());
+        assertEquals(0, countRetained(created));
+    }
+
+    @Test
+    public void viewModel_readsSharedSnapshotWithoutObserving() {
+        AuthViewModel viewModel = new AuthViewModel(session);
+        assertTrue(viewModel.isUserLoggedIn());
+        assertEquals("uid-1", viewModel.getCurrentUserId());
+        assertEquals("Ana", viewModel.getCurrentUserData().getName());
+        assertFalse(session.getSession().hasObservers());
+
+        source.signIn(AuthSession.Snapshot.SIGNED_OUT);
+        assertFalse(viewModel.isUserLoggedIn());
+        assertNull(viewModel.getCurrentUserData());
+    }
+
+    @Test
+    public void observedUser_followsSessionWhileObserved() {
+        AuthViewModel viewModel = new AuthViewModel(session);
+        List<User> seen = new ArrayList<>();
+        Observer<User> observer = seen::add;
+        viewModel.getCurrentUser().observeForever(observer);
+        assertTrue(session.getSession().hasObservers());
+
+        source.signIn(new AuthSession.Snapshot("uid-1", "Ana María", "ana@example.com"));
+        // La misma sesión otra vez no vuelve a notificar
+        source.signIn(new AuthSession.Snapshot("uid-1", "Ana María", "ana@example.com"));
+        assertEquals(2, seen.size());
+        assertEquals("Ana María", seen.get(1).getName());
+
+        viewModel.getCurrentUser().removeObserver(observer);
+        assertFalse(session.getSession().hasObservers());
+    }
+
+    @Test
+    public void destroyedScreen_stopsObservingSession() {
+        Screen screen = new Screen();
+        AuthViewModel viewModel = screen.viewModel(session);
+        viewModel.getCurrentUser().observe(screen, user -> { });
+        assertTrue(session.getSession().hasObservers());
+
+        screen.destroy();
+        assertFalse(session.getSession().hasObservers());
+    }
+
+    // Una actividad: crea su ViewModel, lo observa con su propio Lifecycle mientras
+    // está en primer plano y se destruye como lo haría el sistema
+    private AuthViewModel openAndDestroyScreen() {
+        Screen screen = new Screen();
+        AuthViewModel viewModel = screen.viewModel(session);
+        viewModel.getCurrentUser().observe(screen, user -> { });
+        screen.destroy();
+        return viewModel;
+    }
+
+    // Lo mínimo de una ComponentActivity: Lifecycle que llega a RESUMED y
+    // ViewModelStore que se limpia en ON_DESTROY (sin cambio de configuración)
+    private static final class Screen implements LifecycleOwner, ViewModelStoreOwner {
+        private final LifecycleRegistry lifecycle = new LifecycleRegistry(this);
+        private final ViewModelStore store = new ViewModelStore();
+
+        Screen() {
+            lifecycle.addObserver((LifecycleEventObserver) (owner, event) -> {
+                if (event == Lifecycle.Event.ON_DESTROY) {
+                    store.clear();
+                }
+            });
+            lifecycle.setCurrentState(Lifecycle.State.RESUMED);
+        }
+
+        AuthViewModel viewModel(AuthSession session) {
+            return new ViewModelProvider(this, new ViewModelProvider.Factory() {
+                @NonNull
+                @Override
+                @SuppressWarnings("unchecked")
+                public <T extends ViewModel> T create(@NonNull Class<T> modelClass) {
+                    return (T) new AuthViewModel(session);
+                }
+            }).get(AuthViewModel.class);
+        }
+
+        void destroy() {
+            lifecycle.setCurrentState(Lifecycle.State.DESTROYED);
+        }
+
+        @NonNull
+        @Override
+        public Lifecycle getLifecycle() {
+            return lifecycle;
+        }
+
+        @NonNull
+        @Override
+        public ViewModelStore getViewModelStore() {
+            return store;
+        }
+    }
+
+    // Sesión alimentada a mano, sin FirebaseAuth
+    private static final class FakeSource implements AuthSession.Source {
+        private final List<Runnable> listeners = new ArrayList<>();
+        private AuthSession.Snapshot user = AuthSession.Snapshot.SIGNED_OUT;
+
+        void signIn(AuthSession.Snapshot user) {
+            this.user = user;
+            for (Runnable listener : listeners) {
+                listener.run();
+            }
+        }
+
+        @Override
+        public AuthSession.Snapshot read() {
+            return user;
+        }
+
+        @Override
+        public void addListener(Runnable onChange) {
+            listeners.add(onChange);
+        }
+    }
+
+    // El GC no es determinista: se insiste unas veces antes de contar
+    private static int countRetained(List<WeakReference<AuthViewModel>> references)
+            throws InterruptedException {
+        int retained = references.size();
+        for (int attempt = 0; attempt < 10 && retained > 0; attempt++) {
+            System.gc();
+            Thread.sleep(20);
+            retained = 0;
+            for (WeakReference<AuthViewModel> reference : references) {
+                if (reference.get() != null) {
+                    retained++;
+                }
+            }
+        }
+        return retained;
+    }
+}
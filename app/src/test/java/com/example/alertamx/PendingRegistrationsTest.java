@@ -0,0 +1,121 @@
+package com.example.alertamx;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class PendingRegistrationsTest {
+
+    private final Locale defaultLocale = Locale.getDefault();
+    private SharedPreferences prefs;
+    private PendingRegistrations pending;
+
+    @Before
+    public void setUp() {
+        prefs = RuntimeEnvironment.getApplication()
+                .getSharedPreferences("pending_registrations_test", Context.MODE_PRIVATE);
+        prefs.edit().clear().commit();
+        pending = new PendingRegistrations(prefs);
+    }
+
+    @After
+    public void tearDown() {
+        Locale.setDefault(defaultLocale);
+    }
+
+    @Test
+    public void entryFollowsEachStepUntilRemoved() {
+        pending.add("Ana", "ana@example.com");
+        pending.attachUid("ana@example.com", "u1");
+        pending.markProfileDone("ana@example.com");
+
+        PendingRegistrations.Entry entry = single();
+        assertEquals("u1", entry.getUid());
+        assertEquals("Ana", entry.getName());
+        assertTrue(entry.isProfileDone());
+        assertFalse(entry.isDocumentDone());
+
+        pending.markDocumentDone("ana@example.com");
+        assertTrue(single().isDocumentDone());
+
+        pending.remove("ana@example.com");
+        assertTrue(pending.all().isEmpty());
+    }
+
+    @Test
+    public void emailIsMatchedIgnoringCaseAndSpaces() {
+        pending.add("Ana", " Ana@Example.com ");
+        pending.attachUid("ana@example.com", "u1");
+        assertEquals("u1", single().getUid());
+    }
+
+    @Test
+    public void key_doesNotDependOnDeviceLocale() {
+        // En turco "I".toLowerCase() es "ı" sin punto
+        Locale.setDefault(new Locale("tr", "TR"));
+        pending.add("Iván", "IVAN@example.com");
+        pending.attachUid("ivan@example.com", "u1");
+        assertEquals("u1", single().getUid());
+
+        Locale.setDefault(Locale.US);
+        pending.markProfileDone("IVAN@EXAMPLE.COM");
+        assertTrue(single().isProfileDone());
+    }
+
+    @Test
+    public void add_keepsEntryWhoseAccountAlreadyExists() {
+        pending.add("Ana", "ana@example.com");
+        pending.attachUid("ana@example.com", "u1");
+
+        pending.add("Ana María", "ana@example.com");
+        PendingRegistrations.Entry entry = single();
+        assertEquals("u1", entry.getUid());
+        assertEquals("Ana", entry.getName());
+    }
+
+    @Test
+    public void discardUnconfirmed_onlyDropsEntriesWithoutUid() {
+        pending.add("Ana", "ana@example.com");
+        pending.discardUnconfirmed("ana@example.com");
+        assertTrue(pending.all().isEmpty());
+
+        pending.add("Ana", "ana@example.com");
+        pending.attachUid("ana@example.com", "u1");
+        pending.discardUnconfirmed("ana@example.com");
+        assertEquals(1, pending.all().size());
+    }
+
+    @Test
+    public void unreadableEntryIsDropped() {
+        prefs.edit().putString("roto@example.com", "{no es json").commit();
+        assertTrue(pending.all().isEmpty());
+        assertFalse(prefs.contains("roto@example.com"));
+    }
+
+    @Test
+    public void entriesSurviveRestart() {
+        pending.add("Ana", "ana@example.com");
+        pending.attachUid("ana@example.com", "u1");
+
+        PendingRegistrations restarted = new PendingRegistrations(prefs);
+        assertEquals("u1", restarted.all().get(0).getUid());
+    }
+
+    private PendingRegistrations.Entry single() {
+        List<PendingRegistrations.Entry> entries = pending.all();
+        assertEquals(1, entries.size());
+        return entries.get(0);
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.alertamx;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Looper;
+
+import com.google.android.gms.tasks.Task;
+import com.google.android.gms.tasks.TaskCompletionSource;
+import com.google.android.gms.tasks.Tasks;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static org.robolectric.Shadows.shadowOf;
+
+@RunWith(RobolectricTestRunner.class)
+public class UserProfileCacheTest {
+
+    private static final long STALE = UserProfileCache.TTL_MILLIS + 1;
+
+    private final FakeRemote remote = new FakeRemote();
+    private SharedPreferences prefs;
+    private long now = 1_000_000L;
+    private UserProfileCache cache;
+
+    @Before
+    public void setUp() {
+        prefs = RuntimeEnvironment.getApplication()
+                .getSharedPreferences("user_profiles_test", Context.MODE_PRIVATE);
+        prefs.edit().clear().commit();
+        cache = new UserProfileCache(prefs, remote, () -> now);
+    }
+
+    @Test
+    public void get_withoutCachedProfileWaitsForNetwork() {
+        Task<User> task = cache.get("u1");
+        assertFalse(task.isComplete());
+
+        remote.respond("u1", new User("u1", "Ana", "ana@example.com"));
+        idle();
+        assertEquals("Ana", task.getResult().getName());
+    }
+
+    @Test
+    public void get_staleProfileIsServedAndRevalidated() {
+        save(new User("u1", "Ana", "ana@example.com"));
+        now += STALE;
+
+        Task<User> task = cache.get("u1");
+        assertTrue(task.isComplete());
+        assertEquals("Ana", task.getResult().getName());
+        assertEquals(1, remote.fetches);
+
+        remote.respond("u1", new User("u1", "Ana María", "ana@example.com"));
+        idle();
+        assertEquals("Ana María", cache.get("u1").getResult().getName());
+        // Ya revalidado: la lectura siguiente no sale a la red
+        assertEquals(1, remote.fetches);
+    }
+
+    @Test
+    public void get_freshProfileDoesNotRevalidate() {
+        save(new User("u1", "Ana", "ana@example.com"));
+        cache.get("u1");
+        assertEquals(0, remote.fetches);
+    }
+
+    @Test
+    public void get_concurrentRevalidationsShareOneRead() {
+        Task<User> first = cache.get("u1");
+        Task<User> second = cache.get("u1");
+        assertEquals(1, remote.fetches);
+        assertSame(first, second);
+
+        remote.respond("u1", null);
+        idle();
+        // Terminada la anterior, una lectura nueva vuelve a salir
+        cache.get("u1");
+        assertEquals(2, remote.fetches);
+    }
+
+    @Test
+    public void get_readsProfileSavedByPreviousProcess() {
+        save(new User("u1", "Ana", "ana@example.com"));
+
+        UserProfileCache restarted = new UserProfileCache(prefs, remote, () -> now);
+        assertEquals("ana@example.com", restarted.get("u1").getResult().getEmail());
+        assertEquals(0, remote.fetches);
+    }
+
+    @Test
+    public void save_skipsWriteEqualToFreshProfile() {
+        save(new User("u1", "Ana", "ana@example.com"));
+        save(new User("u1", "Ana", "ana@example.com"));
+        assertEquals(1, remote.writes.size());
+    }
+
+    @Test
+    public void save_writesWhenAnyFieldChanges() {
+        save(new User("u1", "Ana", "ana@example.com"));
+        save(new User("u1", "Ana", "ana.m@example.com"));
+        save(new User("u1", null, "ana.m@example.com"));
+        assertEquals(3, remote.writes.size());
+    }
+
+    @Test
+    public void save_writesAgainOverStaleProfile() {
+        save(new User("u1", "Ana", "ana@example.com"));
+        now += STALE;
+        save(new User("u1", "Ana", "ana@example.com"));
+        assertEquals(2, remote.writes.size());
+    }
+
+    private void save(User user) {
+        cache.save(user);
+        idle();
+    }
+
+    private static void idle() {
+        shadowOf(Looper.getMainLooper()).idle();
+    }
+
+    // "users" en memoria: las lecturas quedan abiertas hasta respond()
+    private static final class FakeRemote implements UserProfileCache.Remote {
+        final Map<String, TaskCompletionSource<User>> pending = new HashMap<>();
+        final List<User> writes = new ArrayList<>();
+        int fetches;
+
+        @Override
+        public Task<User> fetch(String uid) {
+            fetches++;
+            TaskCompletionSource<User> source = new TaskCompletionSource<>();
+            pending.put(uid, source);
+            return source.getTask();
+        }
+
+        @Override
+        public Task<Void> write(User user) {
+            writes.add(user);
+            return Tasks.forResult(null);
+        }
+
+        void respond(String uid, User user) {
+            pending.remove(uid).setResult(user);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.alertamx.geo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ClusterIndexTest {
+
+    private static final double LAT = 19.4326;
+    private static final double LNG = -99.1332;
+    private static final int POINTS = 3000;
+
+    private ClusterIndex index;
+
+    @Before
+    public void setUp() {
+        index = new ClusterIndex();
+        Random random = new Random(11);
+        for (int i = 0; i < POINTS; i++) {
+            index.put("r" + i, LAT + (random.nextDouble() - 0.5) * 0.3,
+                    LNG + (random.nextDouble() - 0.5) * 0.3, i % 3 == 0 ? "Resuelto" : "Pendiente");
+        }
+    }
+
+    @Test
+    public void everyZoomAccountsForAllPoints() {
+        int previousClusters = 0;
+        for (int zoom = ClusterIndex.MIN_ZOOM; zoom <= ClusterIndex.MAX_ZOOM; zoom++) {
+            List<ClusterIndex.Cluster> clusters = index.query(zoom, -85, -180, 85, 180);
+            assertEquals(POINTS, total(clusters));
+            // Acercarse solo puede dividir grupos
+            assertTrue(clusters.size() >= previousClusters);
+            previousClusters = clusters.size();
+        }
+    }
+
+    @Test
+    public void query_returnsOnlyVisibleCells() {
+        List<ClusterIndex.Cluster> all = index.query(14, -85, -180, 85, 180);
+        List<ClusterIndex.Cluster> visible = index.query(14, LAT, LNG, LAT + 0.05, LNG + 0.05);
+        assertTrue(visible.size() < all.size());
+        for (ClusterIndex.Cluster cluster : visible) {
+            // El centroide de una celda parcialmente visible puede quedar un poco fuera
+            assertTrue(cluster.getLatitude() > LAT - 0.02 && cluster.getLatitude() < LAT + 0.07);
+        }
+    }
+
+    @Test
+    public void estadoChangeUpdatesBreakdownWithoutMoving() {
+        index.clear();
+        index.put("a", LAT, LNG, "Pendiente");
+        index.put("b", LAT + 0.0001, LNG, "Pendiente");
+        index.put("a", LAT, LNG, "Resuelto");
+
+        ClusterIndex.Cluster cluster = index.query(10, -85, -180, 85, 180).get(0);
+        assertEquals(2, cluster.getCount());
+        assertEquals(Integer.valueOf(1), cluster.getCountByEstado().get("Resuelto"));
+        assertEquals(Integer.valueOf(1), cluster.getCountByEstado().get("Pendiente"));
+    }
+
+    @Test
+    public void moveAndRemoveKeepCountsConsistent() {
+        index.put("r0", 25.6866, -100.3161, "Pendiente");
+        assertEquals(POINTS, total(index.query(8, -85, -180, 85, 180)));
+        assertTrue(index.remove("r1"));
+        assertFalse(index.remove("r1"));
+        assertEquals(POINTS - 1, total(index.query(8, -85, -180, 85, 180)));
+        assertEquals(1, total(index.query(12, 25.6, -100.4, 25.8, -100.2)));
+    }
+
+    @Test
+    public void maxZoomExposesSingleReportId() {
+        index.clear();
+        index.put("solo", LAT, LNG, "Pendiente");
+        ClusterIndex.Cluster cluster = index.query(ClusterIndex.MAX_ZOOM,
+                LAT - 0.001, LNG - 0.001, LAT + 0.001, LNG + 0.001).get(0);
+        assertEquals("solo", cluster.getSingleId());
+        assertEquals(LAT, cluster.getLatitude(), 1e-9);
+    }
+
+    private static int total(List<ClusterIndex.Cluster> clusters) {
+        int total = 0;
+        for (ClusterIndex.Cluster cluster : clusters) {
+            total += cluster.getCount();
+        }
+        return total;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.alertamx.geo;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class GeoHashTest {
+
+    // Zócalo de la Ciudad de México
+    private static final double LAT = 19.4326;
+    private static final double LNG = -99.1332;
+
+    @Test
+    public void encode_matchesReferenceValues() {
+        assertEquals("u4pruydqqvj", GeoHash.encode(57.64911, 10.40744, 11));
+        assertEquals("ezs42", GeoHash.encode(42.6, -5.6, 5));
+        assertEquals(GeoHash.DEFAULT_PRECISION, GeoHash.encode(LAT, LNG).length());
+    }
+
+    @Test
+    public void decodeBounds_containsEncodedPoint() {
+        String hash = GeoHash.encode(LAT, LNG, 7);
+        double[] bounds = GeoHash.decodeBounds(hash);
+        assertTrue(bounds[0] <= LAT && LAT <= bounds[2]);
+        assertTrue(bounds[1] <= LNG && LNG <= bounds[3]);
+    }
+
+    @Test
+    public void encode_nearbyPointsSharePrefix() {
+        String a = GeoHash.encode(LAT, LNG);
+        String b = GeoHash.encode(LAT + 0.0001, LNG + 0.0001);
+        assertEquals(a.substring(0, 6), b.substring(0, 6));
+    }
+
+    @Test
+    public void encode_handlesEdges() {
+        assertEquals("zzzzz", GeoHash.encode(90, 180, 5));
+        assertEquals("00000", GeoHash.encode(-90, -180, 5));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void encode_rejectsInvalidCoordinates() {
+        GeoHash.encode(91, 0);
+    }
+
+    @Test
+    public void distance_isAboutOneKilometerPerHundredthOfLatitude() {
+        double meters = GeoHash.distanceMeters(LAT, LNG, LAT + 0.01, LNG);
+        assertEquals(1112, meters, 5);
+    }
+
+    @Test
+    public void plan_neighborhoodNeedsFewRanges() {
+        List<GeoQueryPlanner.Range> ranges = GeoQueryPlanner.plan(LAT, LNG, 1000);
+        assertFalse(ranges.isEmpty());
+        assertTrue(ranges.size() <= GeoQueryPlanner.MAX_CELLS);
+    }
+
+    @Test
+    public void plan_coversEveryPointInsideRadius() {
+        Random random = new Random(42);
+        for (double radius : new double[]{50, 500, 2000, 25000}) {
+            List<GeoQueryPlanner.Range> ranges = GeoQueryPlanner.plan(LAT, LNG, radius);
+            for (int i = 0; i < 2000; i++) {
+                double dLat = (random.nextDouble() * 2 - 1) * radius / 111_320.0;
+                double dLng = (random.nextDouble() * 2 - 1) * radius / 111_320.0;
+                double lat = LAT + dLat;
+                double lng = LNG + dLng;
+                if (GeoHash.distanceMeters(LAT, LNG, lat, lng) > radius) {
+                    continue;
+                }
+                String hash = GeoHash.encode(lat, lng);
+                assertTrue("No cubierto a " + radius + " m: " + hash, covered(ranges, hash));
+            }
+        }
+    }
+
+    @Test
+    public void plan_rangesDoNotOverlap() {
+        List<GeoQueryPlanner.Range> ranges = GeoQueryPlanner.plan(LAT, LNG, 3000);
+        for (int i = 1; i < ranges.size(); i++) {
+            assertTrue(ranges.get(i - 1).getEnd().compareTo(ranges.get(i).getStart()) < 0);
+        }
+    }
+
+    @Test
+    public void plan_ignoresFarAwayPoints() {
+        List<GeoQueryPlanner.Range> ranges = GeoQueryPlanner.plan(LAT, LNG, 1000);
+        // Guadalajara
+        assertFalse(covered(ranges, GeoHash.encode(20.6597, -103.3496)));
+    }
+
+    private static boolean covered(List<GeoQueryPlanner.Range> ranges, String hash) {
+        for (GeoQueryPlanner.Range range : ranges) {
+            if (range.contains(hash)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
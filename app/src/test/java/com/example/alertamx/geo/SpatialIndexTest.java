@@ -0,0 +1,100 @@
+package com.example.alertamx.geo;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class SpatialIndexTest {
+
+    private static final double LAT = 19.4326;
+    private static final double LNG = -99.1332;
+
+    private SpatialIndex<String> index;
+    private List<double[]> points;
+
+    @Before
+    public void setUp() {
+        index = new SpatialIndex<>();
+        points = new ArrayList<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 5000; i++) {
+            double lat = LAT + (random.nextDouble() - 0.5) * 0.2;
+            double lng = LNG + (random.nextDouble() - 0.5) * 0.2;
+            points.add(new double[]{lat, lng});
+            index.put("r" + i, lat, lng, "r" + i);
+        }
+    }
+
+    @Test
+    public void queryBox_matchesBruteForce() {
+        double minLat = LAT - 0.01, maxLat = LAT + 0.02, minLng = LNG - 0.03, maxLng = LNG;
+        HashSet<String> expected = new HashSet<>();
+        for (int i = 0; i < points.size(); i++) {
+            double[] p = points.get(i);
+            if (p[0] >= minLat && p[0] <= maxLat && p[1] >= minLng && p[1] <= maxLng) {
+                expected.add("r" + i);
+            }
+        }
+        assertEquals(expected, new HashSet<>(index.queryBox(minLat, minLng, maxLat, maxLng)));
+    }
+
+    @Test
+    public void nearest_matchesBruteForce() {
+        double cosLat = Math.cos(Math.toRadians(LAT));
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            ids.add(i);
+        }
+        ids.sort(Comparator.comparingDouble(i ->
+                SpatialIndex.distance(LAT, LNG, points.get(i)[0], points.get(i)[1], cosLat)));
+
+        List<String> nearest = index.nearest(LAT, LNG, 10);
+        assertEquals(10, nearest.size());
+        for (int i = 0; i < 10; i++) {
+            assertEquals("r" + ids.get(i), nearest.get(i));
+        }
+    }
+
+    @Test
+    public void put_movesExistingPoint() {
+        index.put("r0", 25.6866, -100.3161, "r0");
+        assertEquals(5000, index.size());
+        assertEquals("r0", index.nearest(25.6866, -100.3161, 1).get(0));
+        assertFalse(index.queryBox(LAT - 0.1, LNG - 0.1, LAT + 0.1, LNG + 0.1).contains("r0"));
+    }
+
+    @Test
+    public void put_samePointReplacesValue() {
+        double[] p = points.get(3);
+        index.put("r3", p[0], p[1], "actualizado");
+        assertEquals(5000, index.size());
+        assertTrue(index.queryBox(p[0], p[1], p[0], p[1]).contains("actualizado"));
+    }
+
+    @Test
+    public void remove_dropsPointAndCollapsesNodes() {
+        for (int i = 0; i < 4990; i++) {
+            assertTrue(index.remove("r" + i));
+        }
+        assertFalse(index.remove("r0"));
+        assertEquals(10, index.size());
+        assertEquals(10, index.queryBox(-90, -180, 90, 180).size());
+        assertEquals(10, index.nearest(LAT, LNG, 50).size());
+    }
+
+    @Test
+    public void duplicatePointsDoNotSplitForever() {
+        SpatialIndex<Integer> dense = new SpatialIndex<>();
+        for (int i = 0; i < 1000; i++) {
+            dense.put("d" + i, LAT, LNG, i);
+        }
+        assertEquals(1000, dense.queryBox(LAT, LNG, LAT, LNG).size());
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.alertamx.report;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class ChangeCoalescerTest {
+
+    private static final long DEBOUNCE = 500;
+    private static final long MAX_WAIT = 2_000;
+
+    private long now;
+    private final FakeScheduler scheduler = new FakeScheduler();
+    private final List<Map<String, Integer>> delivered = new ArrayList<>();
+    private ChangeCoalescer<String, Integer> coalescer;
+
+    @Before
+    public void setUp() {
+        coalescer = new ChangeCoalescer<>(scheduler, () -> now, DEBOUNCE, MAX_WAIT, delivered::add);
+    }
+
+    @Test
+    public void burstOfTwoHundred_deliversOnce() {
+        for (int i = 0; i < 200; i++) {
+            coalescer.offer("r" + (i % 50), i);
+            now += 1;
+        }
+        // Cada cambio reprograma la entrega: solo queda una pendiente
+        assertEquals(1, scheduler.pending());
+        assertTrue(delivered.isEmpty());
+
+        scheduler.runScheduled();
+        assertEquals(1, delivered.size());
+        Map<String, Integer> batch = delivered.get(0);
+        assertEquals(50, batch.size());
+        // Última versión por clave
+        assertEquals(Integer.valueOf(199), batch.get("r49"));
+    }
+
+    @Test
+    public void continuousStream_deliversAtMaxWait() {
+        for (int i = 0; i < 100; i++) {
+            coalescer.offer("r" + i, i);
+            now += 100;
+        }
+        // 10 s de cambios cada 100 ms: una entrega cada MAX_WAIT
+        assertEquals(4, delivered.size());
+        scheduler.runScheduled();
+        assertEquals(5, delivered.size());
+        int total = 0;
+        for (Map<String, Integer> batch : delivered) {
+            total += batch.size();
+        }
+        assertEquals(100, total);
+    }
+
+    @Test
+    public void flushWithNothingPending_deliversNothing() {
+        coalescer.flush();
+        assertTrue(delivered.isEmpty());
+    }
+
+    @Test
+    public void cancel_dropsPending() {
+        coalescer.offer("a", 1);
+        coalescer.cancel();
+        assertEquals(0, scheduler.pending());
+        coalescer.flush();
+        assertTrue(delivered.isEmpty());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.alertamx.report;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Programador manual: las tareas esperan hasta runScheduled(), que ejecuta las
+// pendientes en ese momento. Guarda los retrasos pedidos para comprobarlos
+class FakeScheduler implements SharedListener.Scheduler {
+
+    private final List<Runnable> scheduled = new ArrayList<>();
+    private final List<Long> delays = new ArrayList<>();
+
+    @Override
+    public Runnable schedule(Runnable task, long delayMillis) {
+        scheduled.add(task);
+        delays.add(delayMillis);
+        return () -> scheduled.remove(task);
+    }
+
+    void runScheduled() {
+        List<Runnable> tasks = new ArrayList<>(scheduled);
+        scheduled.clear();
+        for (Runnable task : tasks) {
+            task.run();
+        }
+    }
+
+    int pending() {
+        return scheduled.size();
+    }
+
+    List<Long> delays() {
+        return delays;
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.alertamx.report;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ImageSizingTest {
+
+    private static final int MAX_EDGE = 1600;
+
+    @Test
+    public void sampleSize_smallImageIsNotSampled() {
+        assertEquals(1, ImageSizing.calculateInSampleSize(1200, 900, MAX_EDGE));
+        assertEquals(1, ImageSizing.calculateInSampleSize(1600, 1200, MAX_EDGE));
+    }
+
+    @Test
+    public void sampleSize_keepsLongEdgeAtLeastMaxEdge() {
+        // 12 MP: 4000x3000 -> 2000x1500
+        assertEquals(2, ImageSizing.calculateInSampleSize(4000, 3000, MAX_EDGE));
+        // 50 MP: 8160x6120 -> 2040x1530
+        assertEquals(4, ImageSizing.calculateInSampleSize(8160, 6120, MAX_EDGE));
+        // Vertical
+        assertEquals(4, ImageSizing.calculateInSampleSize(6120, 8160, MAX_EDGE));
+    }
+
+    @Test
+    public void targetSize_respectsMaxEdgeAndAspectRatio() {
+        int[] size = ImageSizing.targetSize(4000, 3000, MAX_EDGE);
+        assertEquals(1600, size[0]);
+        assertEquals(1200, size[1]);
+
+        size = ImageSizing.targetSize(2040, 1530, MAX_EDGE);
+        assertEquals(1600, size[0]);
+        assertEquals(1200, size[1]);
+    }
+
+    @Test
+    public void targetSize_neverUpscales() {
+        int[] size = ImageSizing.targetSize(640, 480, MAX_EDGE);
+        assertEquals(640, size[0]);
+        assertEquals(480, size[1]);
+    }
+
+    @Test
+    public void outputPixels_areAnOrderOfMagnitudeBelowA12MpCapture() {
+        int[] size = ImageSizing.targetSize(4000, 3000, MAX_EDGE);
+        long outputPixels = (long) size[0] * size[1];
+        assertTrue(outputPixels * 6 <= 4000L * 3000L);
+    }
+
+    @Test
+    public void peakAllocation_isBoundedFor50MpCaptures() {
+        long bound = ImageSizing.peakDecodeBound(MAX_EDGE);
+        long peak50Mp = ImageSizing.peakDecodeBytes(8160, 6120, MAX_EDGE);
+        long peak200Mp = ImageSizing.peakDecodeBytes(16320, 12240, MAX_EDGE);
+
+        assertTrue(peak50Mp <= bound);
+        assertTrue(peak200Mp <= bound);
+        // Decodificar sin muestreo un 50 MP costaría ~200 MB
+        assertTrue(peak50Mp * 8 < 8160L * 6120L * ImageSizing.BYTES_PER_PIXEL);
+    }
+
+    @Test
+    public void peakAllocation_isBoundedForAwkwardSizes() {
+        long bound = ImageSizing.peakDecodeBound(MAX_EDGE);
+        for (int edge = 1; edge <= 20000; edge += 97) {
+            assertTrue(ImageSizing.peakDecodeBytes(edge, edge, MAX_EDGE) <= bound);
+            assertTrue(ImageSizing.peakDecodeBytes(edge, 3, MAX_EDGE) <= bound);
+        }
+    }
+
+    @Test
+    public void renditionName_isSiblingOfOriginal() {
+        assertEquals("abc_256.jpg", ImageSizing.renditionName("abc.jpg", 256));
+        assertEquals("report_images/abc_1024.webp",
+                ImageSizing.renditionName("report_images/abc.webp", 1024));
+        assertEquals("dir.v2/abc_256", ImageSizing.renditionName("dir.v2/abc", 256));
+    }
+
+    @Test
+    public void renditions_areMuchSmallerThanTheOriginal() {
+        int[] original = ImageSizing.targetSize(4000, 3000, MAX_EDGE);
+        int[] medium = ImageSizing.targetSize(original[0], original[1], ImageSizing.MEDIUM_EDGE);
+        int[] thumbnail = ImageSizing.targetSize(medium[0], medium[1], ImageSizing.THUMBNAIL_EDGE);
+
+        assertEquals(1024, medium[0]);
+        assertEquals(768, medium[1]);
+        assertEquals(256, thumbnail[0]);
+        assertEquals(192, thumbnail[1]);
+    }
+}
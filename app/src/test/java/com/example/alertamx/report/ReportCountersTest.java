@@ -0,0 +1,80 @@
+package com.example.alertamx.report;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+public class ReportCountersTest {
+
+    @Test
+    public void shardFor_isStableAndInRange() {
+        assertEquals(ReportCounters.shardFor("aB3xY9"), ReportCounters.shardFor("aB3xY9"));
+        for (int i = 0; i < 1000; i++) {
+            int shard = ReportCounters.shardFor("reporte" + i);
+            assertTrue(shard >= 0 && shard < ReportCounters.NUM_SHARDS);
+        }
+    }
+
+    @Test
+    public void shardFor_negativeHashStaysInRange() {
+        // "polygenelubricants".hashCode() == Integer.MIN_VALUE
+        int shard = ReportCounters.shardFor("polygenelubricants");
+        assertTrue(shard >= 0 && shard < ReportCounters.NUM_SHARDS);
+    }
+
+    @Test
+    public void shardFor_spreadsIdsOverAllShards() {
+        Set<Integer> used = new HashSet<>();
+        for (int i = 0; i < 200; i++) {
+            used.add(ReportCounters.shardFor("id" + i));
+        }
+        assertEquals(ReportCounters.NUM_SHARDS, used.size());
+    }
+
+    @Test
+    public void counterId_joinsTipoAndEstado() {
+        assertEquals("Bache__Pendiente", ReportCounters.counterId("Bache", "Pendiente"));
+    }
+
+    @Test
+    public void counterId_replacesSlashes() {
+        assertEquals("Agua_Drenaje__En revisión",
+                ReportCounters.counterId("Agua/Drenaje", "En revisión"));
+    }
+
+    @Test
+    public void counterId_nullPartsAreEmpty() {
+        assertEquals("__Pendiente", ReportCounters.counterId(null, "Pendiente"));
+        assertEquals("Bache__", ReportCounters.counterId("Bache", null));
+    }
+
+    @Test
+    public void move_firstCount_onlyIncrements() {
+        ReportCounters.Move move = ReportCounters.move(null, "Bache__Pendiente");
+        assertNull(move.decrement);
+        assertEquals("Bache__Pendiente", move.increment);
+    }
+
+    @Test
+    public void move_estadoChange_decrementsOldAndIncrementsNew() {
+        ReportCounters.Move move = ReportCounters.move("Bache__Pendiente", "Bache__Resuelto");
+        assertEquals("Bache__Pendiente", move.decrement);
+        assertEquals("Bache__Resuelto", move.increment);
+    }
+
+    @Test
+    public void move_alreadyCounted_isNoOp() {
+        // Un reintento tras un error o plazo agotado no vuelve a sumar
+        assertNull(ReportCounters.move("Bache__Pendiente", "Bache__Pendiente"));
+    }
+
+    @Test
+    public void move_afterApplying_isNoOp() {
+        ReportCounters.Move move = ReportCounters.move("Bache__Pendiente", "Bache__Resuelto");
+        // countedAs queda en el contador sumado
+        assertNull(ReportCounters.move(move.increment, "Bache__Resuelto"));
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.alertamx.report;
+
+import com.example.alertamx.geo.ClusterIndex;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class ReportSpatialIndexTest {
+
+    private static final double LAT = 19.4326;
+    private static final double LNG = -99.1332;
+
+    private ReportStore store;
+
+    @Before
+    public void setUp() {
+        store = new ReportStore(RuntimeEnvironment.getApplication(), null);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    private static CachedReport report(String id, String estado, long updatedAt, double lat) {
+        return new CachedReport(id, "Bache", "Hoyo", "Centro", estado, "u1", "Ana", 1000,
+                updatedAt, 0, 0, lat, LNG);
+    }
+
+    private static void awaitLoaded(ReportIndex index) throws InterruptedException {
+        for (int i = 0; i < 500 && !index.ready().isComplete(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(index.ready().isSuccessful());
+    }
+
+    @Test
+    public void loadsStoredReportsAndAppliesChanges() throws InterruptedException {
+        store.upsertAll(Arrays.asList(report("a", "Pendiente", 1, LAT), report("b", "Pendiente", 1, LAT + 0.01)));
+        ReportSpatialIndex index = new ReportSpatialIndex(store);
+        awaitLoaded(index);
+        assertEquals(2, index.size());
+
+        store.delete(Collections.singletonList("a"));
+        assertEquals(1, index.size());
+        assertEquals("b", index.nearest(LAT, LNG, 1).get(0).getId());
+        List<ClusterIndex.Cluster> clusters = index.clusters(ClusterIndex.MAX_ZOOM, LAT - 1, LNG - 1, LAT + 1, LNG + 1);
+        assertEquals(1, clusters.size());
+        assertEquals("b", clusters.get(0).getSingleId());
+    }
+
+    @Test
+    public void deleteDuringLoad_isNotReinserted() throws InterruptedException {
+        store.upsertAll(Arrays.asList(report("a", "Pendiente", 1, LAT), report("b", "Pendiente", 1, LAT + 0.01)));
+        ReportSpatialIndex index = new ReportSpatialIndex(store) {
+            @Override
+            protected List<CachedReport> load(ReportStore store) {
+                List<CachedReport> reports = super.load(store);
+                // Llega un borrado entre la lectura de SQLite y la carga del índice
+                store.delete(Collections.singletonList("a"));
+                return reports;
+            }
+        };
+        awaitLoaded(index);
+
+        assertEquals(1, index.size());
+        assertEquals("b", index.nearest(LAT, LNG, 1).get(0).getId());
+    }
+
+    @Test
+    public void changeDuringLoad_keepsNewerVersion() throws InterruptedException {
+        store.upsertAll(Collections.singletonList(report("a", "Pendiente", 1, LAT)));
+        ReportSpatialIndex index = new ReportSpatialIndex(store) {
+            @Override
+            protected List<CachedReport> load(ReportStore store) {
+                List<CachedReport> reports = super.load(store);
+                store.upsertAll(Collections.singletonList(report("a", "Resuelto", 2, LAT)));
+                return reports;
+            }
+        };
+        awaitLoaded(index);
+
+        assertEquals("Resuelto", index.nearest(LAT, LNG, 1).get(0).getEstado());
+    }
+}
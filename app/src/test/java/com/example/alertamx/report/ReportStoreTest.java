@@ -0,0 +1,72 @@
+package com.example.alertamx.report;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+@RunWith(RobolectricTestRunner.class)
+public class ReportStoreTest {
+
+    private ReportStore store;
+
+    @Before
+    public void setUp() {
+        store = new ReportStore(RuntimeEnvironment.getApplication(), null);
+    }
+
+    @After
+    public void tearDown() {
+        store.close();
+    }
+
+    private static CachedReport report(String id, long fecha) {
+        return new CachedReport(id, "Bache", "Hoyo en la calle", "Centro", "Pendiente",
+                "u1", "Ana", fecha, fecha, 0, 0, null, null);
+    }
+
+    private static List<String> ids(List<CachedReport> reports) {
+        List<String> ids = new ArrayList<>();
+        for (CachedReport report : reports) {
+            ids.add(report.getId());
+        }
+        return ids;
+    }
+
+    @Test
+    public void page_cursorKeepsReportsWithSameFecha() {
+        store.upsertAll(Arrays.asList(report("a", 1000), report("b", 2000), report("c", 2000),
+                report("d", 2000), report("e", 3000)));
+
+        List<CachedReport> first = store.page(0, null, 2);
+        assertEquals(Arrays.asList("e", "d"), ids(first));
+
+        CachedReport last = first.get(first.size() - 1);
+        List<CachedReport> second = store.page(last.getFecha(), last.getId(), 2);
+        assertEquals(Arrays.asList("c", "b"), ids(second));
+
+        last = second.get(second.size() - 1);
+        assertEquals(Arrays.asList("a"), ids(store.page(last.getFecha(), last.getId(), 2)));
+    }
+
+    @Test
+    public void marks_onlyMoveForwardAndAreIndependent() {
+        assertEquals(0, store.getHighWaterMark());
+        assertEquals(0, store.getCreatedMark());
+
+        store.advanceHighWaterMark(5000);
+        store.advanceHighWaterMark(4000);
+        store.advanceCreatedMark(3000);
+
+        assertEquals(5000, store.getHighWaterMark());
+        assertEquals(3000, store.getCreatedMark());
+    }
+}
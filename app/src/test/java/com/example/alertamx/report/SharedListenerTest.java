@@ -0,0 +1,88 @@
+package com.example.alertamx.report;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Collections;
+
+import static org.junit.Assert.*;
+
+public class SharedListenerTest {
+
+    private static final long GRACE = 60_000;
+
+    private int opened;
+    private int closed;
+    // El test decide cuándo "pasa el tiempo"
+    private final FakeScheduler scheduler = new FakeScheduler();
+    private SharedListener listener;
+
+    @Before
+    public void setUp() {
+        listener = new SharedListener(() -> {
+            opened++;
+            return () -> closed++;
+        }, scheduler, GRACE);
+    }
+
+    @Test
+    public void manyConsumers_shareOneListener() {
+        listener.acquire();
+        listener.acquire();
+        listener.acquire();
+        assertEquals(1, opened);
+        assertEquals(3, listener.getReferences());
+
+        listener.release();
+        listener.release();
+        assertEquals(0, scheduler.pending());
+        assertTrue(listener.isOpen());
+    }
+
+    @Test
+    public void lastRelease_closesAfterGracePeriod() {
+        listener.acquire();
+        listener.release();
+        assertEquals(0, closed);
+        assertTrue(listener.isOpen());
+        assertEquals(Collections.singletonList(GRACE), scheduler.delays());
+
+        scheduler.runScheduled();
+        assertEquals(1, closed);
+        assertFalse(listener.isOpen());
+    }
+
+    @Test
+    public void reacquireWithinGrace_keepsListener() {
+        // Rotación o cambio de pestaña: se va el último y vuelve enseguida
+        listener.acquire();
+        listener.release();
+        listener.acquire();
+        assertEquals(0, scheduler.pending());
+        scheduler.runScheduled();
+
+        assertEquals(1, opened);
+        assertEquals(0, closed);
+        assertTrue(listener.isOpen());
+    }
+
+    @Test
+    public void reacquireAfterClose_opensAgain() {
+        listener.acquire();
+        listener.release();
+        scheduler.runScheduled();
+        listener.acquire();
+        assertEquals(2, opened);
+        assertEquals(1, closed);
+    }
+
+    @Test
+    public void extraRelease_isIgnored() {
+        listener.release();
+        listener.acquire();
+        listener.release();
+        listener.release();
+        assertEquals(0, listener.getReferences());
+        assertEquals(1, scheduler.pending());
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.alertamx.report;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class StatusChangeLogTest {
+
+    private StatusChangeLog log;
+
+    @Before
+    public void setUp() {
+        log = new StatusChangeLog();
+        log.apply("a", "Bache", "Pendiente", 1);
+        log.apply("b", "Robo o asalto", "Pendiente", 1);
+    }
+
+    @Test
+    public void firstSighting_isNotAChange() {
+        assertTrue(log.list().isEmpty());
+        assertFalse(log.apply("a", "Bache", "Pendiente", 2));
+    }
+
+    @Test
+    public void estadoChange_createsUnreadChange() {
+        assertTrue(log.apply("a", "Bache", "En proceso", 2));
+        List<StatusChangeLog.Change> changes = log.list();
+        assertEquals(1, changes.size());
+        assertEquals("Pendiente", changes.get(0).getFromEstado());
+        assertEquals("En proceso", changes.get(0).getToEstado());
+        assertTrue(changes.get(0).isUnread());
+        assertEquals(1, log.unreadCount());
+    }
+
+    @Test
+    public void unreadChanges_coalescePerReport() {
+        log.apply("a", "Bache", "En proceso", 2);
+        log.apply("a", "Bache", "Resuelto", 3);
+        List<StatusChangeLog.Change> changes = log.list();
+        assertEquals(1, changes.size());
+        assertEquals("Pendiente", changes.get(0).getFromEstado());
+        assertEquals("Resuelto", changes.get(0).getToEstado());
+    }
+
+    @Test
+    public void backToKnownEstado_dropsChange() {
+        log.apply("a", "Bache", "En proceso", 2);
+        assertTrue(log.apply("a", "Bache", "Pendiente", 3));
+        assertTrue(log.list().isEmpty());
+    }
+
+    @Test
+    public void afterRead_newChangeStartsFromLastSeen() {
+        log.apply("a", "Bache", "En proceso", 2);
+        assertTrue(log.markAllRead());
+        assertFalse(log.markAllRead());
+        log.apply("a", "Bache", "Resuelto", 3);
+        StatusChangeLog.Change change = log.list().get(0);
+        assertEquals("En proceso", change.getFromEstado());
+        assertTrue(change.isUnread());
+    }
+
+    @Test
+    public void list_newestFirstAndBounded() {
+        for (int i = 0; i < StatusChangeLog.MAX_CHANGES + 20; i++) {
+            log.apply("r" + i, "Bache", "Pendiente", i);
+            log.apply("r" + i, "Bache", "Resuelto", 1000 + i);
+        }
+        List<StatusChangeLog.Change> changes = log.list();
+        assertEquals(StatusChangeLog.MAX_CHANGES, changes.size());
+        assertEquals(1000 + StatusChangeLog.MAX_CHANGES + 19, changes.get(0).getUpdatedAt());
+    }
+
+    @Test
+    public void serialize_roundTrips() {
+        log.apply("a", "Bache\tprofundo", "En proceso", 2);
+        log.apply("b", "Robo o asalto", null, 3);
+        log.apply("c", "Fuga", "Pendiente", 4);
+
+        StatusChangeLog restored = StatusChangeLog.parse(log.serialize());
+        assertEquals(log.list().size(), restored.list().size());
+        assertEquals("Bache profundo", restored.list().get(1).getTipoReporte());
+        assertNull(restored.list().get(0).getToEstado());
+        // Los estados conocidos también se restauran: no se repite el aviso
+        assertFalse(restored.apply("c", "Fuga", "Pendiente", 5));
+        assertFalse(restored.apply("a", "Bache", "En proceso", 5));
+    }
+
+    @Test
+    public void highWaterMark_onlyMovesForwardAndRoundTrips() {
+        log.apply("a", "Bache", "En proceso", 9);
+        log.apply("b", "Robo o asalto", "Pendiente", 4);
+        assertEquals(9, log.getHighWaterMark());
+
+        assertEquals(9, StatusChangeLog.parse(log.serialize()).getHighWaterMark());
+        assertEquals(0, new StatusChangeLog().getHighWaterMark());
+    }
+
+    @Test
+    public void parse_garbageGivesEmptyLog() {
+        assertTrue(StatusChangeLog.parse("C\ta\tx\ty\tz\tno-es-numero\t1\n").list().isEmpty());
+        assertTrue(StatusChangeLog.parse(null).list().isEmpty());
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.alertamx.report;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TransferWindowTest {
+
+    private final List<long[]> samples = new ArrayList<>();
+    private TransferWindow window;
+
+    @Before
+    public void setUp() {
+        window = new TransferWindow((bytes, millis) -> samples.add(new long[]{bytes, millis}));
+    }
+
+    @Test
+    public void singleUpload_isOneSample() {
+        window.started(0);
+        window.transferred(1_000_000, 2_000);
+        window.finished(2_000);
+
+        assertEquals(1, samples.size());
+        assertArrayEquals(new long[]{1_000_000, 2_000}, samples.get(0));
+    }
+
+    @Test
+    public void concurrentUploads_measureTheWholeLink() {
+        // Dos subidas de 1 MB que comparten un enlace de 1 MB/s: 2 s en total
+        window.started(0);
+        window.started(0);
+        window.transferred(1_000_000, 2_000);
+        window.finished(2_000);
+        assertTrue(samples.isEmpty());
+        window.transferred(1_000_000, 2_000);
+        window.finished(2_000);
+
+        assertEquals(1, samples.size());
+        assertArrayEquals(new long[]{2_000_000, 2_000}, samples.get(0));
+        assertEquals(0, window.getActive());
+    }
+
+    @Test
+    public void overlappingUploads_spanFromFirstStartToLastEnd() {
+        window.started(0);
+        window.started(500);
+        window.transferred(600_000, 1_500);
+        window.finished(1_500);
+        window.transferred(900_000, 3_000);
+        window.finished(3_000);
+
+        assertEquals(1, samples.size());
+        assertArrayEquals(new long[]{1_500_000, 3_000}, samples.get(0));
+    }
+
+    @Test
+    public void continuousQueue_closesASampleEveryMaxWindow() {
+        window.started(0);
+        window.started(0);
+        window.transferred(4_000_000, TransferWindow.MAX_WINDOW_MILLIS - 1);
+        window.finished(TransferWindow.MAX_WINDOW_MILLIS);
+        assertEquals(1, samples.size());
+        assertArrayEquals(new long[]{4_000_000, TransferWindow.MAX_WINDOW_MILLIS}, samples.get(0));
+
+        // La ventana siguiente empieza donde cerró la anterior
+        window.transferred(1_000_000, TransferWindow.MAX_WINDOW_MILLIS + 2_000);
+        window.finished(TransferWindow.MAX_WINDOW_MILLIS + 2_000);
+        assertEquals(2, samples.size());
+        assertArrayEquals(new long[]{1_000_000, 2_000}, samples.get(1));
+    }
+
+    @Test
+    public void longUploadAcrossWindowClose_splitsItsBytesByWhenTheyWereSent() {
+        // Enlace de 1 MB/s repartido entre una subida de 0 a 12 s y otra de 0 a 11 s
+        window.started(0);
+        window.started(0);
+        for (long second = 1; second <= 12; second++) {
+            window.transferred(500_000, second * 1_000);
+            if (second <= 11) {
+                window.transferred(500_000, second * 1_000);
+            }
+            if (second == 11) {
+                window.finished(11_000);
+            }
+        }
+        window.finished(12_000);
+
+        // Ambas muestras quedan cerca de 1 MB/s; sumar todo lo de la subida larga al
+        // terminar pondría casi todos sus bytes en los últimos 2 s
+        assertEquals(2, samples.size());
+        assertArrayEquals(new long[]{9_500_000, 10_000}, samples.get(0));
+        assertArrayEquals(new long[]{2_000_000, 2_000}, samples.get(1));
+        assertEquals(0, window.getActive());
+    }
+
+    @Test
+    public void failedUpload_countsWhatItSent() {
+        window.started(0);
+        window.transferred(300_000, 500);
+        window.transferred(-5, 800);
+        window.finished(1_000);
+        assertArrayEquals(new long[]{300_000, 1_000}, samples.get(0));
+    }
+
+    @Test
+    public void unmatchedProgressAndFinish_areIgnored() {
+        window.transferred(1_000_000, 500);
+        window.finished(1_000);
+        assertTrue(samples.isEmpty());
+    }
+}
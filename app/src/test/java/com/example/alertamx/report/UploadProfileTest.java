@@ -0,0 +1,96 @@
+package com.example.alertamx.report;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class UploadProfileTest {
+
+    private static final double TARGET_SECONDS = 5.0;
+
+    @Test
+    public void estimator_firstSampleIsTakenAsIs() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+        assertFalse(estimator.hasSamples());
+
+        estimator.recordTransfer(500_000, 1000);
+        assertTrue(estimator.hasSamples());
+        assertEquals(500_000, estimator.getBytesPerSecond(), 0.001);
+    }
+
+    @Test
+    public void estimator_restoreKeepsSamplesOfThisSession() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+        estimator.recordTransfer(500_000, 1000);
+        estimator.restore(100_000, 80);
+
+        assertEquals(500_000, estimator.getBytesPerSecond(), 0.001);
+        assertEquals(80, estimator.getRttMillis(), 0.001);
+    }
+
+    @Test
+    public void estimator_smoothsLaterSamples() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+        estimator.recordTransfer(1_000_000, 1000);
+        estimator.recordTransfer(100_000, 1000);
+
+        // 0.3 * 100k + 0.7 * 1M
+        assertEquals(730_000, estimator.getBytesPerSecond(), 0.001);
+    }
+
+    @Test
+    public void estimator_ignoresTinyTransfers() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+        estimator.recordTransfer(1024, 1);
+        estimator.recordTransfer(100_000, 0);
+        assertFalse(estimator.hasSamples());
+    }
+
+    @Test
+    public void estimator_tracksRtt() {
+        ThroughputEstimator estimator = new ThroughputEstimator();
+        estimator.recordRtt(100);
+        estimator.recordRtt(200);
+        assertEquals(130, estimator.getRttMillis(), 0.001);
+    }
+
+    @Test
+    public void profiles_areOrderedBySize() {
+        UploadProfile[] profiles = UploadProfile.values();
+        for (int i = 1; i < profiles.length; i++) {
+            assertTrue(profiles[i].estimatedBytes() < profiles[i - 1].estimatedBytes());
+            assertTrue(profiles[i].getMaxEdge() < profiles[i - 1].getMaxEdge());
+        }
+    }
+
+    @Test
+    public void choose_wifiGetsHighQuality() {
+        // ~16 Mbit/s de subida, 30 ms de RTT
+        assertEquals(UploadProfile.HIGH, UploadProfile.choose(2_000_000, 30, TARGET_SECONDS));
+    }
+
+    @Test
+    public void choose_weak3gGetsLowerQuality() {
+        // ~400 kbit/s de subida, 300 ms de RTT
+        UploadProfile profile = UploadProfile.choose(50_000, 300, TARGET_SECONDS);
+        assertEquals(UploadProfile.LOW, profile);
+        assertTrue(profile.estimatedSeconds(50_000, 300) <= TARGET_SECONDS);
+    }
+
+    @Test
+    public void choose_fallsBackToMinimalWhenNothingFits() {
+        assertEquals(UploadProfile.MINIMAL, UploadProfile.choose(5_000, 800, TARGET_SECONDS));
+    }
+
+    @Test
+    public void choose_withoutMeasurementsUsesDefault() {
+        assertEquals(UploadProfile.DEFAULT, UploadProfile.choose(0, 0, TARGET_SECONDS));
+    }
+
+    @Test
+    public void choose_highRttPushesToSmallerProfile() {
+        UploadProfile lowLatency = UploadProfile.choose(150_000, 50, TARGET_SECONDS);
+        UploadProfile highLatency = UploadProfile.choose(150_000, 1000, TARGET_SECONDS);
+        assertTrue(highLatency.ordinal() > lowLatency.ordinal());
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.alertamx.resilience;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.Assert.*;
+
+public class BackendTest {
+
+    private static final long TIMEOUT = 10_000;
+
+    private FakeClock clock;
+    private Backend backend;
+    // Intentos arrancados; el test decide cómo y cuándo termina cada uno
+    private final List<Backend.Callback<String>> started = new ArrayList<>();
+    private final List<String> events = new ArrayList<>();
+    private String result;
+    private Exception error;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock();
+        backend = new Backend("firestore", clock,
+                new CircuitBreaker(clock, 3, 30_000),
+                new Bulkhead(2, 1),
+                e -> e instanceof IOException,
+                (name, operation, attempt, outcome, latency) ->
+                        events.add(operation + "#" + attempt + " " + outcome + " " + latency));
+    }
+
+    private void execute(CallPolicy policy) {
+        backend.execute("get", policy, started::add, new Backend.Callback<String>() {
+            @Override
+            public void onSuccess(String value) {
+                result = value;
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                error = e;
+            }
+        });
+    }
+
+    private static CallPolicy retrying(int attempts) {
+        return new CallPolicy(TIMEOUT, 0, attempts, new Backoff(1000, 8000, new Random(1)));
+    }
+
+    @Test
+    public void success_isReportedWithLatency() {
+        execute(retrying(3));
+        clock.advance(250);
+        started.get(0).onSuccess("ok");
+
+        assertEquals("ok", result);
+        assertNull(error);
+        assertEquals("[get#1 SUCCESS 250]", events.toString());
+        assertEquals(0, backend.getBulkhead().getActive());
+        assertEquals(0, clock.pending());
+    }
+
+    @Test
+    public void transientError_retriesWithBackoff() {
+        execute(retrying(3));
+        started.get(0).onFailure(new IOException("red"));
+        assertEquals(1, started.size());
+
+        // Primer reintento entre 500 y 1000 ms
+        clock.advance(1000);
+        assertEquals(2, started.size());
+        started.get(1).onSuccess("ok");
+
+        assertEquals("ok", result);
+        assertEquals(2, events.size());
+        assertTrue(events.get(0).startsWith("get#1 TRANSIENT_ERROR"));
+        assertTrue(events.get(1).startsWith("get#2 SUCCESS"));
+    }
+
+    @Test
+    public void requestError_isNotRetried() {
+        execute(retrying(3));
+        IllegalArgumentException denied = new IllegalArgumentException("contraseña");
+        started.get(0).onFailure(denied);
+
+        clock.advance(60_000);
+        assertEquals(1, started.size());
+        assertSame(denied, error);
+        // El backend respondió: no cuenta para el circuito
+        assertEquals(CircuitBreaker.State.CLOSED, backend.getBreaker().getState());
+    }
+
+    @Test
+    public void transientButNotRetryable_failsWithoutRetryAndCountsForCircuit() {
+        Backend limited = new Backend("auth", clock,
+                new CircuitBreaker(clock, 1, 30_000),
+                new Bulkhead(2, 1),
+                e -> e instanceof IOException,
+                e -> !(e instanceof SocketTimeoutException),
+                (name, operation, attempt, outcome, latency) -> events.add(outcome.toString()));
+        SocketTimeoutException throttled = new SocketTimeoutException("demasiadas peticiones");
+        limited.execute("login", retrying(3), callback -> {
+            started.add(null);
+            callback.onFailure(throttled);
+        }, new Backend.Callback<Object>() {
+            @Override
+            public void onSuccess(Object value) {
+                fail();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                error = e;
+            }
+        });
+
+        assertEquals(CircuitBreaker.State.OPEN, limited.getBreaker().getState());
+        clock.advance(60_000);
+        assertEquals(1, started.size());
+        assertSame(throttled, error);
+        assertEquals("[TRANSIENT_ERROR]", events.toString());
+    }
+
+    @Test
+    public void attemptTimeout_failsAndIgnoresLateResult() {
+        execute(CallPolicy.once(TIMEOUT));
+        clock.advance(TIMEOUT);
+
+        assertTrue(error instanceof TimeoutException);
+        assertEquals("[get#1 TIMEOUT 10000]", events.toString());
+        assertEquals(0, backend.getBulkhead().getActive());
+
+        started.get(0).onSuccess("tarde");
+        assertNull(result);
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    public void timeout_isRetriedLikeTransientError() {
+        execute(retrying(2));
+        clock.advance(TIMEOUT);
+        assertNull(error);
+
+        clock.advance(1000);
+        assertEquals(2, started.size());
+        started.get(1).onSuccess("ok");
+        assertEquals("ok", result);
+    }
+
+    @Test
+    public void deadline_stopsRetriesThatWouldOverrun() {
+        execute(new CallPolicy(TIMEOUT, 5_000, 5, new Backoff(1000, 8000, new Random(1))));
+        // El plazo total acorta el del intento
+        clock.advance(5_000);
+
+        assertTrue(error instanceof TimeoutException);
+        assertEquals(1, started.size());
+        assertEquals(0, clock.pending());
+    }
+
+    @Test
+    public void exhaustedAttempts_reportLastError() {
+        execute(retrying(2));
+        started.get(0).onFailure(new IOException("uno"));
+        clock.advance(1000);
+        IOException last = new IOException("dos");
+        started.get(1).onFailure(last);
+
+        assertSame(last, error);
+        assertEquals(2, started.size());
+    }
+
+    @Test
+    public void openCircuit_rejectsWithoutCalling() {
+        for (int i = 0; i < 3; i++) {
+            execute(CallPolicy.once(TIMEOUT));
+            started.get(i).onFailure(new IOException("caído"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, backend.getBreaker().getState());
+
+        error = null;
+        execute(CallPolicy.once(TIMEOUT));
+        assertEquals(3, started.size());
+        assertTrue(error instanceof CircuitOpenException);
+        assertEquals(30_000, ((CircuitOpenException) error).getRetryAfterMillis());
+        assertTrue(events.get(3).startsWith("get#1 CIRCUIT_OPEN"));
+        assertEquals(0, backend.getBulkhead().getActive());
+    }
+
+    @Test
+    public void bulkhead_queuesThenRejects() {
+        execute(CallPolicy.once(TIMEOUT));
+        execute(CallPolicy.once(TIMEOUT));
+        execute(CallPolicy.once(TIMEOUT));
+        assertEquals(2, started.size());
+        assertEquals(1, backend.getBulkhead().getQueued());
+
+        execute(CallPolicy.once(TIMEOUT));
+        assertTrue(error instanceof RejectedExecutionException);
+        assertTrue(events.get(0).startsWith("get#1 BULKHEAD_FULL"));
+
+        // Al terminar una, la que esperaba ocupa su hueco
+        started.get(0).onSuccess("ok");
+        assertEquals(3, started.size());
+        assertEquals(2, backend.getBulkhead().getActive());
+        assertEquals(0, backend.getBulkhead().getQueued());
+    }
+
+    @Test
+    public void callThatThrows_isTreatedAsFailure() {
+        backend.execute("get", CallPolicy.once(TIMEOUT), callback -> {
+            throw new IllegalStateException("sin sesión");
+        }, new Backend.Callback<Object>() {
+            @Override
+            public void onSuccess(Object value) {
+                fail();
+            }
+
+            @Override
+            public void onFailure(Exception e) {
+                error = e;
+            }
+        });
+
+        assertTrue(error instanceof IllegalStateException);
+        assertEquals(0, backend.getBulkhead().getActive());
+        assertEquals(0, clock.pending());
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.alertamx.resilience;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class BackoffTest {
+
+    @Test
+    public void ceiling_doublesUpToMax() {
+        Backoff backoff = new Backoff(100, 1000, new Random(1));
+        assertEquals(100, backoff.ceilingMillis(1));
+        assertEquals(200, backoff.ceilingMillis(2));
+        assertEquals(400, backoff.ceilingMillis(3));
+        assertEquals(800, backoff.ceilingMillis(4));
+        assertEquals(1000, backoff.ceilingMillis(5));
+        assertEquals(1000, backoff.ceilingMillis(80));
+    }
+
+    @Test
+    public void delay_staysBetweenHalfAndCeiling() {
+        Backoff backoff = new Backoff(100, 10_000, new Random(7));
+        for (int retry = 1; retry <= 10; retry++) {
+            long ceiling = backoff.ceilingMillis(retry);
+            for (int i = 0; i < 200; i++) {
+                long delay = backoff.delayMillis(retry);
+                assertTrue("reintento " + retry + ": " + delay, delay >= ceiling / 2 && delay <= ceiling);
+            }
+        }
+    }
+
+    @Test
+    public void delay_isJittered() {
+        // Clientes que fallaron a la vez no deben reintentar todos en el mismo instante
+        Backoff backoff = new Backoff(1000, 60_000, new Random(3));
+        long first = backoff.delayMillis(3);
+        boolean differs = false;
+        for (int i = 0; i < 20 && !differs; i++) {
+            differs = backoff.delayMillis(3) != first;
+        }
+        assertTrue(differs);
+    }
+}
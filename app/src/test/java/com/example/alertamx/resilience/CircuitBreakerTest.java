@@ -0,0 +1,76 @@
+package com.example.alertamx.resilience;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class CircuitBreakerTest {
+
+    private static final long OPEN_MILLIS = 30_000;
+
+    private FakeClock clock;
+    private CircuitBreaker breaker;
+
+    @Before
+    public void setUp() {
+        clock = new FakeClock();
+        breaker = new CircuitBreaker(clock, 3, OPEN_MILLIS);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertTrue(breaker.tryAcquire());
+            breaker.onFailure();
+        }
+    }
+
+    @Test
+    public void opensAfterConsecutiveFailures() {
+        fail(2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        fail(1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        assertEquals(OPEN_MILLIS, breaker.retryAfterMillis());
+    }
+
+    @Test
+    public void successResetsFailureCount() {
+        fail(2);
+        assertTrue(breaker.tryAcquire());
+        breaker.onSuccess();
+        fail(2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    public void afterOpenPeriod_letsOneProbeThrough() {
+        fail(3);
+        clock.advance(OPEN_MILLIS);
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+
+        assertTrue(breaker.tryAcquire());
+        // Mientras la prueba está en vuelo no sale ninguna otra
+        assertFalse(breaker.tryAcquire());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.tryAcquire());
+    }
+
+    @Test
+    public void failedProbe_reopens() {
+        fail(3);
+        clock.advance(OPEN_MILLIS);
+        assertTrue(breaker.tryAcquire());
+        breaker.onFailure();
+
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.tryAcquire());
+        clock.advance(OPEN_MILLIS - 1);
+        assertFalse(breaker.tryAcquire());
+        clock.advance(1);
+        assertTrue(breaker.tryAcquire());
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.alertamx.resilience;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Reloj manual: el tiempo solo pasa con advance() y ahí se ejecuta lo que venció
+class FakeClock implements Clock {
+
+    private long now;
+    private final List<Timer> timers = new ArrayList<>();
+
+    private static final class Timer {
+        final long due;
+        final Runnable task;
+
+        Timer(long due, Runnable task) {
+            this.due = due;
+            this.task = task;
+        }
+    }
+
+    @Override
+    public long nowMillis() {
+        return now;
+    }
+
+    @Override
+    public Runnable schedule(Runnable task, long delayMillis) {
+        Timer timer = new Timer(now + delayMillis, task);
+        timers.add(timer);
+        return () -> timers.remove(timer);
+    }
+
+    void advance(long millis) {
+        long target = now + millis;
+        while (true) {
+            Timer next = null;
+            for (Timer timer : timers) {
+                if (timer.due <= target && (next == null || timer.due < next.due)) {
+                    next = timer;
+                }
+            }
+            if (next == null) {
+                break;
+            }
+            timers.remove(next);
+            now = next.due;
+            next.task.run();
+        }
+        now = target;
+    }
+
+    int pending() {
+        return timers.size();
+    }
+}
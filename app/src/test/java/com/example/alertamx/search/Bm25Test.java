@@ -0,0 +1,84 @@
+package com.example.alertamx.search;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.*;
+
+public class Bm25Test {
+
+    private static final double[] WEIGHTS = {2.0, 1.0, 1.5};
+
+    // matchinfo 'pcnalx' de una frase sobre 3 columnas
+    private static int[] matchInfo(int totalDocs, int[] avgLength, int[] length,
+                                   int[] hits, int[] docsWithHit) {
+        int[] info = new int[3 + 3 + 3 + 9];
+        info[0] = 1;
+        info[1] = 3;
+        info[2] = totalDocs;
+        for (int column = 0; column < 3; column++) {
+            info[3 + column] = avgLength[column];
+            info[6 + column] = length[column];
+            info[9 + 3 * column] = hits[column];
+            info[9 + 3 * column + 1] = hits[column];
+            info[9 + 3 * column + 2] = docsWithHit[column];
+        }
+        return info;
+    }
+
+    @Test
+    public void parseMatchInfo_readsNativeOrder() {
+        ByteBuffer buffer = ByteBuffer.allocate(12).order(ByteOrder.nativeOrder());
+        buffer.putInt(1).putInt(3).putInt(50_000);
+        assertArrayEquals(new int[]{1, 3, 50_000}, Bm25.parseMatchInfo(buffer.array()));
+    }
+
+    @Test
+    public void score_moreHitsRankHigher() {
+        int[] once = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 20, 5},
+                new int[]{0, 1, 0}, new int[]{0, 100, 0});
+        int[] twice = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 20, 5},
+                new int[]{0, 2, 0}, new int[]{0, 100, 0});
+        assertTrue(Bm25.score(twice, WEIGHTS) > Bm25.score(once, WEIGHTS));
+    }
+
+    @Test
+    public void score_shorterDescriptionRanksHigher() {
+        int[] shortText = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 8, 5},
+                new int[]{0, 1, 0}, new int[]{0, 100, 0});
+        int[] longText = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 80, 5},
+                new int[]{0, 1, 0}, new int[]{0, 100, 0});
+        assertTrue(Bm25.score(shortText, WEIGHTS) > Bm25.score(longText, WEIGHTS));
+    }
+
+    @Test
+    public void score_rareTermsRankHigher() {
+        int[] rare = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 20, 5},
+                new int[]{0, 1, 0}, new int[]{0, 5, 0});
+        int[] common = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 20, 5},
+                new int[]{0, 1, 0}, new int[]{0, 900, 0});
+        assertTrue(Bm25.score(rare, WEIGHTS) > Bm25.score(common, WEIGHTS));
+        // Aun presente en todas las filas, el término no resta
+        int[] everywhere = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 20, 5},
+                new int[]{0, 1, 0}, new int[]{0, 1000, 0});
+        assertTrue(Bm25.score(everywhere, WEIGHTS) > 0);
+    }
+
+    @Test
+    public void score_tipoReporteOutweighsDescripcion() {
+        int[] inTipo = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 20, 5},
+                new int[]{1, 0, 0}, new int[]{100, 100, 100});
+        int[] inDescripcion = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 20, 5},
+                new int[]{0, 1, 0}, new int[]{100, 100, 100});
+        assertTrue(Bm25.score(inTipo, WEIGHTS) > Bm25.score(inDescripcion, WEIGHTS));
+    }
+
+    @Test
+    public void score_noHitsIsZero() {
+        int[] none = matchInfo(1000, new int[]{3, 20, 5}, new int[]{3, 20, 5},
+                new int[]{0, 0, 0}, new int[]{0, 0, 0});
+        assertEquals(0, Bm25.score(none, WEIGHTS), 0);
+    }
+}
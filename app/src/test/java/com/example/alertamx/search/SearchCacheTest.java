@@ -0,0 +1,49 @@
+package com.example.alertamx.search;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class SearchCacheTest {
+
+    @Test
+    public void put_thenGetReturnsRanking() {
+        SearchCache cache = new SearchCache(4);
+        long[] ranked = {3, 1, 2};
+        cache.put("bache*", cache.generation(), ranked);
+        assertSame(ranked, cache.get("bache*"));
+        assertNull(cache.get("fuga*"));
+    }
+
+    @Test
+    public void invalidate_dropsRankings() {
+        SearchCache cache = new SearchCache(4);
+        cache.put("bache*", cache.generation(), new long[]{1});
+        cache.invalidate();
+        assertNull(cache.get("bache*"));
+    }
+
+    @Test
+    public void put_afterWriteIsIgnored() {
+        SearchCache cache = new SearchCache(4);
+        long generation = cache.generation();
+        // Una escritura termina mientras se calculaba el ranking
+        cache.invalidate();
+        cache.put("bache*", generation, new long[]{1});
+        assertNull(cache.get("bache*"));
+    }
+
+    @Test
+    public void capacity_evictsLeastRecentlyUsed() {
+        SearchCache cache = new SearchCache(2);
+        cache.put("a*", cache.generation(), new long[]{1});
+        cache.put("b*", cache.generation(), new long[]{2});
+        // Usar "a*" la deja como la más reciente
+        cache.get("a*");
+        cache.put("c*", cache.generation(), new long[]{3});
+
+        assertNotNull(cache.get("a*"));
+        assertNull(cache.get("b*"));
+        assertNotNull(cache.get("c*"));
+    }
+}
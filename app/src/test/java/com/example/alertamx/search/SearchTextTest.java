@@ -0,0 +1,38 @@
+package com.example.alertamx.search;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class SearchTextTest {
+
+    @Test
+    public void fold_removesAccentsAndCase() {
+        assertEquals("falla de energia", SearchText.fold("Falla de ENERGÍA"));
+        assertEquals("pinguino nino", SearchText.fold("Pingüino  niño"));
+    }
+
+    @Test
+    public void tokens_splitOnPunctuation() {
+        assertEquals(Arrays.asList("fuga", "de", "agua", "col", "roma", "norte", "123"),
+                SearchText.tokens("¡Fuga de agua! (Col. Roma-Norte #123)"));
+        assertTrue(SearchText.tokens(null).isEmpty());
+        assertTrue(SearchText.tokens("  ¿? ").isEmpty());
+    }
+
+    @Test
+    public void matchQuery_prefixOnLastToken() {
+        assertEquals("fuga de agu*", SearchText.matchQuery("Fuga de agu"));
+        // Una sola letra al final no se usa como prefijo
+        assertEquals("fuga a", SearchText.matchQuery("fuga a"));
+        assertNull(SearchText.matchQuery("***"));
+    }
+
+    @Test
+    public void matchQuery_neutralizesOperators() {
+        // Comillas, guiones y paréntesis no llegan a la sintaxis de MATCH
+        assertEquals("robo or asalto no*", SearchText.matchQuery("\"robo\" OR -asalto (NO"));
+    }
+}
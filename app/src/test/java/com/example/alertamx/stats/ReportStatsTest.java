@@ -0,0 +1,139 @@
+package com.example.alertamx.stats;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ReportStatsTest {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+    // 2024-05-01 00:00 UTC
+    private static final long DAY0 = 19844 * ReportStats.DAY_MILLIS;
+
+    private ReportStats stats;
+
+    @Before
+    public void setUp() {
+        stats = new ReportStats(0);
+    }
+
+    @Test
+    public void upsert_countsPerDayTipoAndEstado() {
+        stats.upsert("a", "Robo o asalto", "Pendiente", DAY0 + HOUR, 0);
+        stats.upsert("b", "Robo o asalto", "Pendiente", DAY0 + 2 * HOUR, 0);
+        stats.upsert("c", "Bache", "Pendiente", DAY0 + 3 * HOUR, 0);
+        stats.upsert("d", "Bache", "Pendiente", DAY0 + 25 * HOUR, 0);
+
+        int day = stats.dayOf(DAY0);
+        assertEquals(3, stats.count(day, null, null));
+        assertEquals(2, stats.count(day, "Robo o asalto", null));
+        assertEquals(1, stats.count(day + 1, "Bache", "Pendiente"));
+        assertEquals(0, stats.count(day, "Inundación", null));
+        assertArrayEquals(new int[]{3, 1, 0},
+                stats.countsPerDay(DAY0, DAY0 + 2 * ReportStats.DAY_MILLIS, null, null));
+    }
+
+    @Test
+    public void estadoChange_movesCountWithoutDuplicating() {
+        stats.upsert("a", "Bache", "Pendiente", DAY0, 0);
+        stats.upsert("a", "Bache", "En proceso", DAY0, 0);
+        // Un cambio que no toca tipo, estado, fecha ni resolución no cuenta de nuevo
+        stats.upsert("a", "Bache", "En proceso", DAY0, 0);
+
+        int day = stats.dayOf(DAY0);
+        assertEquals(1, stats.count(day, null, null));
+        assertEquals(0, stats.count(day, null, "Pendiente"));
+        assertEquals(1, stats.count(day, "Bache", "En proceso"));
+    }
+
+    @Test
+    public void remove_subtractsEverything() {
+        stats.upsert("a", "Bache", ReportStats.ESTADO_RESUELTO, DAY0, DAY0 + 5 * HOUR);
+        stats.remove("a");
+        stats.remove("desconocido");
+
+        assertEquals(0, stats.size());
+        assertEquals(0, stats.count(stats.dayOf(DAY0), null, null));
+        assertEquals(0, stats.resolvedCount(DAY0, DAY0 + ReportStats.DAY_MILLIS));
+    }
+
+    @Test
+    public void medianResolution_withinHistogramError() {
+        // Resueltos en 1, 2, 4, 8 y 16 horas: la mediana es 4 h
+        long[] hours = {1, 2, 4, 8, 16};
+        for (int i = 0; i < hours.length; i++) {
+            stats.upsert("r" + i, "Bache", "Pendiente", DAY0, 0);
+            stats.upsert("r" + i, "Bache", ReportStats.ESTADO_RESUELTO, DAY0, DAY0 + hours[i] * HOUR);
+        }
+        long median = stats.medianResolutionMillis(DAY0, DAY0 + ReportStats.DAY_MILLIS);
+        assertEquals(4 * HOUR, median, 4 * HOUR * 0.125);
+        assertEquals(5, stats.resolvedCount(DAY0, DAY0 + ReportStats.DAY_MILLIS));
+        assertEquals(-1, stats.medianResolutionMillis(DAY0 + 10 * ReportStats.DAY_MILLIS,
+                DAY0 + 11 * ReportStats.DAY_MILLIS));
+    }
+
+    @Test
+    public void reopened_dropsResolution() {
+        stats.upsert("a", "Bache", ReportStats.ESTADO_RESUELTO, DAY0, DAY0 + HOUR);
+        stats.upsert("a", "Bache", "En proceso", DAY0, 0);
+        assertEquals(0, stats.resolvedCount(DAY0, DAY0 + ReportStats.DAY_MILLIS));
+
+        // Al resolverse de nuevo cuenta la nueva resolución
+        stats.upsert("a", "Bache", ReportStats.ESTADO_RESUELTO, DAY0, DAY0 + 10 * HOUR);
+        assertEquals(10 * HOUR, stats.medianResolutionMillis(DAY0, DAY0 + ReportStats.DAY_MILLIS),
+                10 * HOUR * 0.125);
+    }
+
+    @Test
+    public void resolution_usesResueltoEnNotWhenItWasSeen() {
+        // El reporte llega ya resuelto días después: cuenta la hora guardada en el documento
+        stats.upsert("a", "Bache", ReportStats.ESTADO_RESUELTO, DAY0, DAY0 + 3 * HOUR);
+        stats.upsert("a", "Bache", ReportStats.ESTADO_RESUELTO, DAY0, DAY0 + 3 * HOUR);
+
+        assertEquals(1, stats.resolvedCount(DAY0, DAY0 + ReportStats.DAY_MILLIS));
+        assertEquals(3 * HOUR, stats.medianResolutionMillis(DAY0, DAY0 + ReportStats.DAY_MILLIS),
+                3 * HOUR * 0.125);
+    }
+
+    @Test
+    public void resolvedWithoutResueltoEn_countsPerDayButNotResolution() {
+        stats.upsert("a", "Bache", ReportStats.ESTADO_RESUELTO, DAY0, 0);
+
+        assertEquals(1, stats.count(stats.dayOf(DAY0), null, ReportStats.ESTADO_RESUELTO));
+        assertEquals(0, stats.resolvedCount(DAY0, DAY0 + ReportStats.DAY_MILLIS));
+
+        // Cuando el documento recibe la hora, entra en las estadísticas
+        stats.upsert("a", "Bache", ReportStats.ESTADO_RESUELTO, DAY0, DAY0 + HOUR);
+        assertEquals(1, stats.resolvedCount(DAY0, DAY0 + ReportStats.DAY_MILLIS));
+    }
+
+    @Test
+    public void dayOf_usesLocalMidnight() {
+        // Ciudad de México: UTC-6. 03:00 UTC del día 1 es 21:00 del día anterior
+        ReportStats local = new ReportStats(-6 * HOUR);
+        local.upsert("a", "Bache", "Pendiente", DAY0 + 3 * HOUR, 0);
+        assertEquals(1, local.count(stats.dayOf(DAY0) - 1, null, null));
+        assertEquals(stats.dayOf(DAY0) - 1, local.dayOf(DAY0 + 3 * HOUR));
+    }
+
+    @Test
+    public void bin_roundTripsWithinOneEighth() {
+        for (long minutes = 1; minutes < 1_000_000; minutes = minutes * 3 / 2 + 1) {
+            long millis = minutes * 60_000;
+            long estimate = ReportStats.binMidpoint(ReportStats.bin(millis));
+            assertEquals(millis, estimate, millis * 0.125 + 60_000);
+        }
+    }
+
+    @Test
+    public void seriesGrowInBothDirections() {
+        stats.upsert("a", "Bache", "Pendiente", DAY0, 0);
+        stats.upsert("b", "Bache", "Pendiente", DAY0 - 400 * ReportStats.DAY_MILLIS, 0);
+        stats.upsert("c", "Bache", "Pendiente", DAY0 + 400 * ReportStats.DAY_MILLIS, 0);
+        int day = stats.dayOf(DAY0);
+        assertEquals(1, stats.count(day - 400, "Bache", "Pendiente"));
+        assertEquals(1, stats.count(day, "Bache", "Pendiente"));
+        assertEquals(1, stats.count(day + 400, "Bache", "Pendiente"));
+    }
+}
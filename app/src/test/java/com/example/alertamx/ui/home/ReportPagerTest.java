@@ -0,0 +1,29 @@
+package com.example.alertamx.ui.home;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class ReportPagerTest {
+
+    private static final int PAGE_SIZE = 20;
+
+    @Test
+    public void shortPageFromServer_isTheEnd() {
+        assertTrue(ReportPager.isLastPage(7, PAGE_SIZE, false));
+        assertTrue(ReportPager.isLastPage(0, PAGE_SIZE, false));
+    }
+
+    @Test
+    public void shortPageFromCache_keepsPaging() {
+        // Sin red: el caché solo tiene parte de la página, el servidor puede tener más
+        assertFalse(ReportPager.isLastPage(7, PAGE_SIZE, true));
+        assertFalse(ReportPager.isLastPage(0, PAGE_SIZE, true));
+    }
+
+    @Test
+    public void fullPage_isNeverTheEnd() {
+        assertFalse(ReportPager.isLastPage(PAGE_SIZE, PAGE_SIZE, false));
+        assertFalse(ReportPager.isLastPage(PAGE_SIZE, PAGE_SIZE, true));
+    }
+}
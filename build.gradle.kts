@@ -7,4 +7,5 @@ buildscript {
 plugins {
     id("com.android.application") version "8.2.2" apply false
     id("com.google.gms.google-services") version "4.4.3" apply false
+    id("me.champeau.jmh") version "0.7.2" apply false
 }
\ No newline at end of file
@@ -15,4 +15,5 @@ dependencyResolutionManagement {
 
 rootProject.name = "AlertaMX"
 include(":app")
+include(":validation")
  
\ No newline at end of file
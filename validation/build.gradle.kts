@@ -0,0 +1,25 @@
+plugins {
+    `java-library`
+    id("me.champeau.jmh")
+}
+
+// Validación de entradas en Java puro: la usa la app (minSdk 24) y se mide con JMH en la JVM.
+// release 8 compila contra la API de Java 8 y no solo su bytecode
+tasks.withType<JavaCompile>().configureEach {
+    options.release.set(8)
+    // Los comentarios y textos de prueba están en español
+    options.encoding = "UTF-8"
+}
+
+dependencies {
+    testImplementation("junit:junit:4.13.2")
+}
+
+// ./gradlew :validation:jmh — el perfilador gc muestra los bytes asignados por operación
+jmh {
+    jmhVersion.set("1.37")
+    fork.set(1)
+    warmupIterations.set(3)
+    iterations.set(5)
+    profilers.add("gc")
+}
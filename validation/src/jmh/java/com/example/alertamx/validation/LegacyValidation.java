@@ -0,0 +1,60 @@
+package com.example.alertamx.validation;
+
+import java.util.regex.Pattern;
+
+// Validación anterior de la app, copiada tal cual como referencia para medir.
+// EMAIL_ADDRESS es la expresión de android.util.Patterns, que no existe en la JVM
+final class LegacyValidation {
+
+    static final Pattern EMAIL_ADDRESS = Pattern.compile(
+            "[a-zA-Z0-9\\+\\.\\_\\%\\-\\+]{1,256}" +
+                    "\\@" +
+                    "[a-zA-Z0-9][a-zA-Z0-9\\-]{0,64}" +
+                    "(" +
+                    "\\." +
+                    "[a-zA-Z0-9][a-zA-Z0-9\\-]{0,25}" +
+                    ")+"
+    );
+
+    private LegacyValidation() {
+    }
+
+    // AuthRepository.isValidEmail
+    static boolean isValidEmail(String email) {
+        return email != null &&
+                EMAIL_ADDRESS.matcher(email).matches() &&
+                email.length() <= 254;
+    }
+
+    // AuthRepository.isValidPassword
+    static boolean isValidPassword(String password) {
+        return password != null &&
+                password.length() >= 6 &&
+                password.length() <= 128;
+    }
+
+    // AuthRepository.isSuspiciousEmail
+    static boolean isSuspiciousEmail(String email) {
+        String[] suspiciousPatterns = {
+                "..",
+                ".@",
+                "@.",
+                "''",
+                "\\\"\\\""
+        };
+
+        for (String pattern : suspiciousPatterns) {
+            if (email.contains(pattern)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // ReportFormActivity.validateForm, después de trim()
+    static boolean isValidReport(String tipoReporte, String descripcion, String ubicacion) {
+        return !tipoReporte.trim().isEmpty()
+                && !descripcion.trim().isEmpty()
+                && !ubicacion.trim().isEmpty();
+    }
+}
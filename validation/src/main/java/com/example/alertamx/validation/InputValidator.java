@@ -0,0 +1,157 @@
+package com.example.alertamx.validation;
+
+// Validación de los campos de la app en una sola pasada sobre el texto y sin
+// reservar memoria: no hay expresiones regulares, subcadenas ni arreglos
+// temporales. Recibe CharSequence para poder validar el Editable de un
+// EditText sin convertirlo antes a String.
+public final class InputValidator {
+
+    // Longitud máxima de una dirección según RFC 5321
+    public static final int EMAIL_MAX_LENGTH = 254;
+    public static final int PASSWORD_MIN_LENGTH = 6;
+    public static final int PASSWORD_MAX_LENGTH = 128;
+    public static final int TIPO_REPORTE_MAX_LENGTH = 60;
+    public static final int DESCRIPCION_MAX_LENGTH = 1000;
+    public static final int UBICACION_MAX_LENGTH = 200;
+
+    // Mismos límites que android.util.Patterns.EMAIL_ADDRESS
+    private static final int LOCAL_MAX_LENGTH = 256;
+    private static final int FIRST_LABEL_MAX_LENGTH = 65;
+    private static final int LABEL_MAX_LENGTH = 26;
+
+    private InputValidator() {
+    }
+
+    // Acepta lo mismo que Patterns.EMAIL_ADDRESS hasta 254 caracteres. Las
+    // direcciones con ".." o un punto antes de la arroba son SUSPICIOUS
+    public static ValidationResult email(CharSequence email) {
+        if (email == null || email.length() == 0) {
+            return ValidationResult.EMPTY;
+        }
+        int length = email.length();
+        if (length > EMAIL_MAX_LENGTH) {
+            return ValidationResult.TOO_LONG;
+        }
+
+        boolean suspicious = false;
+        boolean inDomain = false;
+        int localLength = 0;
+        int labels = 0;
+        int labelLength = 0;
+        char previous = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (!inDomain) {
+                if (c == '@') {
+                    if (localLength == 0) {
+                        return ValidationResult.INVALID_FORMAT;
+                    }
+                    suspicious |= previous == '.';
+                    inDomain = true;
+                } else if (isLocalChar(c)) {
+                    suspicious |= c == '.' && previous == '.';
+                    if (++localLength > LOCAL_MAX_LENGTH) {
+                        return ValidationResult.INVALID_FORMAT;
+                    }
+                } else {
+                    return ValidationResult.INVALID_FORMAT;
+                }
+            } else if (c == '.') {
+                // Cubre "@." y ".." dentro del dominio
+                if (labelLength == 0) {
+                    return ValidationResult.INVALID_FORMAT;
+                }
+                labels++;
+                labelLength = 0;
+            } else if (isAlphanumeric(c) || (c == '-' && labelLength > 0)) {
+                // Cada etiqueta empieza con letra o dígito
+                labelLength++;
+                int max = labels == 0 ? FIRST_LABEL_MAX_LENGTH : LABEL_MAX_LENGTH;
+                if (labelLength > max) {
+                    return ValidationResult.INVALID_FORMAT;
+                }
+            } else {
+                return ValidationResult.INVALID_FORMAT;
+            }
+            previous = c;
+        }
+
+        // Hace falta al menos un punto en el dominio y que no termine en él
+        if (!inDomain || labelLength == 0 || labels == 0) {
+            return ValidationResult.INVALID_FORMAT;
+        }
+        return suspicious ? ValidationResult.SUSPICIOUS : ValidationResult.VALID;
+    }
+
+    public static ValidationResult password(CharSequence password) {
+        if (password == null || password.length() == 0) {
+            return ValidationResult.EMPTY;
+        }
+        if (password.length() < PASSWORD_MIN_LENGTH) {
+            return ValidationResult.TOO_SHORT;
+        }
+        if (password.length() > PASSWORD_MAX_LENGTH) {
+            return ValidationResult.TOO_LONG;
+        }
+        return ValidationResult.VALID;
+    }
+
+    public static ValidationResult tipoReporte(CharSequence tipoReporte) {
+        return text(tipoReporte, TIPO_REPORTE_MAX_LENGTH, false);
+    }
+
+    // La descripción es el único campo que admite saltos de línea
+    public static ValidationResult descripcion(CharSequence descripcion) {
+        return text(descripcion, DESCRIPCION_MAX_LENGTH, true);
+    }
+
+    public static ValidationResult ubicacion(CharSequence ubicacion) {
+        return text(ubicacion, UBICACION_MAX_LENGTH, false);
+    }
+
+    // Texto libre: no vacío ni solo espacios, sin caracteres de control y con
+    // los pares sustitutos de UTF-16 completos (un emoji cortado no llega a Firestore)
+    static ValidationResult text(CharSequence text, int maxLength, boolean multiline) {
+        if (text == null) {
+            return ValidationResult.EMPTY;
+        }
+        int length = text.length();
+        if (length > maxLength) {
+            return ValidationResult.TOO_LONG;
+        }
+
+        boolean blank = true;
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (Character.isHighSurrogate(c)) {
+                if (i + 1 == length || !Character.isLowSurrogate(text.charAt(i + 1))) {
+                    return ValidationResult.INVALID_CHARACTER;
+                }
+                i++;
+                blank = false;
+            } else if (Character.isLowSurrogate(c)) {
+                return ValidationResult.INVALID_CHARACTER;
+            } else if (c == '\n' || c == '\r' || c == '\t') {
+                if (c != '\t' && !multiline) {
+                    return ValidationResult.INVALID_CHARACTER;
+                }
+            } else if (Character.isISOControl(c)) {
+                return ValidationResult.INVALID_CHARACTER;
+            } else if (blank && !Character.isWhitespace(c) && !Character.isSpaceChar(c)) {
+                blank = false;
+            }
+        }
+        return blank ? ValidationResult.EMPTY : ValidationResult.VALID;
+    }
+
+    // [a-zA-Z0-9+._%-]
+    private static boolean isLocalChar(char c) {
+        return isAlphanumeric(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+
+    // Solo ASCII, como la expresión de Patterns
+    private static boolean isAlphanumeric(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.alertamx.validation;
+
+// Resultado de validar un campo. Son constantes: validar no crea objetos
+public enum ValidationResult {
+    VALID,
+    EMPTY,
+    TOO_SHORT,
+    TOO_LONG,
+    INVALID_FORMAT,
+    // Email con formato válido pero con patrones típicos de intentos de inyección
+    SUSPICIOUS,
+    // Caracteres de control o texto Unicode mal formado
+    INVALID_CHARACTER;
+
+    public boolean isValid() {
+        return this == VALID;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.alertamx.validation;
+
+import org.junit.Test;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.*;
+
+public class InputValidatorTest {
+
+    // android.util.Patterns.EMAIL_ADDRESS, la referencia de formato
+    private static final Pattern EMAIL_ADDRESS = Pattern.compile(
+            "[a-zA-Z0-9\\+\\.\\_\\%\\-\\+]{1,256}\\@[a-zA-Z0-9][a-zA-Z0-9\\-]{0,64}"
+                    + "(\\.[a-zA-Z0-9][a-zA-Z0-9\\-]{0,25})+");
+
+    @Test
+    public void email_acceptsCommonAddresses() {
+        assertEquals(ValidationResult.VALID, InputValidator.email("ana@example.com"));
+        assertEquals(ValidationResult.VALID, InputValidator.email("ana.maria+avisos@correo.gob.mx"));
+        assertEquals(ValidationResult.VALID, InputValidator.email("a_b%c-d@sub-dominio.example.co"));
+    }
+
+    @Test
+    public void email_rejectsMalformed() {
+        assertEquals(ValidationResult.EMPTY, InputValidator.email(""));
+        assertEquals(ValidationResult.EMPTY, InputValidator.email(null));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana"));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("@example.com"));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana@example"));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana@example."));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana@.example.com"));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana@example..com"));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana@-example.com"));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana@@example.com"));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana maria@example.com"));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("'ana'@example.com"));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana@ejemplo.méxico"));
+    }
+
+    @Test
+    public void email_flagsSuspiciousPatterns() {
+        assertEquals(ValidationResult.SUSPICIOUS, InputValidator.email("ana..maria@example.com"));
+        assertEquals(ValidationResult.SUSPICIOUS, InputValidator.email("ana.@example.com"));
+    }
+
+    @Test
+    public void email_enforcesLengthLimits() {
+        StringBuilder local = new StringBuilder();
+        while (local.length() < 242) {
+            local.append('a');
+        }
+        assertEquals(ValidationResult.VALID, InputValidator.email(local + "@example.com"));
+        assertEquals(ValidationResult.TOO_LONG, InputValidator.email(local + "a@example.com"));
+
+        StringBuilder label = new StringBuilder();
+        while (label.length() < 26) {
+            label.append('b');
+        }
+        assertEquals(ValidationResult.VALID, InputValidator.email("ana@example." + label));
+        assertEquals(ValidationResult.INVALID_FORMAT, InputValidator.email("ana@example." + label + "b"));
+    }
+
+    @Test
+    public void email_matchesRegexOnRandomInputs() {
+        // Mismo veredicto que la expresión regular anterior (más los patrones sospechosos)
+        Random random = new Random(2024);
+        String alphabet = "ab9.-_+%@ '\"Z";
+        for (int i = 0; i < 50_000; i++) {
+            int length = 1 + random.nextInt(16);
+            StringBuilder builder = new StringBuilder();
+            for (int j = 0; j < length; j++) {
+                builder.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String email = builder.toString();
+            boolean legacy = EMAIL_ADDRESS.matcher(email).matches()
+                    && !email.contains("..") && !email.contains(".@") && !email.contains("@.");
+            assertEquals(email, legacy, InputValidator.email(email).isValid());
+        }
+    }
+
+    @Test
+    public void password_checksLength() {
+        assertEquals(ValidationResult.EMPTY, InputValidator.password(""));
+        assertEquals(ValidationResult.TOO_SHORT, InputValidator.password("12345"));
+        assertEquals(ValidationResult.VALID, InputValidator.password("123456"));
+        StringBuilder password = new StringBuilder();
+        while (password.length() < 129) {
+            password.append('x');
+        }
+        assertEquals(ValidationResult.TOO_LONG, InputValidator.password(password));
+    }
+
+    @Test
+    public void reportFields_rejectBlankAndControlCharacters() {
+        assertEquals(ValidationResult.VALID, InputValidator.tipoReporte("Bache en la vía"));
+        assertEquals(ValidationResult.EMPTY, InputValidator.tipoReporte("   "));
+        assertEquals(ValidationResult.EMPTY, InputValidator.ubicacion(" "));
+        assertEquals(ValidationResult.INVALID_CHARACTER, InputValidator.ubicacion("Calle 5\u0000"));
+        assertEquals(ValidationResult.INVALID_CHARACTER, InputValidator.ubicacion("Calle 5\nCol. Centro"));
+        assertEquals(ValidationResult.VALID, InputValidator.descripcion("Primera línea\nSegunda\ttabulada"));
+    }
+
+    @Test
+    public void reportFields_requireCompleteSurrogatePairs() {
+        assertEquals(ValidationResult.VALID, InputValidator.descripcion("Sin luz 💡"));
+        assertEquals(ValidationResult.INVALID_CHARACTER, InputValidator.descripcion("Sin luz \uD83D"));
+        assertEquals(ValidationResult.INVALID_CHARACTER, InputValidator.descripcion("\uDCA1 sin luz"));
+    }
+
+    @Test
+    public void reportFields_enforceMaxLength() {
+        StringBuilder text = new StringBuilder();
+        while (text.length() < InputValidator.UBICACION_MAX_LENGTH) {
+            text.append('x');
+        }
+        assertEquals(ValidationResult.VALID, InputValidator.ubicacion(text));
+        text.append('x');
+        assertEquals(ValidationResult.TOO_LONG, InputValidator.ubicacion(text));
+    }
+}